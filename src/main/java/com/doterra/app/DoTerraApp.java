@@ -1,5 +1,6 @@
 package com.doterra.app;
 
+import com.doterra.app.util.StartupTimeline;
 import com.doterra.app.view.MainView;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -19,12 +20,19 @@ public class DoTerraApp extends Application {
 
     @Override
     public void start(Stage primaryStage) {
+        StartupTimeline.mark("application start");
+        
         // Create main view
-        MainView mainView = new MainView();
+        MainView mainView;
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("main view")) {
+            mainView = new MainView();
+        }
         
         // Set up the scene
         Scene scene = new Scene(mainView.getRoot(), WINDOW_WIDTH, WINDOW_HEIGHT);
-        scene.getStylesheets().add(getClass().getResource("/styles/main.css").toExternalForm());
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("stylesheet")) {
+            scene.getStylesheets().add(getClass().getResource("/styles/main.css").toExternalForm());
+        }
         
         // Configure stage
         primaryStage.setTitle(APP_TITLE);
@@ -48,9 +56,32 @@ public class DoTerraApp extends Application {
         }));
         
         // Set up taskbar badge based on ready todo count
-        setupTaskbarBadge(primaryStage, mainView);
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("badge icon")) {
+            setupTaskbarBadge(primaryStage, mainView);
+        }
         
-        primaryStage.show();
+        if (StartupTimeline.isEnabled()) {
+            traceFirstFrame(scene);
+        }
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("show window")) {
+            primaryStage.show();
+        }
+    }
+    
+    /**
+     * Mark the end of the first pulse that lays out the scene, after which its first frame is
+     * rendered, and let the startup report be written
+     */
+    private void traceFirstFrame(Scene scene) {
+        StartupTimeline.Phase firstFrame = StartupTimeline.begin("first frame");
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                firstFrame.end();
+                StartupTimeline.finish();
+            }
+        });
     }
     
     /**
@@ -143,6 +174,7 @@ public class DoTerraApp extends Application {
     }
 
     public static void main(String[] args) {
+        StartupTimeline.mark("launch");
         launch(args);
     }
 }
\ No newline at end of file
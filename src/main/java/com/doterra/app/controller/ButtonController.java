@@ -4,17 +4,47 @@ import com.doterra.app.model.ButtonTab;
 import com.doterra.app.model.ScriptButton;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.KeyValueStore;
 
 public class ButtonController {
     
-    private final Map<String, ButtonTab> tabs;
+    // Tabs in display order, indexed by id and by name; renames go through renameTab
+    private final List<ButtonTab> tabOrder = new ArrayList<>();
+    private final Map<String, ButtonTab> tabs = new HashMap<>();
+    private final Map<String, ButtonTab> tabsByName = new HashMap<>();
+    // Name-keyed view returned by getTabs(), rebuilt after tabs change
+    private Map<String, ButtonTab> tabsByNameView;
     private final String saveFile;
     
+    // File I/O lane and save key for this controller's store
+    private final String ioKey;
+    
+    // Store records: the tab order, one record per tab so an edit only rewrites that tab, and one
+    // per button's content so tabs load as light metadata and content is read when needed
+    private static final String ORDER_KEY = "order";
+    private static final String TAB_KEY_PREFIX = "tab/";
+    private static final String CONTENT_KEY_PREFIX = "content/";
+    
+    // Stored content kept in memory once read, in characters (about 4 MB)
+    private static final long CONTENT_CACHE_CHARS = 2_000_000;
+    private final ScriptContentCache contentCache = new ScriptContentCache(CONTENT_CACHE_CHARS);
+    private final ScriptButton.ContentSource contentSource = this::loadContent;
+    private volatile KeyValueStore.Namespace store;
+    
+    // Kept in step with every add, edit, move and delete below
+    private final ScriptSearchIndex searchIndex = new ScriptSearchIndex();
+    
     public ButtonController() {
         this(true, "data/doterra_buttons.dat");
     }
@@ -41,26 +71,53 @@ public class ButtonController {
      * @param saveFileName the name of the save file to use
      */
     public ButtonController(boolean loadState, String saveFileName) {
-        tabs = new LinkedHashMap<>(); // Use LinkedHashMap to preserve order
         this.saveFile = saveFileName;
+        this.ioKey = "button-controller-" + saveFileName;
         if (loadState) {
             loadStateAsync();
         }
     }
     
     public void addTab(ButtonTab tab) {
-        // Check if a tab with the same name already exists
-        for (ButtonTab existingTab : tabs.values()) {
-            if (existingTab.getName().equals(tab.getName())) {
-                // Don't add duplicate tabs with the same name
-                return;
-            }
+        // Don't add duplicate tabs with the same name
+        if (tabsByName.containsKey(tab.getName())) {
+            return;
         }
-        tabs.put(tab.getId(), tab);
+        putTab(tab);
+        searchIndex.putTab(tab);
     }
     
     public boolean removeTab(String tabId) {
-        return tabs.remove(tabId) != null;
+        ButtonTab removed = tabs.remove(tabId);
+        if (removed == null) {
+            return false;
+        }
+        tabOrder.remove(removed);
+        unindexName(removed);
+        tabsByNameView = null;
+        searchIndex.removeTab(removed);
+        for (ScriptButton button : removed.getButtons()) {
+            if (button != null) {
+                contentCache.remove(button.getId());
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Rename a tab, keeping the name index in step
+     * @return false if there is no such tab
+     */
+    public boolean renameTab(String tabId, String name) {
+        ButtonTab tab = tabs.get(tabId);
+        if (tab == null) {
+            return false;
+        }
+        unindexName(tab);
+        tab.setName(name);
+        tabsByName.putIfAbsent(name, tab);
+        tabsByNameView = null;
+        return true;
     }
     
     public ButtonTab getTab(String tabId) {
@@ -68,24 +125,68 @@ public class ButtonController {
     }
     
     public List<ButtonTab> getAllTabs() {
-        return new ArrayList<>(tabs.values());
+        return new ArrayList<>(tabOrder);
+    }
+    
+    private void putTab(ButtonTab tab) {
+        ButtonTab replaced = tabs.put(tab.getId(), tab);
+        if (replaced != null) {
+            tabOrder.remove(replaced);
+            unindexName(replaced);
+        }
+        tabOrder.add(tab);
+        tabsByName.putIfAbsent(tab.getName(), tab);
+        tabsByNameView = null;
+    }
+    
+    /**
+     * Drop a tab from the name index, handing its name to another tab of the same name if a
+     * saved file held duplicates
+     */
+    private void unindexName(ButtonTab tab) {
+        if (!tabsByName.remove(tab.getName(), tab)) {
+            return;
+        }
+        for (ButtonTab other : tabOrder) {
+            if (other != tab && other.getName().equals(tab.getName())) {
+                tabsByName.put(other.getName(), other);
+                return;
+            }
+        }
     }
     
     public void addButtonToTab(String tabId, ScriptButton button) {
         ButtonTab tab = tabs.get(tabId);
         if (tab != null) {
             tab.addButton(button);
+            searchIndex.put(tabId, button);
         }
     }
     
     public boolean removeButtonFromTab(String tabId, String buttonId) {
         ButtonTab tab = tabs.get(tabId);
-        if (tab != null) {
-            return tab.removeButton(buttonId);
+        if (tab != null && tab.removeButton(buttonId)) {
+            searchIndex.remove(buttonId);
+            contentCache.remove(buttonId);
+            return true;
         }
         return false;
     }
     
+    /**
+     * Re-index a button after its name or content was changed in place
+     */
+    public void buttonEdited(ScriptButton button) {
+        searchIndex.update(button);
+    }
+    
+    /**
+     * @return Search index over every button in this controller's tabs
+     */
+    public ScriptSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+    
     public ScriptButton getButton(String tabId, String buttonId) {
         ButtonTab tab = tabs.get(tabId);
         if (tab != null) {
@@ -95,85 +196,270 @@ public class ButtonController {
     }
     
     public void saveState() {
-        AsyncFileOperations.debouncedSave("button-controller-" + saveFile, 500, () -> {
+        AsyncFileOperations.debouncedSave(ioKey, 500, this::snapshotTabs, tabList -> {
             try {
-                // Ensure parent directory exists
-                File file = new File(saveFile);
-                File parentDir = file.getParentFile();
-                if (parentDir != null && !parentDir.exists()) {
-                    parentDir.mkdirs();
-                }
-                
-                try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(saveFile))) {
-                    // Convert to list for serialization
-                    List<ButtonTab> tabList = new ArrayList<>(tabs.values());
-                    oos.writeObject(tabList);
-                }
+                writeTabs(tabList);
             } catch (IOException e) {
                 System.err.println("Error saving button state: " + e.getMessage());
             }
         });
     }
     
+    /**
+     * Write the current tabs right away on the calling thread, bypassing the debounced save (for testing purposes)
+     */
+    void saveStateNow() throws IOException {
+        writeTabs(snapshotTabs());
+    }
+    
+    /**
+     * Copy the current tabs so they can be written while the UI keeps editing the live model
+     */
+    private List<ButtonTab> snapshotTabs() {
+        List<ButtonTab> tabList = new ArrayList<>(tabOrder.size());
+        for (ButtonTab tab : tabOrder) {
+            tabList.add(tab.snapshot());
+        }
+        return tabList;
+    }
+    
     /**
      * Load state asynchronously
      */
     public void loadStateAsync() {
-        AsyncFileOperations.loadAsync(
+        loadStateAsync(null);
+    }
+    
+    /**
+     * Load state asynchronously
+     * @param onLoaded Run on the JavaFX thread once the tabs are set, even if loading failed, or null
+     */
+    public void loadStateAsync(Runnable onLoaded) {
+        AsyncFileOperations.loadAsync(ioKey,
             () -> {
                 // This runs on background thread
-                File file = new File(saveFile);
-                if (!file.exists()) {
-                    return new ArrayList<ButtonTab>(); // No saved state to load
-                }
-                
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
-                    @SuppressWarnings("unchecked")
-                    List<ButtonTab> tabList = (List<ButtonTab>) ois.readObject();
-                    return tabList;
-                } catch (IOException | ClassNotFoundException e) {
+                try {
+                    return readTabs();
+                } catch (IOException e) {
                     System.err.println("Error loading button state: " + e.getMessage());
                     return new ArrayList<ButtonTab>();
                 }
             },
             (tabList) -> {
                 // This runs on JavaFX thread
-                tabs.clear();
-                for (ButtonTab tab : tabList) {
-                    tabs.put(tab.getId(), tab);
+                setLoadedTabs(tabList);
+                prefetchContentAsync();
+                if (onLoaded != null) {
+                    onLoaded.run();
                 }
             },
             (error) -> {
                 // This runs on JavaFX thread
                 System.err.println("Error loading button state: " + error.getMessage());
                 error.printStackTrace();
+                if (onLoaded != null) {
+                    onLoaded.run();
+                }
             }
         );
     }
     
-    @SuppressWarnings("unchecked")
     public void loadState() {
-        File file = new File(saveFile);
-        if (!file.exists()) {
-            return; // No saved state to load
+        try {
+            setLoadedTabs(readTabs());
+            List<ScriptButton> stored = storedContentButtons();
+            indexPrefetched(stored, prefetchContent(stored));
+        } catch (IOException e) {
+            System.err.println("Error loading button state: " + e.getMessage());
         }
-        
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
-            List<ButtonTab> tabList = (List<ButtonTab>) ois.readObject();
-            tabs.clear();
-            for (ButtonTab tab : tabList) {
-                tabs.put(tab.getId(), tab);
+    }
+    
+    private void setLoadedTabs(List<ButtonTab> tabList) {
+        clearTabs();
+        searchIndex.clear();
+        contentCache.clear();
+        for (ButtonTab tab : tabList) {
+            putTab(tab);
+            for (ScriptButton button : tab.getButtons()) {
+                if (button != null) {
+                    button.setContentSource(contentSource);
+                    // Stored content is indexed once the prefetch has read it
+                    searchIndex.put(tab.getId(), button, ScriptSearchIndex.plainText(button.getLoadedContent()));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Read a button's stored content from the cache, or else from the store
+     */
+    private String loadContent(String buttonId) {
+        String content = contentCache.get(buttonId);
+        if (content == null) {
+            try {
+                content = openStore().get(CONTENT_KEY_PREFIX + buttonId);
+            } catch (IOException e) {
+                System.err.println("Error loading script content: " + e.getMessage());
+                return null;
+            }
+            if (content != null) {
+                contentCache.put(buttonId, content);
             }
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading button state: " + e.getMessage());
         }
+        return content;
+    }
+    
+    /**
+     * @return The buttons whose content is stored separately and not held in memory
+     */
+    private List<ScriptButton> storedContentButtons() {
+        List<ScriptButton> stored = new ArrayList<>();
+        for (ButtonTab tab : tabOrder) {
+            for (ScriptButton button : tab.getButtons()) {
+                if (button != null && button.isContentStored() && button.getLoadedContent() == null) {
+                    stored.add(button);
+                }
+            }
+        }
+        return stored;
+    }
+    
+    /**
+     * Read stored content in the background after the tabs are shown, caching what fits and
+     * indexing all of it for search
+     */
+    private void prefetchContentAsync() {
+        List<ScriptButton> stored = storedContentButtons();
+        if (stored.isEmpty()) {
+            return;
+        }
+        AsyncFileOperations.loadAsync(ioKey,
+            () -> prefetchContent(stored),
+            texts -> indexPrefetched(stored, texts),
+            error -> System.err.println("Error prefetching script content: " + error.getMessage()));
+    }
+    
+    /**
+     * Read the content of buttons, in tab order; only reads button ids, so it can run off the JavaFX thread
+     * @return Button id to content text without markup
+     */
+    private Map<String, String> prefetchContent(List<ScriptButton> buttons) throws IOException {
+        KeyValueStore.Namespace namespace = openStore();
+        Map<String, String> texts = new HashMap<>();
+        for (ScriptButton button : buttons) {
+            String content = contentCache.get(button.getId());
+            if (content == null) {
+                content = namespace.get(CONTENT_KEY_PREFIX + button.getId());
+                if (content == null) {
+                    continue;
+                }
+                // Earlier tabs are shown first, so later ones should not push them out
+                contentCache.putIfRoom(button.getId(), content);
+            }
+            texts.put(button.getId(), ScriptSearchIndex.plainText(content));
+        }
+        return texts;
+    }
+    
+    private void indexPrefetched(List<ScriptButton> buttons, Map<String, String> texts) {
+        for (ScriptButton button : buttons) {
+            String text = texts.get(button.getId());
+            // Content edited since was indexed when it was edited
+            if (text != null && button.getLoadedContent() == null) {
+                searchIndex.update(button, text);
+            }
+        }
+    }
+    
+    private void clearTabs() {
+        tabOrder.clear();
+        tabs.clear();
+        tabsByName.clear();
+        tabsByNameView = null;
+    }
+    
+    /**
+     * Open this controller's namespace in the key-value store next to the save file, importing
+     * the old whole-file save the first time. Called from both the I/O and the JavaFX thread.
+     */
+    private synchronized KeyValueStore.Namespace openStore() throws IOException {
+        if (store != null) {
+            return store;
+        }
+        Path legacyFile = Paths.get(saveFile).toAbsolutePath();
+        String name = legacyFile.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        if (extension > 0) {
+            name = name.substring(0, extension);
+        }
+        store = KeyValueStore.open(legacyFile.getParent().resolve("store")).namespace(name, legacyFile, (file, namespace) -> {
+            @SuppressWarnings("unchecked")
+            List<ButtonTab> legacyTabs = (List<ButtonTab>) KeyValueStore.readLegacyFile(file);
+            if (legacyTabs != null) {
+                writeTabs(namespace, legacyTabs);
+            }
+        });
+        return store;
+    }
+    
+    private List<ButtonTab> readTabs() throws IOException {
+        KeyValueStore.Namespace store = openStore();
+        List<String> order = store.get(ORDER_KEY);
+        List<ButtonTab> tabList = new ArrayList<>();
+        if (order != null) {
+            for (String tabId : order) {
+                ButtonTab tab = store.get(TAB_KEY_PREFIX + tabId);
+                if (tab != null) {
+                    tabList.add(tab);
+                }
+            }
+        }
+        return tabList;
+    }
+    
+    private void writeTabs(List<ButtonTab> tabList) throws IOException {
+        writeTabs(openStore(), tabList);
+    }
+    
+    /**
+     * Commit the tabs as one batch; records that did not change are skipped by the store.
+     * Content held by the buttons is moved to content records, so the tabs must be detached copies.
+     */
+    private static void writeTabs(KeyValueStore.Namespace store, List<ButtonTab> tabList) throws IOException {
+        KeyValueStore.WriteBatch batch = new KeyValueStore.WriteBatch();
+        ArrayList<String> order = new ArrayList<>(tabList.size());
+        Set<String> liveKeys = new HashSet<>();
+        for (ButtonTab tab : tabList) {
+            order.add(tab.getId());
+            for (ScriptButton button : tab.getButtons()) {
+                if (button == null) {
+                    continue;
+                }
+                String contentKey = CONTENT_KEY_PREFIX + button.getId();
+                liveKeys.add(contentKey);
+                String content = button.getLoadedContent();
+                if (content != null) {
+                    batch.put(contentKey, content);
+                }
+                button.detachContent();
+            }
+            liveKeys.add(TAB_KEY_PREFIX + tab.getId());
+            batch.put(TAB_KEY_PREFIX + tab.getId(), tab);
+        }
+        batch.put(ORDER_KEY, order);
+        for (String key : store.keys()) {
+            if ((key.startsWith(TAB_KEY_PREFIX) || key.startsWith(CONTENT_KEY_PREFIX)) && !liveKeys.contains(key)) {
+                batch.delete(key);
+            }
+        }
+        store.commit(batch);
     }
     
     public void reorderTabs(List<ButtonTab> newOrder) {
         // Clear existing tabs and rebuild in new order
-        tabs.clear();
+        clearTabs();
         for (ButtonTab tab : newOrder) {
-            tabs.put(tab.getId(), tab);
+            putTab(tab);
         }
     }
     
@@ -188,56 +474,45 @@ public class ButtonController {
         ButtonTab draggedTab = tabs.get(draggedTabId);
         ButtonTab targetTab = tabs.get(targetTabId);
         
-        if (draggedTab == null || targetTab == null) {
+        if (draggedTab == null || targetTab == null || draggedTab == targetTab) {
             return false;
         }
         
-        // Create new ordered list
-        List<ButtonTab> tabList = new ArrayList<>(tabs.values());
+        // Move within the ordered list; the id and name indexes are unaffected
+        int draggedIndex = tabOrder.indexOf(draggedTab);
+        int targetIndex = tabOrder.indexOf(targetTab);
+        tabOrder.remove(draggedIndex);
         
-        // Find current positions
-        int draggedIndex = -1;
-        int targetIndex = -1;
-        
-        for (int i = 0; i < tabList.size(); i++) {
-            if (tabList.get(i).getId().equals(draggedTabId)) {
-                draggedIndex = i;
-            }
-            if (tabList.get(i).getId().equals(targetTabId)) {
-                targetIndex = i;
-            }
-        }
-        
-        if (draggedIndex != -1 && targetIndex != -1 && draggedIndex != targetIndex) {
-            // Remove and reinsert at new position
-            ButtonTab removedTab = tabList.remove(draggedIndex);
-            
-            // Adjust target index if we removed a tab before it
-            if (draggedIndex < targetIndex) {
-                targetIndex--;
-            }
-            
-            tabList.add(targetIndex, removedTab);
-            
-            // Update the tabs map with new order
-            reorderTabs(tabList);
-            return true;
+        // Adjust target index if we removed a tab before it
+        if (draggedIndex < targetIndex) {
+            targetIndex--;
         }
         
-        return false;
+        tabOrder.add(targetIndex, draggedTab);
+        tabsByNameView = null;
+        return true;
     }
     
+    /**
+     * @return Tabs keyed by name, in display order; read-only and rebuilt only after tabs change
+     */
     public Map<String, ButtonTab> getTabs() {
-        // Return tabs indexed by name for test compatibility
-        Map<String, ButtonTab> tabsByName = new LinkedHashMap<>();
-        for (ButtonTab tab : tabs.values()) {
-            tabsByName.put(tab.getName(), tab);
+        if (tabsByNameView == null) {
+            Map<String, ButtonTab> byName = new LinkedHashMap<>();
+            for (ButtonTab tab : tabOrder) {
+                byName.put(tab.getName(), tab);
+            }
+            tabsByNameView = Collections.unmodifiableMap(byName);
         }
-        return tabsByName;
+        return tabsByNameView;
     }
     
     public Map<String, ButtonTab> getTabsById() {
-        return new LinkedHashMap<>(tabs);
+        Map<String, ButtonTab> byId = new LinkedHashMap<>();
+        for (ButtonTab tab : tabOrder) {
+            byId.put(tab.getId(), tab);
+        }
+        return byId;
     }
     
     /**
@@ -247,8 +522,7 @@ public class ButtonController {
      * @return true if the name is already used by another tab
      */
     public boolean isTabNameDuplicate(String name) {
-        return tabs.values().stream()
-                .anyMatch(tab -> tab.getName().equals(name));
+        return tabsByName.containsKey(name);
     }
     
     /**
@@ -260,9 +534,20 @@ public class ButtonController {
      * @return true if the name is already used by another tab (excluding the specified tab)
      */
     public boolean isTabNameDuplicate(String name, String excludeTabId) {
-        return tabs.values().stream()
-                .filter(tab -> !tab.getId().equals(excludeTabId))
-                .anyMatch(tab -> tab.getName().equals(name));
+        ButtonTab named = tabsByName.get(name);
+        if (named == null) {
+            return false;
+        }
+        if (!named.getId().equals(excludeTabId)) {
+            return true;
+        }
+        // Only a saved file can hold two tabs of one name; check for another
+        for (ButtonTab tab : tabOrder) {
+            if (tab != named && tab.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
@@ -294,6 +579,7 @@ public class ButtonController {
         if (sourceTab.removeButton(buttonId)) {
             // Add to target tab
             targetTab.addButton(button);
+            searchIndex.put(targetTabId, button);
             return true;
         }
         
@@ -8,16 +8,47 @@ import com.doterra.app.view.TodoPanel;
 import com.doterra.app.view.StickyNotePanel;
 import com.doterra.app.view.CalendarPanel;
 import com.doterra.app.view.ImageNotesPanel;
+import com.doterra.app.view.IdleWorkQueue;
+import com.doterra.app.view.Hibernatable;
 import com.doterra.app.model.NavigationSection;
+import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.KeyValueStore;
 import com.doterra.app.util.NavigationPreferences;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.scene.Node;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.control.Label;
 import javafx.geometry.Pos;
+import javafx.util.Duration;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class NavigationController {
 
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    // Number of most used panels built ahead of time; 0 turns prewarming off
+    private static final String PREWARM_PANELS_PROPERTY = "doterra.prewarmPanels";
+    // Heap the prewarmed panels may take, in megabytes
+    private static final String PREWARM_BUDGET_PROPERTY = "doterra.prewarmBudgetMb";
+    // Prewarmed panels still not opened after this long without navigation are released
+    private static final Duration PREWARM_RELEASE_DELAY = Duration.minutes(10);
+    // Heap charged for a prewarmed panel's nodes and caches, on top of its saved data
+    private static final long PREWARM_VIEW_COST = 4L * 1024 * 1024;
+    // Minutes a panel stays hidden before it is hibernated; 0 keeps panels for the whole session
+    private static final String HIBERNATE_MINUTES_PROPERTY = "doterra.hibernateMinutes";
+    private static final Duration HIBERNATE_CHECK_INTERVAL = Duration.minutes(1);
+    
     private final BorderPane mainContainer;
     
     // Pre-initialized panels (lightweight)
@@ -25,12 +56,36 @@ public class NavigationController {
     private final EmailScriptsPanel emailScriptsPanel;
     private final CalculatorPanel calculatorPanel;
     
-    // Lazy-loaded panels (heavyweight due to file I/O)
-    private RegexEditorPanel regexEditorPanel;
-    private TodoPanel todoPanel;
-    private StickyNotePanel stickyNotePanel;
-    private CalendarPanel calendarPanel;
-    private ImageNotesPanel imageNotesPanel;
+    // Lazy-loaded panels (heavyweight due to file I/O); saved data is read in the background
+    private final LazyPanel<RegexEditorPanel.SavedData, RegexEditorPanel> regexEditorPanel =
+        new LazyPanel<>("regex-templates", RegexEditorPanel::readSavedData, RegexEditorPanel::new,
+            RegexEditorPanel::cleanup, "regex_templates", "regex_tests");
+    // TodoPanel and CalendarPanel load their own data asynchronously
+    private final LazyPanel<Void, TodoPanel> todoPanel =
+        new LazyPanel<>("todo-data", null, data -> new TodoPanel(), TodoPanel::cleanup, "todos");
+    private final LazyPanel<StickyNotePanel.SavedData, StickyNotePanel> stickyNotePanel =
+        new LazyPanel<>("sticky-notes", StickyNotePanel::readSavedData, StickyNotePanel::new,
+            StickyNotePanel::cleanup, "sticky_notes");
+    private final LazyPanel<Void, CalendarPanel> calendarPanel =
+        new LazyPanel<>("calendar-notes", null, data -> new CalendarPanel(todoPanel.get()),
+            CalendarPanel::cleanup, "calendar_notes");
+    private final LazyPanel<ImageNotesPanel.SavedState, ImageNotesPanel> imageNotesPanel =
+        new LazyPanel<>("image-notes", ImageNotesPanel::readSavedState, ImageNotesPanel::new,
+            ImageNotesPanel::cleanup, "image_notes");
+    
+    // The panel being loaded for display; a later navigation replaces it so a slow load never
+    // covers the panel the user moved on to
+    private Object pendingShow;
+    
+    // Created when prewarming starts, as both need the JavaFX toolkit
+    private IdleWorkQueue prewarmWork;
+    private PauseTransition prewarmRelease;
+    // Estimated heap taken by the panels built ahead so far, kept within the budget
+    private long prewarmCharged;
+    
+    // The lazy panel on screen, which is never hibernated
+    private LazyPanel<?, ?> shownPanel;
+    private Timeline hibernateCheck;
     
     // Navigation structure
     private NavigationPreferences navigationPreferences;
@@ -45,19 +100,13 @@ public class NavigationController {
         this.emailScriptsPanel = emailScriptsPanel;
         this.calculatorPanel = calculatorPanel;
         
-        // Heavyweight panels will be lazily loaded
-        this.regexEditorPanel = null;
-        this.todoPanel = null;
-        this.stickyNotePanel = null;
-        this.calendarPanel = null;
-        this.imageNotesPanel = null;
-        
         // Initialize navigation structure
         this.navigationPreferences = NavigationPreferences.load();
         this.navigationSections = createNavigationSections();
     }
     
     public void showPanel(String panelId) {
+        navigated(panelId.toLowerCase());
         switch (panelId.toLowerCase()) {
             case "chat":
                 mainContainer.setCenter(chatScriptsPanel.getRoot());
@@ -66,51 +115,22 @@ public class NavigationController {
                 mainContainer.setCenter(emailScriptsPanel.getRoot());
                 break;
             case "regex":
-                loadAndShowPanel(() -> {
-                    if (regexEditorPanel == null) {
-                        regexEditorPanel = new RegexEditorPanel();
-                    }
-                    return regexEditorPanel;
-                });
+                loadAndShowPanel(regexEditorPanel, null);
                 break;
             case "calculator":
                 mainContainer.setCenter(calculatorPanel);
                 break;
             case "todo":
-                loadAndShowPanel(() -> {
-                    if (todoPanel == null) {
-                        todoPanel = new TodoPanel();
-                    }
-                    return todoPanel;
-                });
+                loadAndShowPanel(todoPanel, null);
                 break;
             case "stickynote":
-                loadAndShowPanel(() -> {
-                    if (stickyNotePanel == null) {
-                        stickyNotePanel = new StickyNotePanel();
-                    }
-                    return stickyNotePanel.getRoot();
-                });
+                loadAndShowPanel(stickyNotePanel, null);
                 break;
             case "calendar":
-                loadAndShowPanel(() -> {
-                    if (calendarPanel == null) {
-                        // Get TodoPanel first if needed
-                        if (todoPanel == null) {
-                            todoPanel = new TodoPanel();
-                        }
-                        calendarPanel = new CalendarPanel(todoPanel);
-                    }
-                    return calendarPanel;
-                });
+                loadAndShowPanel(calendarPanel, null);
                 break;
             case "imagenotes":
-                loadAndShowPanel(() -> {
-                    if (imageNotesPanel == null) {
-                        imageNotesPanel = new ImageNotesPanel();
-                    }
-                    return imageNotesPanel;
-                });
+                loadAndShowPanel(imageNotesPanel, null);
                 break;
             default:
                 // Default to chat scripts panel
@@ -120,43 +140,449 @@ public class NavigationController {
     }
     
     /**
-     * Load a panel asynchronously and show a loading indicator
+     * Show the Regex Editor and load one of its templates
+     */
+    public void openRegexTemplate(String templateId) {
+        navigated("regex");
+        loadAndShowPanel(regexEditorPanel, panel -> panel.openTemplate(templateId));
+    }
+    
+    /**
+     * Show the Sticky Notes panel and open one note
+     */
+    public void openStickyNote(String noteId) {
+        navigated("stickynote");
+        loadAndShowPanel(stickyNotePanel, panel -> panel.openNote(noteId));
+    }
+    
+    private void navigated(String panelId) {
+        pendingShow = null;
+        if (shownPanel != null) {
+            shownPanel.hidden();
+            shownPanel = null;
+        }
+        navigationPreferences.recordPanelVisit(panelId);
+        if (prewarmRelease != null) {
+            prewarmRelease.playFromStart();
+        }
+    }
+    
+    /**
+     * Prepare the panels the user is likely to open next, at the lowest I/O priority and in idle
+     * frames. The most used panels from earlier sessions are built ahead of time while the heap
+     * estimated from their saved data stays within the budget; the other panels listed in
+     * expanded sections only have their saved data read, so opening one only has to build its
+     * view. Whatever has not been opened when navigation has been idle for a while is dropped.
+     */
+    public void prewarmLikelyPanels() {
+        prewarmWork = new IdleWorkQueue();
+        prewarmRelease = new PauseTransition(PREWARM_RELEASE_DELAY);
+        prewarmRelease.setOnFinished(e -> releaseUnusedPrewarmedPanels());
+        prewarmRelease.play();
+        
+        int prewarmCount = Integer.getInteger(PREWARM_PANELS_PROPERTY, 2);
+        if (prewarmCount > 0) {
+            for (String panelId : navigationPreferences.getPanelsByUsage()) {
+                LazyPanel<?, ?> panel = lazyPanel(panelId);
+                if (panel == null) {
+                    continue;
+                }
+                panel.prefetch(() -> prewarmWork.add(() -> {
+                    if (!panel.isCreated() && chargePrewarmBudget(panel)) {
+                        panel.buildAhead();
+                    }
+                }));
+                if (--prewarmCount == 0) {
+                    break;
+                }
+            }
+        }
+        
+        for (NavigationSection section : navigationSections) {
+            if (!section.isExpanded()) {
+                continue;
+            }
+            for (NavigationSection.NavigationItem item : section.getItems()) {
+                LazyPanel<?, ?> panel = lazyPanel(item.getPanelId());
+                if (panel != null) {
+                    panel.prefetch(null);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Charge a panel's estimated heap to the prewarm budget
+     * @return Whether it fit, and so may be built ahead
      */
-    private void loadAndShowPanel(java.util.function.Supplier<javafx.scene.Node> panelLoader) {
+    private boolean chargePrewarmBudget(LazyPanel<?, ?> panel) {
+        long budget = Integer.getInteger(PREWARM_BUDGET_PROPERTY, 64) * 1024L * 1024L;
+        long cost = PREWARM_VIEW_COST + panel.savedDataSize();
+        if (prewarmCharged + cost > budget) {
+            return false;
+        }
+        prewarmCharged += cost;
+        return true;
+    }
+    
+    /**
+     * Release the panels built ahead of time, and the data read ahead, that the user has not opened
+     */
+    private void releaseUnusedPrewarmedPanels() {
+        prewarmWork.clear();
+        // The calendar uses the todo panel, so release it first
+        calendarPanel.releaseIfUnused();
+        if (!calendarPanel.isCreated()) {
+            todoPanel.releaseIfUnused();
+        }
+        regexEditorPanel.releaseIfUnused();
+        stickyNotePanel.releaseIfUnused();
+        imageNotesPanel.releaseIfUnused();
+    }
+    
+    private LazyPanel<?, ?> lazyPanel(String panelId) {
+        switch (panelId) {
+            case "regex":
+                return regexEditorPanel;
+            case "todo":
+                return todoPanel;
+            case "stickynote":
+                return stickyNotePanel;
+            case "calendar":
+                return calendarPanel;
+            case "imagenotes":
+                return imageNotesPanel;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Show a lazily loaded panel, with a loading indicator while its data is read in the background
+     * @param onShown Run once the panel is shown, or null
+     */
+    private <P extends Node> void loadAndShowPanel(LazyPanel<?, P> lazyPanel, Consumer<P> onShown) {
+        shownPanel = lazyPanel;
+        lazyPanel.shown();
+        startHibernateCheck();
+        if (lazyPanel.isCreated()) {
+            P panel = lazyPanel.get();
+            mainContainer.setCenter(panel);
+            if (onShown != null) {
+                onShown.accept(panel);
+            }
+            return;
+        }
+        
         // Show loading indicator
         Label loadingLabel = new Label("Loading...");
         loadingLabel.setAlignment(Pos.CENTER);
         loadingLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #666;");
         mainContainer.setCenter(loadingLabel);
         
-        // Load panel asynchronously
-        com.doterra.app.util.AsyncFileOperations.executeAsync(
-            () -> {
-                // This will run on background thread, but panel creation must be on JavaFX thread
-                javafx.application.Platform.runLater(() -> {
-                    try {
-                        javafx.scene.Node panel = panelLoader.get();
-                        mainContainer.setCenter(panel);
-                    } catch (Exception e) {
-                        Label errorLabel = new Label("Error loading panel: " + e.getMessage());
-                        errorLabel.setAlignment(Pos.CENTER);
-                        errorLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: red;");
-                        mainContainer.setCenter(errorLabel);
-                        e.printStackTrace();
-                    }
-                });
+        Object show = new Object();
+        pendingShow = show;
+        lazyPanel.getAsync((panel, error) -> {
+            if (pendingShow != show) {
+                return;
+            }
+            pendingShow = null;
+            if (error != null) {
+                Label errorLabel = new Label("Error loading panel: " + error.getMessage());
+                errorLabel.setAlignment(Pos.CENTER);
+                errorLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: red;");
+                mainContainer.setCenter(errorLabel);
+                error.printStackTrace();
+                return;
             }
-        );
+            mainContainer.setCenter(panel);
+            if (onShown != null) {
+                onShown.accept(panel);
+            }
+        });
+    }
+    
+    private void startHibernateCheck() {
+        if (hibernateCheck == null && Integer.getInteger(HIBERNATE_MINUTES_PROPERTY, 15) > 0) {
+            hibernateCheck = new Timeline(new KeyFrame(HIBERNATE_CHECK_INTERVAL, e -> hibernateHiddenPanels()));
+            hibernateCheck.setCycleCount(Animation.INDEFINITE);
+            hibernateCheck.play();
+        }
+    }
+    
+    /**
+     * Release the panels hidden for longer than the hibernation delay, keeping their view state
+     * so the next visit rebuilds them as they were left. Todo and Calendar are kept, as their
+     * timers fire reminders and refresh the day.
+     */
+    private void hibernateHiddenPanels() {
+        long hiddenNanos = TimeUnit.MINUTES.toNanos(Integer.getInteger(HIBERNATE_MINUTES_PROPERTY, 15));
+        regexEditorPanel.hibernateIfHidden(hiddenNanos);
+        stickyNotePanel.hibernateIfHidden(hiddenNanos);
+        imageNotesPanel.hibernateIfHidden(hiddenNanos);
     }
     
     /**
      * Get the TodoPanel for external access (for calendar integration)
      */
     public TodoPanel getTodoPanel() {
-        if (todoPanel == null) {
-            todoPanel = new TodoPanel();
+        return todoPanel.get();
+    }
+    
+    /**
+     * A panel created on first use. Its saved data is read on the I/O executor and its view is then
+     * built from that data on the JavaFX thread, so only the short build runs on the UI thread.
+     * The data can also be read ahead of time with {@link #prefetch(Runnable)}, and the view built
+     * ahead of time with {@link #buildAhead()}.
+     *
+     * @param <D> The panel's saved data, or Void for panels that load their own
+     */
+    private static final class LazyPanel<D, P> {
+        private final String ioKey;
+        private final Callable<D> dataLoader;
+        private final Function<D, P> viewBuilder;
+        private final Consumer<P> disposer;
+        private final String[] namespaces;
+        private final List<BiConsumer<P, Exception>> waiting = new ArrayList<>();
+        private final List<Runnable> onDataRead = new ArrayList<>();
+        private P panel;
+        private D data;
+        private boolean dataLoaded;
+        private boolean loadRequested;
+        // Prefetch of the data, queued or running, or null
+        private Future<?> prefetch;
+        // Built ahead of time and not requested since
+        private boolean unused;
+        // When the panel was last hidden, or 0 while it is shown or has not been
+        private long hiddenAt;
+        // View state of a hibernated panel, restored when it is built again
+        private Object viewState;
+        
+        /**
+         * @param ioKey I/O lane for the read, matching the panel's save key
+         * @param dataLoader Reads the saved data off the JavaFX thread, or null if there is none
+         * @param disposer Stops the panel's timers and windows when it is released
+         * @param namespaces Store namespaces holding the panel's saved data
+         */
+        LazyPanel(String ioKey, Callable<D> dataLoader, Function<D, P> viewBuilder, Consumer<P> disposer,
+                  String... namespaces) {
+            this.ioKey = ioKey;
+            this.dataLoader = dataLoader;
+            this.viewBuilder = viewBuilder;
+            this.disposer = disposer;
+            this.namespaces = namespaces;
+            this.dataLoaded = dataLoader == null;
+        }
+        
+        boolean isCreated() {
+            return panel != null;
+        }
+        
+        /**
+         * @return The panel, or null if it has not been created
+         */
+        P getIfCreated() {
+            return panel;
+        }
+        
+        /**
+         * Get the panel now, reading its data on this thread if it has not been read yet
+         */
+        P get() {
+            unused = false;
+            if (panel == null) {
+                if (!dataLoaded) {
+                    try {
+                        data = dataLoader.call();
+                    } catch (Exception e) {
+                        System.err.println("Error loading panel data: " + e.getMessage());
+                    }
+                    dataLoaded = true;
+                }
+                build();
+            }
+            return panel;
+        }
+        
+        /**
+         * Call back on the JavaFX thread with the panel, or the error building it, once its data is read
+         */
+        void getAsync(BiConsumer<P, Exception> callback) {
+            unused = false;
+            if (panel != null) {
+                callback.accept(panel, null);
+                return;
+            }
+            waiting.add(callback);
+            if (dataLoaded) {
+                deliver();
+            } else if (!loadRequested) {
+                loadRequested = true;
+                if (prefetch != null) {
+                    // Reading it again would queue behind the prefetch on the same lane
+                    AsyncFileOperations.promoteToLoad(prefetch);
+                } else {
+                    AsyncFileOperations.loadAsync(ioKey, dataLoader, this::dataRead, this::dataFailed);
+                }
+            }
+        }
+        
+        /**
+         * Read the data in the background so the panel opens faster later
+         * @param onRead Run on the JavaFX thread once the data has been read, or null
+         */
+        void prefetch(Runnable onRead) {
+            if (dataLoaded) {
+                if (onRead != null) {
+                    onRead.run();
+                }
+                return;
+            }
+            if (onRead != null) {
+                onDataRead.add(onRead);
+            }
+            if (!loadRequested && prefetch == null) {
+                prefetch = AsyncFileOperations.prefetchAsync(ioKey, dataLoader, this::dataRead, this::dataFailed);
+            }
+        }
+        
+        /**
+         * Build the view from data already read, before the panel is requested
+         */
+        void buildAhead() {
+            if (panel == null && dataLoaded) {
+                build();
+                unused = true;
+            }
+        }
+        
+        /**
+         * Drop the panel if it was built ahead of time and never requested, or the data read
+         * ahead for it, so it is read and built again on first use
+         */
+        void releaseIfUnused() {
+            if (panel != null && unused) {
+                release();
+            } else if (panel == null && data != null && waiting.isEmpty()) {
+                data = null;
+                dataLoaded = false;
+                loadRequested = false;
+                prefetch = null;
+            }
+        }
+        
+        /**
+         * @return Bytes the panel's saved data takes on disk, a rough measure of the heap its
+         *         view takes once built
+         */
+        long savedDataSize() {
+            long size = 0;
+            for (String namespace : namespaces) {
+                size += KeyValueStore.logSize(STORE_DIR, namespace);
+            }
+            return size;
+        }
+        
+        void shown() {
+            hiddenAt = 0;
+        }
+        
+        void hidden() {
+            hiddenAt = System.nanoTime();
+        }
+        
+        /**
+         * Release the panel if it has been hidden for long enough and is {@link Hibernatable},
+         * keeping its view state; a panel that cannot be released now is trimmed instead
+         */
+        void hibernateIfHidden(long hiddenNanos) {
+            if (panel instanceof Hibernatable && hiddenAt != 0 && System.nanoTime() - hiddenAt >= hiddenNanos) {
+                Hibernatable<?> hibernatable = (Hibernatable<?>) panel;
+                if (hibernatable.canHibernate()) {
+                    viewState = hibernatable.saveViewState();
+                    release();
+                } else {
+                    hibernatable.trim();
+                }
+            }
+        }
+        
+        /**
+         * Drop the panel so its data is read and its view built again on next use
+         */
+        private void release() {
+            disposer.accept(panel);
+            panel = null;
+            unused = false;
+            hiddenAt = 0;
+            dataLoaded = dataLoader == null;
+            loadRequested = false;
+            prefetch = null;
+        }
+        
+        private void dataRead(D loaded) {
+            if (!dataLoaded) {
+                data = loaded;
+                dataLoaded = true;
+            }
+            if (!waiting.isEmpty()) {
+                deliver();
+            }
+            List<Runnable> callbacks = new ArrayList<>(onDataRead);
+            onDataRead.clear();
+            for (Runnable callback : callbacks) {
+                callback.run();
+            }
+        }
+        
+        private void dataFailed(Exception error) {
+            System.err.println("Error loading panel data: " + error.getMessage());
+            // Nothing is built ahead from data that could not be read
+            onDataRead.clear();
+            if (!waiting.isEmpty()) {
+                // Show the panel empty rather than not at all
+                dataLoaded = true;
+                deliver();
+            } else {
+                prefetch = null;
+            }
+        }
+        
+        private void deliver() {
+            Exception error = null;
+            try {
+                build();
+            } catch (Exception e) {
+                error = e;
+            }
+            List<BiConsumer<P, Exception>> callbacks = new ArrayList<>(waiting);
+            waiting.clear();
+            for (BiConsumer<P, Exception> callback : callbacks) {
+                callback.accept(panel, error);
+            }
+        }
+        
+        private void build() {
+            if (panel == null) {
+                panel = viewBuilder.apply(data);
+                // The panel owns its data now
+                data = null;
+                if (viewState != null) {
+                    try {
+                        restoreViewState((Hibernatable<?>) panel, viewState);
+                    } catch (Exception e) {
+                        System.err.println("Error restoring panel state: " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                    viewState = null;
+                }
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <S> void restoreViewState(Hibernatable<S> panel, Object state) {
+            panel.restoreViewState((S) state);
         }
-        return todoPanel;
     }
     
     /**
@@ -219,14 +645,17 @@ public class NavigationController {
      * Cleanup all panels that have been created
      */
     public void cleanup() {
-        if (todoPanel != null) {
-            todoPanel.cleanup();
+        if (todoPanel.isCreated()) {
+            todoPanel.getIfCreated().cleanup();
+        }
+        if (calendarPanel.isCreated()) {
+            calendarPanel.getIfCreated().cleanup();
         }
-        if (calendarPanel != null) {
-            calendarPanel.cleanup();
+        if (regexEditorPanel.isCreated()) {
+            regexEditorPanel.getIfCreated().cleanup();
         }
-        if (regexEditorPanel != null) {
-            regexEditorPanel.cleanup();
+        if (hibernateCheck != null) {
+            hibernateCheck.stop();
         }
         
         // Save navigation preferences on cleanup
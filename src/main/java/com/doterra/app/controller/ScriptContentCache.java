@@ -0,0 +1,92 @@
+package com.doterra.app.controller;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Script content read from a store, kept within a character budget and evicted least recently
+ * used first. Content the user edits is held by its button instead, so eviction never loses data.
+ * Thread-safe, so background prefetching can fill it while the UI reads from it.
+ */
+class ScriptContentCache {
+    
+    private final long maxChars;
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long chars;
+    
+    /**
+     * @param maxChars Total length of the content kept before the least recently used is evicted
+     */
+    ScriptContentCache(long maxChars) {
+        this.maxChars = maxChars;
+    }
+    
+    /**
+     * @return The cached content, marking it recently used, or null if it is not cached
+     */
+    synchronized String get(String buttonId) {
+        return entries.get(buttonId);
+    }
+    
+    /**
+     * Cache content as the most recently used, evicting older content to stay within the budget
+     */
+    synchronized void put(String buttonId, String content) {
+        store(buttonId, content);
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while (chars > maxChars && eldest.hasNext()) {
+            Map.Entry<String, String> entry = eldest.next();
+            if (!entry.getKey().equals(buttonId)) {
+                chars -= entry.getValue().length();
+                eldest.remove();
+            }
+        }
+    }
+    
+    /**
+     * Cache content only if it fits without evicting anything, for prefetching that should not
+     * push out content the user opened
+     * @return Whether the content was cached
+     */
+    synchronized boolean putIfRoom(String buttonId, String content) {
+        String current = entries.get(buttonId);
+        long added = content.length() - (current != null ? current.length() : 0);
+        if (chars + added > maxChars) {
+            return false;
+        }
+        store(buttonId, content);
+        return true;
+    }
+    
+    synchronized void remove(String buttonId) {
+        String removed = entries.remove(buttonId);
+        if (removed != null) {
+            chars -= removed.length();
+        }
+    }
+    
+    synchronized void clear() {
+        entries.clear();
+        chars = 0;
+    }
+    
+    /**
+     * @return Total length of the cached content
+     */
+    synchronized long getChars() {
+        return chars;
+    }
+    
+    synchronized int size() {
+        return entries.size();
+    }
+    
+    private void store(String buttonId, String content) {
+        String previous = entries.put(buttonId, content);
+        if (previous != null) {
+            chars -= previous.length();
+        }
+        chars += content.length();
+    }
+}
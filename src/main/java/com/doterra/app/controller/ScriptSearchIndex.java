@@ -0,0 +1,295 @@
+package com.doterra.app.controller;
+
+import com.doterra.app.model.ButtonTab;
+import com.doterra.app.model.ScriptButton;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over script button names and plain-text content, for searching every tab as you type.
+ *
+ * <p>Each button is indexed by the three-character substrings of its name and text. A query word of
+ * three or more characters only checks the buttons holding all of its trigrams, so a search costs
+ * about the number of matches rather than the number of scripts. Buttons are added, re-indexed and
+ * removed one at a time by {@link ButtonController}. Not thread-safe; used on the JavaFX thread.</p>
+ */
+public class ScriptSearchIndex {
+    
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern HTML_HEAD = Pattern.compile("(?is)<(head|style|script)[^>]*>.*?</\\1>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    // Name matches rank above content matches; earlier and whole-word matches rank higher
+    private static final int NAME_EXACT = 1000;
+    private static final int NAME_PREFIX = 500;
+    private static final int NAME_WORD = 300;
+    private static final int NAME_SUBSTRING = 200;
+    private static final int CONTENT_WORD = 60;
+    private static final int CONTENT_SUBSTRING = 40;
+    
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private int modificationCount;
+    
+    /**
+     * A search result
+     */
+    public static final class Hit {
+        private final ScriptButton button;
+        private final String tabId;
+        private final int score;
+        
+        Hit(ScriptButton button, String tabId, int score) {
+            this.button = button;
+            this.tabId = tabId;
+            this.score = score;
+        }
+        
+        public ScriptButton getButton() {
+            return button;
+        }
+        
+        public String getTabId() {
+            return tabId;
+        }
+        
+        public int getScore() {
+            return score;
+        }
+    }
+    
+    private static final class Entry {
+        private final ScriptButton button;
+        private final String tabId;
+        private final String name;
+        private final String text;
+        private final Set<String> grams;
+        
+        Entry(ScriptButton button, String tabId, String name, String text, Set<String> grams) {
+            this.button = button;
+            this.tabId = tabId;
+            this.name = name;
+            this.text = text;
+            this.grams = grams;
+        }
+    }
+    
+    /**
+     * Index or re-index a button, e.g. after it was renamed, edited or moved to another tab
+     */
+    public void put(String tabId, ScriptButton button) {
+        if (button == null) {
+            return;
+        }
+        put(tabId, button, plainText(button.getContent()));
+    }
+    
+    /**
+     * Index a button with text extracted elsewhere, e.g. on a background thread
+     * @param plainText The content without markup, or null to index only the name for now
+     */
+    void put(String tabId, ScriptButton button, String plainText) {
+        remove(button.getId());
+        String name = normalize(button.getName());
+        String text = normalize(plainText);
+        Set<String> grams = new HashSet<>();
+        addTrigrams(name, grams);
+        addTrigrams(text, grams);
+        entries.put(button.getId(), new Entry(button, tabId, name, text, grams));
+        modificationCount++;
+        for (String gram : grams) {
+            trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(button.getId());
+        }
+    }
+    
+    /**
+     * Re-index a button in the tab it is already indexed under
+     */
+    public void update(ScriptButton button) {
+        Entry entry = entries.get(button.getId());
+        if (entry != null) {
+            put(entry.tabId, button);
+        }
+    }
+    
+    /**
+     * Re-index a button in the tab it is already indexed under, with text extracted elsewhere
+     */
+    void update(ScriptButton button, String plainText) {
+        Entry entry = entries.get(button.getId());
+        if (entry != null) {
+            put(entry.tabId, button, plainText);
+        }
+    }
+    
+    public void putTab(ButtonTab tab) {
+        for (ScriptButton button : tab.getButtons()) {
+            put(tab.getId(), button);
+        }
+    }
+    
+    public void remove(String buttonId) {
+        Entry entry = entries.remove(buttonId);
+        if (entry == null) {
+            return;
+        }
+        modificationCount++;
+        for (String gram : entry.grams) {
+            Set<String> ids = trigrams.get(gram);
+            ids.remove(buttonId);
+            if (ids.isEmpty()) {
+                trigrams.remove(gram);
+            }
+        }
+    }
+    
+    public void removeTab(ButtonTab tab) {
+        for (ScriptButton button : tab.getButtons()) {
+            if (button != null) {
+                remove(button.getId());
+            }
+        }
+    }
+    
+    public void clear() {
+        entries.clear();
+        trigrams.clear();
+        modificationCount++;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * @return A counter that changes whenever a button is indexed or removed, so callers that
+     *         derive data from the buttons know when to rebuild it
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+    
+    /**
+     * Find the buttons whose name or text contains every word of the query, best match first
+     * @param query Words to look for, case-insensitive
+     * @param limit Maximum number of results
+     */
+    public List<Hit> search(String query, int limit) {
+        String normalized = normalize(query).trim();
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String[] words = normalized.split(" ");
+        
+        List<Hit> hits = new ArrayList<>();
+        for (Entry entry : candidatesFor(words)) {
+            int score = 0;
+            for (String word : words) {
+                int wordScore = score(entry, word);
+                if (wordScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += wordScore;
+            }
+            if (score > 0) {
+                hits.add(new Hit(entry.button, entry.tabId, score));
+            }
+        }
+        hits.sort(Comparator.comparingInt(Hit::getScore).reversed()
+            .thenComparing(hit -> hit.getButton().getName(), String.CASE_INSENSITIVE_ORDER));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+    
+    /**
+     * Buttons that can match: those holding every trigram of the query words, or all buttons if
+     * every word is shorter than a trigram
+     */
+    private Collection<Entry> candidatesFor(String[] words) {
+        List<Set<String>> postings = new ArrayList<>();
+        for (String word : words) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                Set<String> posting = trigrams.get(word.substring(i, i + 3));
+                if (posting == null) {
+                    return Collections.emptyList();
+                }
+                postings.add(posting);
+            }
+        }
+        if (postings.isEmpty()) {
+            return entries.values();
+        }
+        // Intersect starting from the rarest trigram so the working set stays small
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<String> ids = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !ids.isEmpty(); i++) {
+            ids.retainAll(postings.get(i));
+        }
+        List<Entry> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            found.add(entries.get(id));
+        }
+        return found;
+    }
+    
+    private static int score(Entry entry, String word) {
+        int nameIndex = entry.name.indexOf(word);
+        if (nameIndex >= 0) {
+            if (entry.name.equals(word)) {
+                return NAME_EXACT;
+            }
+            if (nameIndex == 0) {
+                return NAME_PREFIX;
+            }
+            return isWordStart(entry.name, nameIndex) ? NAME_WORD : NAME_SUBSTRING;
+        }
+        int textIndex = entry.text.indexOf(word);
+        if (textIndex >= 0) {
+            return isWordStart(entry.text, textIndex) ? CONTENT_WORD : CONTENT_SUBSTRING;
+        }
+        return 0;
+    }
+    
+    private static boolean isWordStart(String text, int index) {
+        return index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1));
+    }
+    
+    private static void addTrigrams(String text, Set<String> grams) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+    }
+    
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(text.toLowerCase()).replaceAll(" ");
+    }
+    
+    /**
+     * Strip markup from email scripts so only the visible text is searched
+     */
+    static String plainText(String content) {
+        if (content == null || content.indexOf('<') < 0) {
+            return content;
+        }
+        String text = HTML_HEAD.matcher(content).replaceAll(" ");
+        text = HTML_TAG.matcher(text).replaceAll(" ");
+        return text.replace("&nbsp;", " ")
+            .replace("&lt;", "<")
+            .replace("&gt;", ">")
+            .replace("&quot;", "\"")
+            .replace("&#39;", "'")
+            .replace("&amp;", "&");
+    }
+}
@@ -2,9 +2,19 @@ package com.doterra.app.model;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * A named tab of script buttons. Buttons are laid out in grid order and a null entry is an
+ * empty cell, so a button keeps its cell when others are removed or moved.
+ *
+ * <p>Buttons are looked up by id through an index of list positions that the methods here keep
+ * up to date. The index is rebuilt when it is found stale, so edits made directly to
+ * {@link #getButtons()} that add, remove or move buttons are still picked up.</p>
+ */
 public class ButtonTab implements Serializable {
     
     private static final long serialVersionUID = 1L;
@@ -13,12 +23,34 @@ public class ButtonTab implements Serializable {
     private String name;
     private List<ScriptButton> buttons;
     
+    // Button id to list position; rebuilt on first use after loading
+    private transient Map<String, Integer> positions;
+    private transient int indexedSize;
+    
     public ButtonTab(String name) {
         this.id = UUID.randomUUID().toString();
         this.name = name;
         this.buttons = new ArrayList<>();
     }
     
+    private ButtonTab(String id, String name, List<ScriptButton> buttons) {
+        this.id = id;
+        this.name = name;
+        this.buttons = buttons;
+    }
+    
+    /**
+     * Creates a detached copy of this tab and its buttons, suitable for serializing off the JavaFX thread.
+     * Empty cells (null entries) are kept so the saved layout matches the grid.
+     */
+    public ButtonTab snapshot() {
+        List<ScriptButton> copies = new ArrayList<>(buttons.size());
+        for (ScriptButton button : buttons) {
+            copies.add(button != null ? button.snapshot() : null);
+        }
+        return new ButtonTab(id, name, copies);
+    }
+    
     public String getId() {
         return id;
     }
@@ -37,28 +69,199 @@ public class ButtonTab implements Serializable {
     
     public void setButtons(List<ScriptButton> buttons) {
         this.buttons = buttons;
+        positions = null;
     }
     
     public void addButton(ScriptButton button) {
-        buttons.add(button);
+        insertCell(buttons.size(), button);
     }
     
     public boolean removeButton(String buttonId) {
-        if (buttonId == null) {
+        int position = indexOf(buttonId);
+        if (position < 0) {
             return false;
         }
-        return buttons.removeIf(button -> button != null && button.getId().equals(buttonId));
+        removeCell(position);
+        return true;
     }
     
-    public ScriptButton getButton(String buttonId) {
+    /**
+     * @return The button's position in the list, or -1 if it is not in this tab
+     */
+    public int indexOf(String buttonId) {
         if (buttonId == null) {
-            return null;
+            return -1;
         }
-        for (ScriptButton button : buttons) {
-            if (button != null && button.getId().equals(buttonId)) {
-                return button;
+        Integer position = index().get(buttonId);
+        if (position == null) {
+            return -1;
+        }
+        if (!isAt(buttonId, position)) {
+            // The list was edited directly; look again in a fresh index
+            reindex();
+            position = positions.get(buttonId);
+        }
+        return position != null ? position : -1;
+    }
+    
+    public ScriptButton getButton(String buttonId) {
+        int position = indexOf(buttonId);
+        return position >= 0 ? buttons.get(position) : null;
+    }
+    
+    /**
+     * Move a button into the first empty cell before it, as a newly appended button should be.
+     * Appends the button if it is not in the tab yet.
+     */
+    public void moveToFirstEmptyCell(ScriptButton button) {
+        int current = indexOf(button.getId());
+        int empty = buttons.indexOf(null);
+        if (empty >= 0 && (current < 0 || empty < current)) {
+            if (current >= 0) {
+                setCell(current, null);
+            }
+            setCell(empty, button);
+        } else if (current < 0) {
+            insertCell(buttons.size(), button);
+        }
+        trimEmptyCells();
+    }
+    
+    /**
+     * Move a button to a cell, or into the first empty cell if that one is taken
+     */
+    public void placeInCell(ScriptButton button, int cell) {
+        if (cell < buttons.size() && buttons.get(cell) != null && buttons.get(cell) != button) {
+            moveToFirstEmptyCell(button);
+            return;
+        }
+        int current = indexOf(button.getId());
+        if (current >= 0) {
+            setCell(current, null);
+        }
+        while (buttons.size() <= cell) {
+            insertCell(buttons.size(), null);
+        }
+        setCell(cell, button);
+        trimEmptyCells();
+    }
+    
+    /**
+     * Move a button to a cell, swapping it with whatever is there
+     * @return false if the button is not in this tab or already in that cell
+     */
+    public boolean swapIntoCell(String buttonId, int cell) {
+        int current = indexOf(buttonId);
+        if (current < 0 || current == cell) {
+            return false;
+        }
+        while (buttons.size() <= cell) {
+            insertCell(buttons.size(), null);
+        }
+        ScriptButton button = buttons.get(current);
+        setCell(current, buttons.get(cell));
+        setCell(cell, button);
+        trimEmptyCells();
+        return true;
+    }
+    
+    /**
+     * Put back an empty cell where a button was removed, so the buttons after it keep their cells
+     * @param removedCell The removed button's former index
+     */
+    public void keepEmptyCell(int removedCell) {
+        if (removedCell >= 0 && removedCell < buttons.size()) {
+            insertCell(removedCell, null);
+        }
+        trimEmptyCells();
+    }
+    
+    private void trimEmptyCells() {
+        while (!buttons.isEmpty() && buttons.get(buttons.size() - 1) == null) {
+            removeCell(buttons.size() - 1);
+        }
+    }
+    
+    private boolean isAt(String buttonId, int position) {
+        if (position >= buttons.size()) {
+            return false;
+        }
+        ScriptButton button = buttons.get(position);
+        return button != null && button.getId().equals(buttonId);
+    }
+    
+    private Map<String, Integer> index() {
+        if (positions == null || indexedSize != buttons.size()) {
+            reindex();
+        }
+        return positions;
+    }
+    
+    private void reindex() {
+        positions = new HashMap<>();
+        for (int i = 0; i < buttons.size(); i++) {
+            ScriptButton button = buttons.get(i);
+            if (button != null) {
+                positions.put(button.getId(), i);
+            }
+        }
+        indexedSize = buttons.size();
+    }
+    
+    /**
+     * Whether the index matches the list before an edit, so the edit can patch it; a stale index
+     * is dropped and rebuilt on next use
+     */
+    private boolean indexCurrent() {
+        if (positions != null && indexedSize == buttons.size()) {
+            return true;
+        }
+        positions = null;
+        return false;
+    }
+    
+    private void setCell(int cell, ScriptButton button) {
+        boolean patch = indexCurrent();
+        ScriptButton previous = buttons.set(cell, button);
+        if (patch) {
+            if (previous != null) {
+                positions.remove(previous.getId(), cell);
+            }
+            if (button != null) {
+                positions.put(button.getId(), cell);
+            }
+        }
+    }
+    
+    private void insertCell(int cell, ScriptButton button) {
+        boolean patch = indexCurrent();
+        buttons.add(cell, button);
+        if (patch) {
+            updatePositionsFrom(cell);
+        }
+    }
+    
+    private void removeCell(int cell) {
+        boolean patch = indexCurrent();
+        ScriptButton removed = buttons.remove(cell);
+        if (patch) {
+            if (removed != null) {
+                positions.remove(removed.getId(), cell);
+            }
+            updatePositionsFrom(cell);
+        }
+    }
+    
+    /**
+     * Re-record the positions of the buttons from a cell onwards after the list shifted
+     */
+    private void updatePositionsFrom(int cell) {
+        for (int i = cell; i < buttons.size(); i++) {
+            ScriptButton button = buttons.get(i);
+            if (button != null) {
+                positions.put(button.getId(), i);
             }
         }
-        return null;
+        indexedSize = buttons.size();
     }
 }
\ No newline at end of file
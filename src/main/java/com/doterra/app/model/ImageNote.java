@@ -8,31 +8,117 @@ public class ImageNote implements Serializable {
     private static final long serialVersionUID = 1L;
     
     private final String id;
+    // Image bytes of notes saved before blob storage; moved to the blob store on load
     private byte[] imageData;
+    private String blobHash;
+    private long imageSize;
     private String note;
     private LocalDateTime timestamp;
     private String fileName;
     private String mimeType;
+    // dHash of the image; null until computed
+    private Long perceptualHash;
+    // Id of the note this one was flagged as a near-duplicate of, if any
+    private String duplicateOf;
     
-    public ImageNote(byte[] imageData, String fileName, String mimeType) {
+    /**
+     * Create a note for an image already in the blob store
+     * @param blobHash Content hash of the stored image
+     * @param imageSize Size of the image file in bytes
+     * @param fileName Original file name
+     * @param mimeType MIME type, if known
+     */
+    public ImageNote(String blobHash, long imageSize, String fileName, String mimeType) {
         this.id = UUID.randomUUID().toString();
-        this.imageData = imageData;
+        this.blobHash = blobHash;
+        this.imageSize = imageSize;
         this.fileName = fileName;
         this.mimeType = mimeType;
         this.note = "";
         this.timestamp = LocalDateTime.now();
     }
     
+    private ImageNote(String id) {
+        this.id = id;
+    }
+    
+    /**
+     * Create a copy that can be saved off the JavaFX thread while this note keeps being edited
+     */
+    public ImageNote snapshot() {
+        ImageNote copy = new ImageNote(id);
+        copy.imageData = imageData;
+        copy.blobHash = blobHash;
+        copy.imageSize = imageSize;
+        copy.note = note;
+        copy.timestamp = timestamp;
+        copy.fileName = fileName;
+        copy.mimeType = mimeType;
+        copy.perceptualHash = perceptualHash;
+        copy.duplicateOf = duplicateOf;
+        return copy;
+    }
+    
     public String getId() {
         return id;
     }
     
-    public byte[] getImageData() {
+    public String getBlobHash() {
+        return blobHash;
+    }
+    
+    public long getImageSize() {
+        return imageSize;
+    }
+    
+    /**
+     * @return Whether this note still carries its image bytes inline from the old save format
+     */
+    public boolean hasLegacyImageData() {
+        return imageData != null;
+    }
+    
+    public byte[] getLegacyImageData() {
         return imageData;
     }
     
-    public void setImageData(byte[] imageData) {
-        this.imageData = imageData;
+    /**
+     * Replace the inline image bytes with a reference to the blob they were stored as
+     */
+    public void moveImageToBlob(String blobHash) {
+        this.blobHash = blobHash;
+        if (imageData != null) {
+            this.imageSize = imageData.length;
+        }
+        this.imageData = null;
+    }
+    
+    /**
+     * Replace the image with a newer capture of the same screen, keeping the note text
+     */
+    public void replaceImage(String blobHash, long imageSize, String fileName, String mimeType, Long perceptualHash) {
+        this.blobHash = blobHash;
+        this.imageSize = imageSize;
+        this.fileName = fileName;
+        this.mimeType = mimeType;
+        this.perceptualHash = perceptualHash;
+        this.timestamp = LocalDateTime.now();
+    }
+    
+    public Long getPerceptualHash() {
+        return perceptualHash;
+    }
+    
+    public void setPerceptualHash(Long perceptualHash) {
+        this.perceptualHash = perceptualHash;
+    }
+    
+    public String getDuplicateOf() {
+        return duplicateOf;
+    }
+    
+    public void setDuplicateOf(String duplicateOf) {
+        this.duplicateOf = duplicateOf;
     }
     
     public String getNote() {
@@ -1,6 +1,10 @@
 package com.doterra.app.model;
 
+import com.doterra.app.util.KeyValueStore;
+
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,6 +13,9 @@ import java.util.List;
  */
 public class RegexTestManager {
     private static final String TESTS_FILE = "data/regex_tests.dat";
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String STORE_NAMESPACE = "regex_tests";
+    private static final String TESTS_LIST = "test";
     private List<RegexTest> tests;
     
     public RegexTestManager() {
@@ -58,35 +65,36 @@ public class RegexTestManager {
                 .orElse(null);
     }
     
-    @SuppressWarnings("unchecked")
     private void loadTests() {
-        File file = new File(TESTS_FILE);
-        if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                tests = (List<RegexTest>) ois.readObject();
-            } catch (Exception e) {
-                System.err.println("Error loading regex tests: " + e.getMessage());
-                tests = new ArrayList<>();
-            }
+        try {
+            tests = openStore().getList(TESTS_LIST);
+        } catch (Exception e) {
+            System.err.println("Error loading regex tests: " + e.getMessage());
+            tests = new ArrayList<>();
         }
     }
     
+    /**
+     * Commit the tests one record each; only the tests that changed are written
+     */
     private void saveTests() {
         try {
-            File file = new File(TESTS_FILE);
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-                oos.writeObject(tests);
-            }
+            openStore().commit(new KeyValueStore.WriteBatch().putList(TESTS_LIST, tests, RegexTest::getId));
         } catch (Exception e) {
             System.err.println("Error saving regex tests: " + e.getMessage());
         }
     }
     
+    private static KeyValueStore.Namespace openStore() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(STORE_NAMESPACE, Paths.get(TESTS_FILE), (file, store) -> {
+            @SuppressWarnings("unchecked")
+            List<RegexTest> legacyTests = (List<RegexTest>) KeyValueStore.readLegacyFile(file);
+            if (legacyTests != null) {
+                store.commit(new KeyValueStore.WriteBatch().putList(TESTS_LIST, legacyTests, RegexTest::getId));
+            }
+        });
+    }
+    
     public void moveTest(int fromIndex, int toIndex) {
         if (fromIndex >= 0 && fromIndex < tests.size() && 
             toIndex >= 0 && toIndex < tests.size() && 
@@ -1,5 +1,6 @@
 package com.doterra.app.model;
 
+import com.doterra.app.util.VariableReplacer;
 import javafx.scene.paint.Color;
 import java.io.Serializable;
 import java.io.IOException;
@@ -13,8 +14,13 @@ public class ScriptButton implements Serializable {
     
     private String id;
     private String name;
+    // Null while the content lives in a separate store record and has not been edited
     private String content;
+    private boolean contentStored;
+    private transient ContentSource contentSource;
     private transient Color color;
+    // Content split into text and variables, parsed on first use and dropped when the content changes
+    private transient VariableReplacer.ParsedScript parsedContent;
     
     // Serializable color components for persistence
     private double red;
@@ -32,10 +38,40 @@ public class ScriptButton implements Serializable {
     public ScriptButton(ScriptButton other) {
         this.id = UUID.randomUUID().toString();
         this.name = other.name + " (Copy)";
-        this.content = other.content;
+        this.content = other.getContent();
         setColor(other.getColor());
     }
     
+    private ScriptButton() {
+    }
+    
+    /**
+     * Loads content kept outside the button, e.g. from a controller's store and cache
+     */
+    public interface ContentSource {
+        /**
+         * @return The button's content, or null if it cannot be read
+         */
+        String load(String buttonId);
+    }
+    
+    /**
+     * Creates a detached copy with the same ID, suitable for serializing off the JavaFX thread.
+     */
+    public ScriptButton snapshot() {
+        ScriptButton copy = new ScriptButton();
+        copy.id = id;
+        copy.name = name;
+        copy.content = content;
+        copy.contentStored = contentStored;
+        copy.color = color;
+        copy.red = red;
+        copy.green = green;
+        copy.blue = blue;
+        copy.opacity = opacity;
+        return copy;
+    }
+    
     public String getId() {
         return id;
     }
@@ -48,12 +84,66 @@ public class ScriptButton implements Serializable {
         this.name = name;
     }
     
+    /**
+     * @return The content, loaded through the content source if it is stored separately
+     */
     public String getContent() {
+        if (content == null && contentStored && contentSource != null) {
+            return contentSource.load(id);
+        }
+        return content;
+    }
+    
+    /**
+     * @return The content if it is held by the button (new, edited or not yet moved to its own
+     *         record), or null if it would have to be loaded
+     */
+    public String getLoadedContent() {
         return content;
     }
     
     public void setContent(String content) {
         this.content = content;
+        this.parsedContent = null;
+    }
+    
+    /**
+     * @return Whether the content is saved in its own record rather than with the button
+     */
+    public boolean isContentStored() {
+        return contentStored;
+    }
+    
+    /**
+     * Set where stored content is loaded from
+     */
+    public void setContentSource(ContentSource contentSource) {
+        this.contentSource = contentSource;
+    }
+    
+    /**
+     * Drop the content from this button, once it has been written to its own record. Only for
+     * detached copies being saved; the content is then loaded through the content source.
+     */
+    public void detachContent() {
+        content = null;
+        contentStored = true;
+        parsedContent = null;
+    }
+    
+    /**
+     * @return The content parsed for variable substitution. The parse is cached until the content
+     *         changes, but only while the button holds its content, so evicted content is not kept alive.
+     */
+    public VariableReplacer.ParsedScript getParsedContent() {
+        VariableReplacer.ParsedScript parsed = parsedContent;
+        if (parsed == null) {
+            parsed = VariableReplacer.parse(getContent());
+            if (content != null) {
+                parsedContent = parsed;
+            }
+        }
+        return parsed;
     }
     
     public Color getColor() {
@@ -1,26 +1,38 @@
 package com.doterra.app.util;
 
 import javafx.application.Platform;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.*;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Utility class for handling asynchronous file operations to prevent UI freezing
  */
 public class AsyncFileOperations {
     
-    // Single thread executor for file operations to ensure sequential writes
-    private static final ExecutorService fileExecutor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        t.setName("File-IO-Thread");
-        return t;
-    });
+    // Lane used by callers that do not name a store; keeps their old one-at-a-time ordering
+    private static final String DEFAULT_LANE = "default";
+    
+    // Per-store ordered lanes over a small shared pool, so stores don't queue behind each other
+    private static final IoLaneExecutor fileExecutor = new IoLaneExecutor("File-IO-Thread",
+        Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
     
     // Map to track debounced save operations
-    private static final ConcurrentHashMap<String, ScheduledFuture<?>> debouncedSaves = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, PendingSave> debouncedSaves = new ConcurrentHashMap<>();
+    
+    // Set once shutdown has flushed pending saves and stopped the executors
+    private static final AtomicBoolean shutdown = new AtomicBoolean(false);
     
     // Scheduled executor for debouncing
     private static final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -37,7 +49,7 @@ public class AsyncFileOperations {
      * @param onError Optional callback for errors (runs on JavaFX thread)
      */
     public static void executeAsync(Runnable operation, Runnable onSuccess, java.util.function.Consumer<Exception> onError) {
-        fileExecutor.submit(() -> {
+        submitTask(DEFAULT_LANE, IoLaneExecutor.Priority.SAVE, () -> {
             try {
                 operation.run();
                 if (onSuccess != null) {
@@ -68,7 +80,42 @@ public class AsyncFileOperations {
      * @param onError Optional error handler
      */
     public static <T> void loadAsync(Callable<T> loader, java.util.function.Consumer<T> onComplete, java.util.function.Consumer<Exception> onError) {
-        fileExecutor.submit(() -> {
+        loadAsync(DEFAULT_LANE, loader, onComplete, onError);
+    }
+    
+    /**
+     * Execute a file load operation asynchronously on a store's lane and return result via callback.
+     * The load stays ordered with saves that use the same key, runs concurrently with other stores,
+     * and is picked ahead of queued background saves.
+     * @param key The store key, matching the key used for its debounced saves
+     * @param loader The loader function
+     * @param onComplete Callback with the loaded data (runs on JavaFX thread)
+     * @param onError Optional error handler
+     */
+    public static <T> void loadAsync(String key, Callable<T> loader, java.util.function.Consumer<T> onComplete, java.util.function.Consumer<Exception> onError) {
+        submitLoad(key, IoLaneExecutor.Priority.LOAD, loader, onComplete, onError);
+    }
+    
+    /**
+     * Like {@link #loadAsync(String, Callable, Consumer, Consumer)}, for data that may never be
+     * used, such as a panel the user has not opened yet; it waits for queued loads and saves
+     * on other lanes
+     * @return The prefetch task, for {@link #promoteToLoad(Future)} once the data is needed
+     */
+    public static <T> Future<?> prefetchAsync(String key, Callable<T> loader, java.util.function.Consumer<T> onComplete, java.util.function.Consumer<Exception> onError) {
+        return submitLoad(key, IoLaneExecutor.Priority.PREFETCH, loader, onComplete, onError);
+    }
+    
+    /**
+     * Run a queued prefetch at load priority, e.g. when the user opens the panel it was reading
+     * for; does nothing if it has already started
+     */
+    public static void promoteToLoad(Future<?> prefetch) {
+        fileExecutor.promote(prefetch, IoLaneExecutor.Priority.LOAD);
+    }
+    
+    private static <T> Future<?> submitLoad(String key, IoLaneExecutor.Priority priority, Callable<T> loader, java.util.function.Consumer<T> onComplete, java.util.function.Consumer<Exception> onError) {
+        return submitTask(key, priority, () -> {
             try {
                 T result = loader.call();
                 Platform.runLater(() -> onComplete.accept(result));
@@ -82,6 +129,61 @@ public class AsyncFileOperations {
         });
     }
     
+    /**
+     * Submit a task to a file I/O lane, tracking queue depth for diagnostics
+     */
+    private static Future<?> submitTask(String laneKey, IoLaneExecutor.Priority priority, Runnable task) {
+        FileIoMetrics.taskQueued();
+        try {
+            return fileExecutor.submit(laneKey, priority, () -> {
+                FileIoMetrics.taskStarted();
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            FileIoMetrics.taskStarted();
+            throw e;
+        }
+    }
+    
+    /**
+     * Submit a prepared save write to its store's lane, recording per-key timings
+     */
+    private static Future<?> submitSave(String key, Runnable write) {
+        long queuedAt = System.nanoTime();
+        return submitTask(key, IoLaneExecutor.Priority.SAVE, () -> {
+            try {
+                FileIoMetrics.runSave(key, queuedAt, write);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+    }
+    
+    /**
+     * Serialize an object to a file, creating parent directories as needed. When called from a
+     * debounced save, the bytes written and any failure are recorded against that save's key.
+     * @param fileName The file to write
+     * @param data The object to serialize
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeObjectToFile(String fileName, Object data) throws IOException {
+        try {
+            File file = new File(fileName);
+            File parentDir = file.getParentFile();
+            if (parentDir != null && !parentDir.exists()) {
+                parentDir.mkdirs();
+            }
+            
+            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
+                oos.writeObject(data);
+            }
+            FileIoMetrics.recordBytesWritten(file.length());
+        } catch (IOException e) {
+            FileIoMetrics.recordWriteFailure(e);
+            throw e;
+        }
+    }
+    
     /**
      * Execute a save operation with debouncing to prevent rapid repeated saves
      * @param key Unique key for this save operation
@@ -89,37 +191,254 @@ public class AsyncFileOperations {
      * @param operation The save operation to execute
      */
     public static void debouncedSave(String key, long delayMs, Runnable operation) {
-        // Cancel any existing scheduled save for this key
-        ScheduledFuture<?> existing = debouncedSaves.get(key);
-        if (existing != null && !existing.isDone()) {
-            existing.cancel(false);
+        schedulePendingSave(key, delayMs, new PendingSave(() -> operation));
+    }
+    
+    /**
+     * Execute a save operation with debouncing, splitting it into a snapshot step and a write step.
+     * The snapshot is taken on the JavaFX thread once the debounce delay has elapsed, so it sees a
+     * consistent view of FX-owned state; the write then runs on the file thread against that copy only.
+     * @param key Unique key for this save operation
+     * @param delayMs Delay in milliseconds before executing
+     * @param snapshot Produces a detached copy of the state to save (runs on JavaFX thread)
+     * @param writer Writes the snapshot to disk (runs on file thread)
+     */
+    public static <T> void debouncedSave(String key, long delayMs, Supplier<T> snapshot, Consumer<T> writer) {
+        schedulePendingSave(key, delayMs, new PendingSave(() -> {
+            T data = snapshot.get();
+            return () -> writer.accept(data);
+        }));
+    }
+    
+    private static void schedulePendingSave(String key, long delayMs, PendingSave pending) {
+        if (shutdown.get()) {
+            // Executors are gone; write straight through so the edit is not lost
+            pending.prepare.get().run();
+            return;
         }
         
-        // Schedule the new save
-        ScheduledFuture<?> future = scheduledExecutor.schedule(() -> {
-            debouncedSaves.remove(key);
-            executeAsync(operation);
+        FileIoMetrics.saveScheduled(key);
+        
+        // Replace any existing save for this key that has not been queued yet
+        PendingSave existing = debouncedSaves.put(key, pending);
+        if (existing != null && existing.claim()) {
+            if (existing.future != null) {
+                existing.future.cancel(false);
+            }
+            FileIoMetrics.saveCoalesced(key);
+        }
+        
+        // Schedule the new save; it stays pending until its write is queued, so a flush in
+        // between still covers it
+        pending.future = scheduledExecutor.schedule(() -> {
+            if (debouncedSaves.get(key) == pending) {
+                runOnFxThread(() -> queuePendingSave(key, pending));
+            }
         }, delayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Take the snapshot of a pending save and queue its write, unless a flush or a newer save
+     * has already claimed it
+     */
+    private static void queuePendingSave(String key, PendingSave pending) {
+        if (!pending.claim()) {
+            return;
+        }
+        try {
+            Runnable write = pending.prepare.get();
+            try {
+                pending.queued.complete(submitSave(key, write));
+            } catch (RejectedExecutionException e) {
+                write.run();
+                pending.queued.complete(CompletableFuture.completedFuture(null));
+            }
+        } catch (RuntimeException e) {
+            pending.queued.completeExceptionally(e);
+            throw e;
+        } finally {
+            debouncedSaves.remove(key, pending);
+        }
+    }
+    
+    /**
+     * Run an operation on the JavaFX thread. Falls back to the calling thread when the
+     * toolkit is not running (e.g. controllers used outside the UI in tests). After the toolkit
+     * has exited a posted save may never run; it then stays pending for the shutdown flush.
+     */
+    private static void runOnFxThread(Runnable operation) {
+        if (Platform.isFxApplicationThread()) {
+            operation.run();
+            return;
+        }
+        try {
+            Platform.runLater(operation);
+        } catch (IllegalStateException e) {
+            operation.run();
+        }
+    }
+    
+    /**
+     * Immediately run every pending debounced save, in key order, and wait for the writes to finish.
+     * Snapshots are taken on the calling thread, so call this from the JavaFX thread while the UI is
+     * still alive (e.g. from a close request).
+     * @param timeout Maximum time to wait for the writes
+     * @param unit Unit of the timeout
+     * @return Which keys were written and which were still outstanding when the deadline passed
+     */
+    public static FlushResult flushPendingSaves(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Map<String, Future<?>> writes = new LinkedHashMap<>();
         
-        debouncedSaves.put(key, future);
+        for (String key : new TreeSet<>(debouncedSaves.keySet())) {
+            PendingSave pending = debouncedSaves.get(key);
+            if (pending == null) {
+                continue;
+            }
+            if (pending.future != null) {
+                pending.future.cancel(false);
+            }
+            if (pending.claim()) {
+                // Not queued yet, even if the debounce fired and posted it to the JavaFX thread
+                Runnable write = pending.prepare.get();
+                try {
+                    writes.put(key, submitSave(key, write));
+                } catch (RejectedExecutionException e) {
+                    write.run();
+                    writes.put(key, CompletableFuture.completedFuture(null));
+                }
+                debouncedSaves.remove(key, pending);
+            } else {
+                // Being queued on another thread right now; wait for that write instead
+                writes.put(key, pending.queued.thenCompose(AsyncFileOperations::whenDone));
+            }
+        }
+        
+        // Also wait for anything that was already queued ahead of the flushed writes
+        List<Future<?>> barriers = fileExecutor.barrier();
+        
+        List<String> written = new ArrayList<>();
+        List<String> outstanding = new ArrayList<>();
+        for (Map.Entry<String, Future<?>> entry : writes.entrySet()) {
+            if (awaitUntil(entry.getValue(), deadline)) {
+                written.add(entry.getKey());
+            } else {
+                outstanding.add(entry.getKey());
+            }
+        }
+        boolean drained = true;
+        for (Future<?> barrier : barriers) {
+            drained &= awaitUntil(barrier, deadline);
+        }
+        return new FlushResult(written, outstanding, drained);
+    }
+    
+    private static CompletableFuture<Void> whenDone(Future<?> future) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    private static boolean awaitUntil(Future<?> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            System.err.println("Error flushing save: " + e.getCause());
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
     
     /**
-     * Shutdown the executor service (call on application exit)
+     * Flush pending saves, then shutdown the executor services (call on application exit).
+     * Safe to call more than once; only the first call does any work.
+     * @return The result of the final flush, or an empty result if already shut down
      */
-    public static void shutdown() {
+    public static FlushResult shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return new FlushResult(Collections.emptyList(), Collections.emptyList(), true);
+        }
+        
+        FlushResult result = flushPendingSaves(5, TimeUnit.SECONDS);
+        
+        scheduledExecutor.shutdownNow();
         fileExecutor.shutdown();
-        scheduledExecutor.shutdown();
         try {
             if (!fileExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
                 fileExecutor.shutdownNow();
             }
-            if (!scheduledExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduledExecutor.shutdownNow();
-            }
         } catch (InterruptedException e) {
             fileExecutor.shutdownNow();
-            scheduledExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+    
+    /**
+     * A debounced save waiting for its delay to elapse, or for its write to be queued. {@code prepare}
+     * takes the snapshot and returns the write to run on the file thread; whichever of the debounce,
+     * a flush or a newer save claims it first decides what happens to it.
+     */
+    private static final class PendingSave {
+        private final Supplier<Runnable> prepare;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        // Completed with the queued write once the debounce's own task has queued it
+        private final CompletableFuture<Future<?>> queued = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> future;
+        
+        private PendingSave(Supplier<Runnable> prepare) {
+            this.prepare = prepare;
+        }
+        
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+    
+    /**
+     * Outcome of {@link #flushPendingSaves(long, TimeUnit)}
+     */
+    public static final class FlushResult {
+        private final List<String> writtenKeys;
+        private final List<String> outstandingKeys;
+        private final boolean drained;
+        
+        private FlushResult(List<String> writtenKeys, List<String> outstandingKeys, boolean drained) {
+            this.writtenKeys = Collections.unmodifiableList(writtenKeys);
+            this.outstandingKeys = Collections.unmodifiableList(outstandingKeys);
+            this.drained = drained;
+        }
+        
+        /** Keys whose pending save was written before the deadline */
+        public List<String> getWrittenKeys() {
+            return writtenKeys;
+        }
+        
+        /** Keys whose pending save was still running when the deadline passed */
+        public List<String> getOutstandingKeys() {
+            return outstandingKeys;
+        }
+        
+        /** Whether every flushed and previously queued write finished in time */
+        public boolean isComplete() {
+            return drained && outstandingKeys.isEmpty();
+        }
+        
+        @Override
+        public String toString() {
+            return "FlushResult{written=" + writtenKeys + ", outstanding=" + outstandingKeys + ", drained=" + drained + "}";
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.doterra.app.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree over 64-bit hashes with Hamming distance, for finding all values whose hash is within a
+ * small distance of a query without comparing against every entry. Not thread-safe.
+ * @param <T> Value stored with each hash
+ */
+public final class BkTree<T> {
+    
+    private Node<T> root;
+    private int size;
+    
+    /**
+     * Add a value under a hash; several values may share one hash
+     */
+    public void add(long hash, T value) {
+        size++;
+        if (root == null) {
+            root = new Node<>(hash);
+            root.values.add(value);
+            return;
+        }
+        Node<T> node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance == 0) {
+                node.values.add(value);
+                return;
+            }
+            Node<T> child = node.children.get(distance);
+            if (child == null) {
+                child = new Node<>(hash);
+                child.values.add(value);
+                node.children.put(distance, child);
+                return;
+            }
+            node = child;
+        }
+    }
+    
+    /**
+     * Remove one value stored under a hash. The tree node stays in place as a routing node.
+     * @return Whether the value was found
+     */
+    public boolean remove(long hash, T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance == 0) {
+                boolean removed = node.values.remove(value);
+                if (removed) {
+                    size--;
+                }
+                return removed;
+            }
+            node = node.children.get(distance);
+        }
+        return false;
+    }
+    
+    /**
+     * Find all values whose hash is within {@code maxDistance} bits of the query, closest first
+     */
+    public List<T> search(long hash, int maxDistance) {
+        List<Match<T>> matches = new ArrayList<>();
+        if (root != null) {
+            Deque<Node<T>> toVisit = new ArrayDeque<>();
+            toVisit.push(root);
+            while (!toVisit.isEmpty()) {
+                Node<T> node = toVisit.pop();
+                int distance = PerceptualHash.distance(hash, node.hash);
+                if (distance <= maxDistance) {
+                    for (T value : node.values) {
+                        matches.add(new Match<>(value, distance));
+                    }
+                }
+                // Triangle inequality: only children at distance d from this node with
+                // |d - distance| <= maxDistance can hold matches
+                for (Map.Entry<Integer, Node<T>> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        toVisit.push(child.getValue());
+                    }
+                }
+            }
+        }
+        matches.sort((a, b) -> Integer.compare(a.distance, b.distance));
+        List<T> values = new ArrayList<>(matches.size());
+        for (Match<T> match : matches) {
+            values.add(match.value);
+        }
+        return values;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private static final class Node<T> {
+        private final long hash;
+        private final List<T> values = new ArrayList<>(1);
+        private final Map<Integer, Node<T>> children = new HashMap<>();
+        
+        Node(long hash) {
+            this.hash = hash;
+        }
+    }
+    
+    private static final class Match<T> {
+        private final T value;
+        private final int distance;
+        
+        Match(T value, int distance) {
+            this.value = value;
+            this.distance = distance;
+        }
+    }
+}
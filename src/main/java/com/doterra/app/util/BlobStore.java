@@ -0,0 +1,136 @@
+package com.doterra.app.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content-addressed file store for large binary payloads such as screenshots.
+ *
+ * <p>Each blob is written once to {@code <dir>/<first 2 hex chars>/<SHA-256 hex>}, so storing
+ * the same content twice costs nothing and callers only keep the hash. Writes go to a temp file
+ * first and are moved into place, so a blob file is either complete or absent.</p>
+ */
+public final class BlobStore {
+    
+    private final Path directory;
+    
+    public BlobStore(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Store the contents of a file
+     * @param file The file to copy into the store
+     * @return The content hash identifying the blob
+     * @throws IOException if the file cannot be read or the blob written
+     */
+    public String put(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return put(in);
+        }
+    }
+    
+    /**
+     * Store bytes already in memory
+     * @return The content hash identifying the blob
+     * @throws IOException if the blob cannot be written
+     */
+    public String put(byte[] data) throws IOException {
+        return put(new ByteArrayInputStream(data));
+    }
+    
+    /**
+     * Stream content into the store, hashing it on the way
+     * @param in The content; not closed by this method
+     * @return The content hash identifying the blob
+     * @throws IOException if the content cannot be read or the blob written
+     */
+    public String put(InputStream in) throws IOException {
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, "blob", ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+                in.transferTo(out);
+            }
+            String hash = toHex(digest.digest());
+            
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                // Same content is already stored
+                return hash;
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            FileIoMetrics.recordBytesWritten(Files.size(target));
+            return hash;
+        } catch (IOException e) {
+            FileIoMetrics.recordWriteFailure(e);
+            throw e;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    /**
+     * Read a whole blob into memory
+     * @throws IOException if the blob is missing or unreadable
+     */
+    public byte[] get(String hash) throws IOException {
+        return Files.readAllBytes(pathOf(hash));
+    }
+    
+    /**
+     * @return Whether a blob with this hash is stored
+     */
+    public boolean contains(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+    
+    /**
+     * Get the file holding a blob, e.g. to let JavaFX stream an image from disk
+     */
+    public Path pathOf(String hash) {
+        if (hash == null || hash.length() < 3 || !hash.matches("[0-9a-f]+")) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+    
+    /**
+     * Remove a blob. Callers must make sure nothing else references the hash.
+     */
+    public void delete(String hash) {
+        try {
+            Files.deleteIfExists(pathOf(hash));
+        } catch (IOException e) {
+            System.err.println("Failed to delete blob " + hash + ": " + e.getMessage());
+        }
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,207 @@
+package com.doterra.app.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timings for background file I/O, kept per save key.
+ * Fed by {@link AsyncFileOperations}; read by the I/O diagnostics window.
+ */
+public final class FileIoMetrics {
+    
+    private static final ConcurrentHashMap<String, KeyStats> statsByKey = new ConcurrentHashMap<>();
+    
+    // Tasks submitted to the file executor that have not started yet
+    private static final AtomicInteger queueDepth = new AtomicInteger();
+    private static final AtomicInteger maxQueueDepth = new AtomicInteger();
+    
+    // The save currently running on this thread, if any
+    private static final ThreadLocal<SaveContext> currentSave = new ThreadLocal<>();
+    
+    private FileIoMetrics() {
+    }
+    
+    static void saveScheduled(String key) {
+        stats(key).scheduled.increment();
+    }
+    
+    static void saveCoalesced(String key) {
+        stats(key).coalesced.increment();
+    }
+    
+    static void taskQueued() {
+        int depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+    
+    static void taskStarted() {
+        queueDepth.decrementAndGet();
+    }
+    
+    /**
+     * Run a save on the current (file) thread, recording its timings, bytes and outcome
+     * @param key The save key
+     * @param queuedAtNanos {@link System#nanoTime()} when the write was submitted
+     * @param write The write to run
+     */
+    static void runSave(String key, long queuedAtNanos, Runnable write) {
+        KeyStats stats = stats(key);
+        long startNanos = System.nanoTime();
+        long queueNanos = startNanos - queuedAtNanos;
+        SaveContext context = new SaveContext(stats);
+        
+        FileSaveEvent event = new FileSaveEvent();
+        event.key = key;
+        event.timeInQueue = queueNanos;
+        event.begin();
+        
+        currentSave.set(context);
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            recordWriteFailure(e);
+            throw e;
+        } finally {
+            currentSave.remove();
+            long writeNanos = System.nanoTime() - startNanos;
+            
+            stats.executed.increment();
+            stats.bytesWritten.add(context.bytes);
+            stats.totalQueueNanos.add(queueNanos);
+            stats.maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+            stats.totalWriteNanos.add(writeNanos);
+            stats.maxWriteNanos.accumulateAndGet(writeNanos, Math::max);
+            
+            event.bytesWritten = context.bytes;
+            event.success = !context.failed;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Attribute bytes to the save currently running on this thread (no-op outside a save)
+     */
+    static void recordBytesWritten(long bytes) {
+        SaveContext context = currentSave.get();
+        if (context != null) {
+            context.bytes += bytes;
+        }
+    }
+    
+    /**
+     * Mark the save currently running on this thread as failed, so it shows up in
+     * diagnostics instead of only on System.err (no-op outside a save)
+     */
+    static void recordWriteFailure(Exception error) {
+        SaveContext context = currentSave.get();
+        if (context != null && !context.failed) {
+            context.failed = true;
+            context.stats.failed.increment();
+            context.stats.lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        }
+    }
+    
+    private static KeyStats stats(String key) {
+        return statsByKey.computeIfAbsent(key, KeyStats::new);
+    }
+    
+    /**
+     * @return Stats for every key seen so far, ordered by key
+     */
+    public static List<KeyStats> getAllStats() {
+        List<KeyStats> all = new ArrayList<>(statsByKey.values());
+        all.sort(Comparator.comparing(KeyStats::getKey));
+        return all;
+    }
+    
+    public static int getQueueDepth() {
+        return Math.max(0, queueDepth.get());
+    }
+    
+    public static int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+    
+    /**
+     * Live counters for one save key
+     */
+    public static final class KeyStats {
+        private final String key;
+        private final LongAdder scheduled = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+        private final LongAdder totalQueueNanos = new LongAdder();
+        private final AtomicLong maxQueueNanos = new AtomicLong();
+        private final LongAdder totalWriteNanos = new LongAdder();
+        private final AtomicLong maxWriteNanos = new AtomicLong();
+        private volatile String lastError;
+        
+        private KeyStats(String key) {
+            this.key = key;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public long getScheduled() {
+            return scheduled.sum();
+        }
+        
+        /** Saves that replaced a still-pending save for the same key */
+        public long getCoalesced() {
+            return coalesced.sum();
+        }
+        
+        public long getExecuted() {
+            return executed.sum();
+        }
+        
+        public long getFailed() {
+            return failed.sum();
+        }
+        
+        public long getBytesWritten() {
+            return bytesWritten.sum();
+        }
+        
+        public double getAverageQueueMillis() {
+            long count = executed.sum();
+            return count == 0 ? 0 : totalQueueNanos.sum() / (count * 1_000_000.0);
+        }
+        
+        public double getMaxQueueMillis() {
+            return maxQueueNanos.get() / 1_000_000.0;
+        }
+        
+        public double getAverageWriteMillis() {
+            long count = executed.sum();
+            return count == 0 ? 0 : totalWriteNanos.sum() / (count * 1_000_000.0);
+        }
+        
+        public double getMaxWriteMillis() {
+            return maxWriteNanos.get() / 1_000_000.0;
+        }
+        
+        public String getLastError() {
+            return lastError;
+        }
+    }
+    
+    private static final class SaveContext {
+        private final KeyStats stats;
+        private long bytes;
+        private boolean failed;
+        
+        private SaveContext(KeyStats stats) {
+            this.stats = stats;
+        }
+    }
+}
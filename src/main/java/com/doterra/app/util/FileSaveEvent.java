@@ -0,0 +1,34 @@
+package com.doterra.app.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted for every background save written by {@link AsyncFileOperations}.
+ * The event duration is the write itself; time spent waiting in the queue is a separate field.
+ */
+@Name("com.doterra.app.FileSave")
+@Label("File Save")
+@Category({"doTERRA App", "File I/O"})
+@Description("A debounced save written on the file I/O thread")
+class FileSaveEvent extends Event {
+    
+    @Label("Key")
+    String key;
+    
+    @Label("Time In Queue")
+    @Timespan(Timespan.NANOSECONDS)
+    long timeInQueue;
+    
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+    
+    @Label("Success")
+    boolean success;
+}
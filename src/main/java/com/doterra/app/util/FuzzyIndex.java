@@ -0,0 +1,225 @@
+package com.doterra.app.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Fuzzy-matching index over labelled items, grouped by source so one source can be replaced
+ * without touching the others.
+ *
+ * <p>A query matches a label when its characters appear in the label in order, e.g. "shdl" matches
+ * "Shipping delay". Labels are lowercased and summarised as a 64-bit character mask when added, so
+ * most non-matching labels are rejected with one AND before any scanning. Not thread-safe.</p>
+ * @param <T> Value returned for each matching label
+ */
+public final class FuzzyIndex<T> {
+    
+    private static final int CONSECUTIVE_BONUS = 5;
+    private static final int WORD_START_BONUS = 8;
+    private static final int PREFIX_BONUS = 30;
+    private static final int SUBSTRING_BONUS = 20;
+    private static final int MAX_GAP_PENALTY = 10;
+    
+    private final Map<String, List<Entry<T>>> sources = new LinkedHashMap<>();
+    
+    private static final class Entry<T> {
+        private final String label;
+        private final String lower;
+        private final long mask;
+        private final T value;
+        
+        Entry(String label, T value) {
+            this.label = label;
+            this.lower = label.toLowerCase();
+            this.mask = mask(lower);
+            this.value = value;
+        }
+    }
+    
+    /**
+     * A matching value with its score; higher is better
+     */
+    public static final class Match<T> {
+        private final T value;
+        private final String label;
+        private final int score;
+        
+        Match(T value, String label, int score) {
+            this.value = value;
+            this.label = label;
+            this.score = score;
+        }
+        
+        public T getValue() {
+            return value;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+        
+        public int getScore() {
+            return score;
+        }
+    }
+    
+    /**
+     * Collects the items of one source before they replace it in the index
+     */
+    public static final class Builder<T> {
+        private final List<Entry<T>> entries = new ArrayList<>();
+        
+        public Builder<T> add(String label, T value) {
+            if (label != null && !label.isBlank()) {
+                entries.add(new Entry<>(label, value));
+            }
+            return this;
+        }
+    }
+    
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+    
+    /**
+     * Replace every item of a source
+     */
+    public void replaceSource(String source, Builder<T> items) {
+        sources.put(source, new ArrayList<>(items.entries));
+    }
+    
+    public void removeSource(String source) {
+        sources.remove(source);
+    }
+    
+    public int size() {
+        int size = 0;
+        for (List<Entry<T>> entries : sources.values()) {
+            size += entries.size();
+        }
+        return size;
+    }
+    
+    /**
+     * Best matches for a query, highest score first
+     * @param limit Maximum number of matches
+     */
+    public List<Match<T>> search(String query, int limit) {
+        String needle = query == null ? "" : query.trim().toLowerCase();
+        if (needle.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long needleMask = mask(needle);
+        
+        // Min-heap of the best matches so far, so a large index is never fully sorted
+        PriorityQueue<Match<T>> best = new PriorityQueue<>(limit + 1, (a, b) -> Integer.compare(a.score, b.score));
+        for (List<Entry<T>> entries : sources.values()) {
+            for (Entry<T> entry : entries) {
+                if ((needleMask & ~entry.mask) != 0) {
+                    continue;
+                }
+                int score = score(needle, entry.lower);
+                if (score < 0) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Match<>(entry.value, entry.label, score));
+                } else if (score > best.peek().score) {
+                    best.poll();
+                    best.add(new Match<>(entry.value, entry.label, score));
+                }
+            }
+        }
+        
+        List<Match<T>> matches = new ArrayList<>(best);
+        matches.sort((a, b) -> a.score != b.score ? Integer.compare(b.score, a.score)
+            : a.label.compareToIgnoreCase(b.label));
+        return matches;
+    }
+    
+    /**
+     * Score a lowercase query against a lowercase label
+     * @return The score, or -1 if the query's characters do not all appear in order
+     */
+    public static int score(String query, String label) {
+        int score = score(query, label, true);
+        // Jumping ahead to a word start can skip past characters needed later; retry plainly
+        return score >= 0 ? score : score(query, label, false);
+    }
+    
+    private static int score(String query, String label, boolean preferWordStarts) {
+        int score = 0;
+        int previous = -1;
+        int position = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            int found = label.indexOf(c, position);
+            if (found < 0) {
+                return -1;
+            }
+            // Prefer a later occurrence that starts a word, e.g. the "d" of "delay" over the "d" in "order"
+            if (preferWordStarts && found != previous + 1 && !isWordStart(label, found)) {
+                int wordStart = nextWordStart(label, c, found + 1);
+                if (wordStart >= 0) {
+                    found = wordStart;
+                }
+            }
+            score += 1;
+            if (found == previous + 1) {
+                score += CONSECUTIVE_BONUS;
+            } else if (previous >= 0) {
+                score -= Math.min(MAX_GAP_PENALTY, found - previous - 1);
+            }
+            if (isWordStart(label, found)) {
+                score += WORD_START_BONUS;
+            }
+            previous = found;
+            position = found + 1;
+        }
+        if (label.startsWith(query)) {
+            score += PREFIX_BONUS;
+        } else if (label.contains(query)) {
+            score += SUBSTRING_BONUS;
+        }
+        // Among equal matches, shorter labels are closer to what was typed
+        return Math.max(0, score * 4 - label.length() / 8);
+    }
+    
+    private static int nextWordStart(String label, char c, int from) {
+        for (int i = label.indexOf(c, from); i >= 0; i = label.indexOf(c, i + 1)) {
+            if (isWordStart(label, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static boolean isWordStart(String label, int index) {
+        return index == 0 || !Character.isLetterOrDigit(label.charAt(index - 1));
+    }
+    
+    /**
+     * One bit per letter and digit present, plus one shared bit for everything else except spaces
+     */
+    private static long mask(String text) {
+        long mask = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                mask |= 1L << (c - 'a');
+            } else if (c >= '0' && c <= '9') {
+                mask |= 1L << (26 + c - '0');
+            } else if (c != ' ') {
+                mask |= 1L << 63;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,83 @@
+package com.doterra.app.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Partial image decoding with ImageIO: reading only the header, only a region, or only every
+ * n-th pixel, so large screenshots never have to be fully decoded at full resolution.
+ */
+public final class ImageDecoder {
+    
+    private ImageDecoder() {
+    }
+    
+    /**
+     * Read the pixel size of an image from its header
+     * @throws IOException if the file is not a readable image
+     */
+    public static Dimension readSize(Path file) throws IOException {
+        return withReader(file, reader -> new Dimension(reader.getWidth(0), reader.getHeight(0)));
+    }
+    
+    /**
+     * Decode an image subsampled so its longest side is about {@code maxSide} or a little more
+     * @param file The image file
+     * @param maxSide The longest side wanted; the result is at least this large unless the image is smaller
+     */
+    public static BufferedImage readScaled(Path file, int maxSide) throws IOException {
+        return withReader(file, reader -> {
+            int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+            int step = Math.max(1, longestSide / maxSide);
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        });
+    }
+    
+    /**
+     * Decode one region of an image, keeping every {@code step}-th pixel
+     * @param file The image file
+     * @param region Source region in full-resolution pixels
+     * @param step Subsampling step; 1 for full resolution
+     */
+    public static BufferedImage readRegion(Path file, Rectangle region, int step) throws IOException {
+        return withReader(file, reader -> {
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(region);
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        });
+    }
+    
+    private interface ReaderAction<T> {
+        T apply(ImageReader reader) throws IOException;
+    }
+    
+    private static <T> T withReader(Path file, ReaderAction<T> action) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                throw new IOException("Cannot open " + file);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return action.apply(reader);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
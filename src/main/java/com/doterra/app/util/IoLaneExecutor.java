@@ -0,0 +1,205 @@
+package com.doterra.app.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs file I/O on a small shared thread pool, split into ordered lanes.
+ * Tasks submitted to the same lane (one per store/file) run one at a time in submission order;
+ * different lanes run concurrently, so one large write no longer holds up every other store.
+ * When lanes compete for a thread, loads are picked ahead of background saves, and speculative
+ * prefetches run only after both.
+ */
+final class IoLaneExecutor {
+    
+    /**
+     * Scheduling priority across lanes; lower ordinal runs first
+     */
+    enum Priority {
+        LOAD,
+        SAVE,
+        PREFETCH
+    }
+    
+    private final ThreadPoolExecutor pool;
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    
+    // Keeps FIFO order between equal-priority tasks in the pool queue
+    private final AtomicLong sequence = new AtomicLong();
+    
+    IoLaneExecutor(String threadName, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(threadName + "-" + threadCount.incrementAndGet());
+            return t;
+        });
+        pool.allowCoreThreadTimeOut(true);
+    }
+    
+    /**
+     * Queue a task on a lane
+     * @param laneKey Lane to run on; tasks with the same key never overlap
+     * @param priority Priority when competing with other lanes for a thread
+     * @param task The task to run
+     * @return A future completing when the task has run
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    Future<?> submit(String laneKey, Priority priority, Runnable task) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("File I/O executor has been shut down");
+        }
+        LaneFuture future = new LaneFuture(task);
+        future.task = new LaneTask(future, priority);
+        lanes.computeIfAbsent(laneKey, k -> new Lane()).enqueue(future.task);
+        return future;
+    }
+    
+    /**
+     * Raise the priority of a task that has not started yet, e.g. a prefetch the user is now
+     * waiting for. It keeps its place in its lane, so it still runs after the tasks queued on
+     * that lane before it.
+     * @param future A future returned by {@link #submit}
+     * @param priority The new priority; ignored unless it is higher than the current one
+     */
+    void promote(Future<?> future, Priority priority) {
+        if (!(future instanceof LaneFuture)) {
+            return;
+        }
+        LaneTask task = ((LaneFuture) future).task;
+        synchronized (task.lane) {
+            if (priority.compareTo(task.priority) >= 0) {
+                return;
+            }
+            if (!task.dispatched) {
+                // Still waiting behind its lane; it enters the pool queue at the new priority
+                task.priority = priority;
+                return;
+            }
+        }
+        // Waiting in the pool queue, which only orders tasks as they are inserted
+        if (pool.remove(task)) {
+            task.priority = priority;
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+    }
+    
+    /**
+     * Queue a no-op on every lane; the returned futures complete once everything queued
+     * before this call has run
+     */
+    List<Future<?>> barrier() {
+        List<Future<?>> barriers = new ArrayList<>();
+        for (String laneKey : lanes.keySet()) {
+            try {
+                barriers.add(submit(laneKey, Priority.SAVE, () -> { }));
+            } catch (RejectedExecutionException e) {
+                // Shut down; nothing further will be queued behind this
+            }
+        }
+        return barriers;
+    }
+    
+    void shutdown() {
+        pool.shutdown();
+    }
+    
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+    
+    void shutdownNow() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Serial queue of tasks for one key; at most one of its tasks is in the pool at a time
+     */
+    private final class Lane {
+        private final ArrayDeque<LaneTask> pending = new ArrayDeque<>();
+        private boolean active;
+        
+        void enqueue(LaneTask task) {
+            task.lane = this;
+            synchronized (this) {
+                pending.add(task);
+                if (active) {
+                    return;
+                }
+                active = true;
+            }
+            dispatchNext();
+        }
+        
+        void dispatchNext() {
+            LaneTask next;
+            synchronized (this) {
+                next = pending.poll();
+                if (next == null) {
+                    active = false;
+                    return;
+                }
+                next.dispatched = true;
+            }
+            next.order = sequence.incrementAndGet();
+            try {
+                pool.execute(next);
+            } catch (RejectedExecutionException e) {
+                // Pool stopped underneath us; run inline so queued writes are not lost
+                next.run();
+            }
+        }
+    }
+    
+    private static final class LaneFuture extends FutureTask<Void> {
+        private LaneTask task;
+        
+        LaneFuture(Runnable task) {
+            super(task, null);
+        }
+    }
+    
+    private static final class LaneTask implements Runnable, Comparable<LaneTask> {
+        private final FutureTask<?> future;
+        private volatile Priority priority;
+        // Set under the lane's lock once the task has left the lane for the pool queue
+        private boolean dispatched;
+        private Lane lane;
+        private long order;
+        
+        LaneTask(FutureTask<?> future, Priority priority) {
+            this.future = future;
+            this.priority = priority;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                future.run();
+            } finally {
+                lane.dispatchNext();
+            }
+        }
+        
+        @Override
+        public int compareTo(LaneTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,664 @@
+package com.doterra.app.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded, file-based key-value store shared by the panels.
+ *
+ * <p>The store is a directory with one append-only log per namespace ({@code <namespace>.kv}),
+ * so a panel only reads the namespaces it actually uses. Each commit appends one
+ * length-prefixed, CRC-checked frame holding a whole batch of puts and deletes, which makes a
+ * batch all-or-nothing: on load, a torn or corrupt tail frame left by a crash is discarded and
+ * truncated. Values are Java-serialized like the rest of the app's data. Only the keys and the
+ * position of each live value in the log are kept in memory; values are read from disk on
+ * {@code get}, and the log is compacted once it is mostly garbage.</p>
+ */
+public final class KeyValueStore {
+    
+    private static final String LOG_SUFFIX = ".kv";
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final String LIST_SEPARATOR = "/";
+    
+    // Compact when the log is this much larger than its live data (and past a minimum size)
+    private static final int COMPACTION_RATIO = 2;
+    private static final long COMPACTION_MIN_BYTES = 256 * 1024;
+    
+    private static final ConcurrentHashMap<Path, KeyValueStore> openStores = new ConcurrentHashMap<>();
+    
+    private final Path directory;
+    private final ConcurrentHashMap<String, Namespace> namespaces = new ConcurrentHashMap<>();
+    
+    private KeyValueStore(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Get the store rooted at a directory, creating it on first use. All callers for the same
+     * directory share one instance.
+     * @param directory The store directory
+     * @return The shared store
+     */
+    public static KeyValueStore open(Path directory) {
+        return openStores.computeIfAbsent(directory.toAbsolutePath().normalize(), KeyValueStore::new);
+    }
+    
+    /**
+     * Get a namespace, reading its log from disk the first time it is requested
+     * @param name Namespace name; also the log file's base name
+     * @return The loaded namespace
+     * @throws IOException if the log cannot be read
+     */
+    public Namespace namespace(String name) throws IOException {
+        return namespace(name, null, null);
+    }
+    
+    /**
+     * Get a namespace, importing an old whole-file save into it the first time it is opened
+     * empty. The import runs at most once, even when several threads open the namespace at the
+     * same time, and the legacy file is retired to {@code .bak} afterwards.
+     * @param name Namespace name; also the log file's base name
+     * @param legacyFile The old save file, or null if there is none
+     * @param legacyImport Writes the contents of the legacy file into the namespace
+     * @return The loaded namespace
+     * @throws IOException if the log or the legacy file cannot be read
+     */
+    public Namespace namespace(String name, Path legacyFile, LegacyImport legacyImport) throws IOException {
+        Namespace namespace = namespaces.get(name);
+        if (namespace != null) {
+            return namespace;
+        }
+        synchronized (namespaces) {
+            namespace = namespaces.get(name);
+            if (namespace == null) {
+                namespace = new Namespace(directory.resolve(name + LOG_SUFFIX));
+                namespace.load();
+                if (legacyFile != null && namespace.isEmpty() && Files.exists(legacyFile)) {
+                    legacyImport.importFrom(legacyFile, namespace);
+                    retireLegacyFile(legacyFile);
+                }
+                namespaces.put(name, namespace);
+            }
+            return namespace;
+        }
+    }
+    
+    /**
+     * Copies an old whole-file save into a new namespace
+     */
+    @FunctionalInterface
+    public interface LegacyImport {
+        void importFrom(Path legacyFile, Namespace namespace) throws IOException;
+    }
+    
+    /**
+     * Reads one value from an old save file
+     */
+    @FunctionalInterface
+    public interface LegacyRecord {
+        Serializable read(Path legacyFile) throws IOException;
+    }
+    
+    /**
+     * Size of a namespace's log on disk, without loading it
+     * @return The size in bytes, or 0 if the namespace has no log yet
+     */
+    public static long logSize(Path directory, String name) {
+        try {
+            return Files.size(directory.resolve(name + LOG_SUFFIX));
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Close the log files of every open store (call on application exit)
+     */
+    public static void closeAll() {
+        for (KeyValueStore store : openStores.values()) {
+            for (Namespace namespace : store.namespaces.values()) {
+                namespace.close();
+            }
+        }
+    }
+    
+    /**
+     * Read an object saved in the old whole-file format, so it can be imported into a namespace
+     * @param file The legacy file
+     * @return The stored object, or null if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public static Object readLegacyFile(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown class in " + file.getFileName(), e);
+        }
+    }
+    
+    /**
+     * Rename an imported legacy file to {@code .bak} so it is not imported again but remains
+     * available for a manual rollback
+     */
+    public static void retireLegacyFile(Path file) {
+        try {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error retiring " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Records of one namespace. All methods are thread-safe.
+     */
+    public static final class Namespace {
+        private final Path logFile;
+        private final Map<String, Location> records = new LinkedHashMap<>();
+        private FileChannel channel;
+        private long liveBytes;
+        private long version;
+        
+        private Namespace(Path logFile) {
+            this.logFile = logFile;
+        }
+        
+        /**
+         * @return Whether the namespace has no records
+         */
+        public synchronized boolean isEmpty() {
+            return records.isEmpty();
+        }
+        
+        /**
+         * @return The keys of all records, in first-written order
+         */
+        public synchronized List<String> keys() {
+            return new ArrayList<>(records.keySet());
+        }
+        
+        /**
+         * @return A number that changes whenever a commit changes a record, so readers can tell
+         *         whether anything needs to be read again
+         */
+        public synchronized long version() {
+            return version;
+        }
+        
+        /**
+         * @return Whether a record exists for the key
+         */
+        public synchronized boolean contains(String key) {
+            return records.containsKey(key);
+        }
+        
+        /**
+         * Read and deserialize a record
+         * @param key The record key
+         * @return The value, or null if there is no such record
+         * @throws IOException if the value cannot be deserialized
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T get(String key) throws IOException {
+            byte[] bytes;
+            synchronized (this) {
+                Location location = records.get(key);
+                if (location == null) {
+                    return null;
+                }
+                bytes = read(location);
+            }
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (T) ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unknown class in record " + key, e);
+            }
+        }
+        
+        /**
+         * Read a record, importing it from an old single-object save file if the record does not
+         * exist yet; the legacy file is then retired
+         * @param key The record key
+         * @param legacyFile The old save file holding the value
+         * @return The value, or null if there is neither a record nor a legacy file
+         * @throws IOException if the value or the legacy file cannot be read
+         */
+        public <T> T get(String key, Path legacyFile) throws IOException {
+            return get(key, legacyFile, file -> (Serializable) readLegacyFile(file));
+        }
+        
+        /**
+         * Read a record, importing it from an old save file in another format if the record does
+         * not exist yet; the legacy file is then retired
+         * @param key The record key
+         * @param legacyFile The old save file
+         * @param legacyRead Reads the value from the legacy file, or returns null if it holds none
+         * @return The value, or null if there is neither a record nor a legacy value
+         * @throws IOException if the value or the legacy file cannot be read
+         */
+        public synchronized <T> T get(String key, Path legacyFile, LegacyRecord legacyRead) throws IOException {
+            if (!records.containsKey(key) && Files.exists(legacyFile)) {
+                Serializable legacy = legacyRead.read(legacyFile);
+                if (legacy != null) {
+                    commit(new WriteBatch().put(key, legacy));
+                }
+                retireLegacyFile(legacyFile);
+            }
+            return get(key);
+        }
+        
+        /**
+         * Read a list stored with {@link WriteBatch#putList}
+         * @param name The list name
+         * @return The items in order, or an empty list if the list was never stored
+         * @throws IOException if an item cannot be deserialized
+         */
+        public synchronized <T> List<T> getList(String name) throws IOException {
+            List<T> items = new ArrayList<>();
+            List<String> ids = get(name);
+            if (ids != null) {
+                for (String id : ids) {
+                    T item = get(name + LIST_SEPARATOR + id);
+                    if (item != null) {
+                        items.add(item);
+                    }
+                }
+            }
+            return items;
+        }
+        
+        /**
+         * Durably apply a batch. Puts whose value is unchanged and deletes of missing keys are
+         * dropped first, so only records that actually changed are written.
+         * @param batch The batch to apply
+         * @return The number of records written
+         * @throws IOException if the batch cannot be written; the namespace is then unchanged
+         */
+        public synchronized int commit(WriteBatch batch) throws IOException {
+            Map<String, byte[]> ops = new LinkedHashMap<>(batch.ops);
+            for (String list : batch.replacedLists) {
+                String itemPrefix = list + LIST_SEPARATOR;
+                for (String key : records.keySet()) {
+                    if (key.startsWith(itemPrefix) && !ops.containsKey(key)) {
+                        ops.put(key, null);
+                    }
+                }
+            }
+            
+            Map<String, byte[]> changes = new LinkedHashMap<>();
+            for (Map.Entry<String, byte[]> op : ops.entrySet()) {
+                if (!isUnchanged(records.get(op.getKey()), op.getValue())) {
+                    changes.put(op.getKey(), op.getValue());
+                }
+            }
+            if (changes.isEmpty()) {
+                return 0;
+            }
+            
+            Map<String, Integer> valueOffsets = new HashMap<>();
+            long start;
+            try {
+                byte[] frame = encodeFrame(changes, valueOffsets);
+                FileChannel out = channel();
+                start = out.size();
+                try {
+                    writeFully(out, frame);
+                    out.force(false);
+                } catch (IOException e) {
+                    // Drop the partial frame so later commits are not appended after garbage
+                    out.truncate(start);
+                    throw e;
+                }
+                FileIoMetrics.recordBytesWritten(frame.length);
+            } catch (IOException e) {
+                FileIoMetrics.recordWriteFailure(e);
+                throw e;
+            }
+            
+            for (Map.Entry<String, byte[]> change : changes.entrySet()) {
+                byte[] value = change.getValue();
+                apply(change.getKey(), value == null ? null
+                    : new Location(start + valueOffsets.get(change.getKey()), value.length, checksum(value)));
+            }
+            version++;
+            try {
+                compactIfNeeded();
+            } catch (IOException e) {
+                // The batch itself is durable; an oversized log is retried on the next commit
+                System.err.println("Error compacting " + logFile.getFileName() + ": " + e.getMessage());
+            }
+            return changes.size();
+        }
+        
+        private void load() throws IOException {
+            if (!Files.exists(logFile)) {
+                return;
+            }
+            long validLength = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+                while (true) {
+                    Frame frame = readFrame(in);
+                    if (frame == null) {
+                        break;
+                    }
+                    for (Map.Entry<String, byte[]> op : frame.ops.entrySet()) {
+                        byte[] value = op.getValue();
+                        apply(op.getKey(), value == null ? null
+                            : new Location(validLength + frame.valueOffsets.get(op.getKey()), value.length, checksum(value)));
+                    }
+                    validLength += frame.length;
+                }
+            }
+            
+            long fileLength = Files.size(logFile);
+            if (validLength < fileLength) {
+                System.err.println("Recovered " + logFile.getFileName() + ": discarded "
+                    + (fileLength - validLength) + " bytes of incomplete data");
+                channel().truncate(validLength);
+            }
+        }
+        
+        private void apply(String key, Location location) {
+            Location previous = location == null ? records.remove(key) : records.put(key, location);
+            if (previous != null) {
+                liveBytes -= previous.length + key.length();
+            }
+            if (location != null) {
+                liveBytes += location.length + key.length();
+            }
+        }
+        
+        /**
+         * Compare a new value with the stored one; the stored bytes are only read when the length
+         * and checksum already match
+         */
+        private boolean isUnchanged(Location current, byte[] value) throws IOException {
+            if (value == null || current == null) {
+                return value == null && current == null;
+            }
+            return current.length == value.length && current.checksum == checksum(value)
+                && Arrays.equals(read(current), value);
+        }
+        
+        private byte[] read(Location location) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(location.length);
+            FileChannel in = channel();
+            while (buffer.hasRemaining()) {
+                if (in.read(buffer, location.offset + buffer.position()) < 0) {
+                    throw new EOFException("Record cut short in " + logFile.getFileName());
+                }
+            }
+            return buffer.array();
+        }
+        
+        private void compactIfNeeded() throws IOException {
+            long size = channel().size();
+            if (size < COMPACTION_MIN_BYTES || size < liveBytes * COMPACTION_RATIO) {
+                return;
+            }
+            Map<String, byte[]> live = new LinkedHashMap<>();
+            for (Map.Entry<String, Location> record : records.entrySet()) {
+                live.put(record.getKey(), read(record.getValue()));
+            }
+            Map<String, Integer> valueOffsets = new HashMap<>();
+            Path tempFile = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                if (!live.isEmpty()) {
+                    writeFully(out, encodeFrame(live, valueOffsets));
+                }
+                out.force(true);
+            }
+            close();
+            Files.move(tempFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Map.Entry<String, Location> record : records.entrySet()) {
+                Location moved = record.getValue();
+                record.setValue(new Location(valueOffsets.get(record.getKey()), moved.length, moved.checksum));
+            }
+        }
+        
+        private FileChannel channel() throws IOException {
+            if (channel == null || !channel.isOpen()) {
+                Files.createDirectories(logFile.getParent());
+                channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            }
+            return channel;
+        }
+        
+        private synchronized void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing " + logFile.getFileName() + ": " + e.getMessage());
+                }
+                channel = null;
+            }
+        }
+    }
+    
+    /**
+     * A set of puts and deletes applied atomically by {@link Namespace#commit(WriteBatch)}.
+     * Values are serialized when added, so later changes to the objects do not affect the batch.
+     */
+    public static final class WriteBatch {
+        private final Map<String, byte[]> ops = new LinkedHashMap<>();
+        private final Set<String> replacedLists = new HashSet<>();
+        
+        /**
+         * Add or replace a record
+         * @throws IOException if the value cannot be serialized
+         */
+        public WriteBatch put(String key, Serializable value) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(value);
+            }
+            ops.put(key, bytes.toByteArray());
+            return this;
+        }
+        
+        /**
+         * Replace a list: each item is its own record keyed by its id, so only the items that
+         * changed are written, and items no longer in the list are deleted on commit
+         * @param name The list name; its items are stored under {@code name/id}
+         * @param items The items in order
+         * @param idOf The item's id, unique within the list
+         * @throws IOException if an item cannot be serialized
+         */
+        public <T extends Serializable> WriteBatch putList(String name, List<? extends T> items,
+                Function<? super T, String> idOf) throws IOException {
+            ArrayList<String> ids = new ArrayList<>(items.size());
+            for (T item : items) {
+                String id = idOf.apply(item);
+                ids.add(id);
+                put(name + LIST_SEPARATOR + id, item);
+            }
+            put(name, ids);
+            replacedLists.add(name);
+            return this;
+        }
+        
+        /**
+         * Replace a list whose items have no stable id; items are keyed by their position
+         * @param name The list name
+         * @param items The items in order
+         * @throws IOException if an item cannot be serialized
+         */
+        public WriteBatch putList(String name, List<? extends Serializable> items) throws IOException {
+            ArrayList<String> ids = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                String id = String.valueOf(i);
+                ids.add(id);
+                put(name + LIST_SEPARATOR + id, items.get(i));
+            }
+            put(name, ids);
+            replacedLists.add(name);
+            return this;
+        }
+        
+        /**
+         * Remove a record
+         */
+        public WriteBatch delete(String key) {
+            ops.put(key, null);
+            return this;
+        }
+        
+        public boolean isEmpty() {
+            return ops.isEmpty();
+        }
+    }
+    
+    // Frame: [int payload length][long CRC32 of payload][payload]
+    // Payload: [int op count] then per op: [byte op][UTF key][int value length][value bytes]
+    private static final int FRAME_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    
+    /**
+     * Encode a frame
+     * @param valueOffsets Receives the offset of each put's value from the start of the frame
+     */
+    private static byte[] encodeFrame(Map<String, byte[]> ops, Map<String, Integer> valueOffsets) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        try (DataOutputStream payload = new DataOutputStream(payloadBytes)) {
+            payload.writeInt(ops.size());
+            for (Map.Entry<String, byte[]> op : ops.entrySet()) {
+                payload.writeByte(op.getValue() == null ? OP_DELETE : OP_PUT);
+                payload.writeUTF(op.getKey());
+                if (op.getValue() != null) {
+                    payload.writeInt(op.getValue().length);
+                    valueOffsets.put(op.getKey(), FRAME_HEADER_BYTES + payload.size());
+                    payload.write(op.getValue());
+                }
+            }
+        }
+        byte[] body = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + body.length);
+        frame.putInt(body.length);
+        frame.putLong(crc.getValue());
+        frame.put(body);
+        return frame.array();
+    }
+    
+    /**
+     * Read one frame, or null at end of file or at the first incomplete/corrupt frame
+     */
+    private static Frame readFrame(DataInputStream in) throws IOException {
+        byte[] body;
+        long expectedCrc;
+        try {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            expectedCrc = in.readLong();
+            body = in.readNBytes(length);
+            if (body.length < length) {
+                return null;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if (crc.getValue() != expectedCrc) {
+            return null;
+        }
+        
+        Map<String, byte[]> ops = new LinkedHashMap<>();
+        Map<String, Integer> valueOffsets = new HashMap<>();
+        ByteArrayInputStream payloadBytes = new ByteArrayInputStream(body);
+        DataInputStream payload = new DataInputStream(payloadBytes);
+        int count = payload.readInt();
+        for (int i = 0; i < count; i++) {
+            byte op = payload.readByte();
+            String key = payload.readUTF();
+            if (op == OP_PUT) {
+                byte[] value = new byte[payload.readInt()];
+                valueOffsets.put(key, FRAME_HEADER_BYTES + body.length - payloadBytes.available());
+                payload.readFully(value);
+                ops.put(key, value);
+            } else {
+                ops.put(key, null);
+            }
+        }
+        return new Frame(ops, valueOffsets, FRAME_HEADER_BYTES + body.length);
+    }
+    
+    /**
+     * A decoded frame, where its values start relative to the frame, and its encoded length on disk
+     */
+    private static final class Frame {
+        private final Map<String, byte[]> ops;
+        private final Map<String, Integer> valueOffsets;
+        private final long length;
+        
+        Frame(Map<String, byte[]> ops, Map<String, Integer> valueOffsets, long length) {
+            this.ops = ops;
+            this.valueOffsets = valueOffsets;
+            this.length = length;
+        }
+    }
+    
+    /**
+     * Where a live value sits in a namespace's log. The checksum lets a commit skip reading
+     * values that clearly changed.
+     */
+    private static final class Location {
+        private final long offset;
+        private final int length;
+        private final long checksum;
+        
+        Location(long offset, int length, long checksum) {
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+        }
+    }
+    
+    private static long checksum(byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(value);
+        return crc.getValue();
+    }
+    
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -1,29 +1,40 @@
 package com.doterra.app.util;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Manages navigation section expanded/collapsed state persistence
+ * Manages navigation section expanded/collapsed state persistence, and the panel usage history
+ * used to predict which panels to prepare ahead of time
  */
 public class NavigationPreferences implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final String PREFERENCES_FILE = "data/navigation_preferences.dat";
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String STORE_NAMESPACE = "preferences";
+    private static final String PREFERENCES_KEY = "navigation";
+    
+    private static final int MAX_RECENT_PANELS = 20;
     
     private Map<String, Boolean> sectionStates;
+    // Added later; null when read from an older preferences file
+    private Map<String, Integer> panelVisits;
+    private List<String> recentPanels;
     
     public NavigationPreferences() {
         this.sectionStates = new HashMap<>();
         // Set default states
         this.sectionStates.put("Basic", true);  // Basic expanded by default
         this.sectionStates.put("Advanced", false);  // Advanced collapsed by default
+        this.panelVisits = new HashMap<>();
+        this.recentPanels = new ArrayList<>();
     }
     
     public boolean isSectionExpanded(String sectionTitle) {
@@ -35,35 +46,66 @@ public class NavigationPreferences implements Serializable {
     }
     
     /**
-     * Save navigation preferences to file
+     * Count a visit to a panel and make it the most recently used
+     */
+    public void recordPanelVisit(String panelId) {
+        panelVisits.merge(panelId, 1, Integer::sum);
+        recentPanels.remove(panelId);
+        recentPanels.add(0, panelId);
+        if (recentPanels.size() > MAX_RECENT_PANELS) {
+            recentPanels.remove(recentPanels.size() - 1);
+        }
+    }
+    
+    public int getPanelVisits(String panelId) {
+        return panelVisits.getOrDefault(panelId, 0);
+    }
+    
+    /**
+     * @return Every panel visited so far, most visited first and the more recent first on ties
+     */
+    public List<String> getPanelsByUsage() {
+        List<String> panels = new ArrayList<>(panelVisits.keySet());
+        panels.sort(Comparator.comparingInt((String panelId) -> -panelVisits.get(panelId))
+            .thenComparingInt(this::recencyRank));
+        return panels;
+    }
+    
+    private int recencyRank(String panelId) {
+        int index = recentPanels.indexOf(panelId);
+        return index >= 0 ? index : Integer.MAX_VALUE;
+    }
+    
+    /**
+     * Save navigation preferences to the preferences namespace of the key-value store
      */
     public void save() {
         try {
-            Path dataDir = Paths.get("data");
-            if (!Files.exists(dataDir)) {
-                Files.createDirectories(dataDir);
-            }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(Paths.get(PREFERENCES_FILE)))) {
-                oos.writeObject(this);
-            }
+            KeyValueStore.open(STORE_DIR).namespace(STORE_NAMESPACE)
+                .commit(new KeyValueStore.WriteBatch().put(PREFERENCES_KEY, this));
         } catch (IOException e) {
             System.err.println("Error saving navigation preferences: " + e.getMessage());
         }
     }
     
     /**
-     * Load navigation preferences from file
+     * Load navigation preferences, importing the old preferences file the first time
      */
     public static NavigationPreferences load() {
-        Path preferencesPath = Paths.get(PREFERENCES_FILE);
-        if (!Files.exists(preferencesPath)) {
-            return new NavigationPreferences(); // Return default preferences
-        }
-        
-        try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(preferencesPath))) {
-            return (NavigationPreferences) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+        try {
+            NavigationPreferences preferences = KeyValueStore.open(STORE_DIR).namespace(STORE_NAMESPACE)
+                .get(PREFERENCES_KEY, Paths.get(PREFERENCES_FILE));
+            if (preferences == null) {
+                return new NavigationPreferences(); // Return default preferences
+            }
+            if (preferences.panelVisits == null) {
+                preferences.panelVisits = new HashMap<>();
+            }
+            if (preferences.recentPanels == null) {
+                preferences.recentPanels = new ArrayList<>();
+            }
+            return preferences;
+        } catch (IOException | ClassCastException e) {
             System.err.println("Error loading navigation preferences: " + e.getMessage());
             return new NavigationPreferences(); // Return default preferences on error
         }
@@ -0,0 +1,63 @@
+package com.doterra.app.util;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Difference hash (dHash) of an image: a 64-bit fingerprint that stays nearly the same when a
+ * picture is re-encoded, resized or slightly changed, so near-identical screenshots can be found by
+ * comparing hashes with {@link #distance(long, long)}.
+ */
+public final class PerceptualHash {
+    
+    // Hashes at most this many bits apart are treated as the same picture
+    public static final int NEAR_DUPLICATE_DISTANCE = 5;
+    
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+    
+    private PerceptualHash() {
+    }
+    
+    /**
+     * Hash an image file; only a small subsampled copy is decoded
+     * @throws IOException if the file is not a readable image
+     */
+    public static long dHash(Path file) throws IOException {
+        return dHash(ImageDecoder.readScaled(file, 64));
+    }
+    
+    /**
+     * Shrink to 9x8 grayscale and set one bit per pixel that is brighter than its right neighbour
+     */
+    public static long dHash(BufferedImage image) {
+        BufferedImage small = new BufferedImage(HASH_WIDTH, HASH_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = small.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, HASH_WIDTH, HASH_HEIGHT, null);
+        } finally {
+            g.dispose();
+        }
+        
+        long hash = 0;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                int left = small.getRaster().getSample(x, y, 0);
+                int right = small.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+    
+    /**
+     * @return Number of differing bits between two hashes
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,319 @@
+package com.doterra.app.util;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Finds new screenshots in a set of directories without blocking the JavaFX thread.
+ *
+ * <p>All scanning runs on one background thread. A rescan skips directories whose modification
+ * time shows no entries were added since the previous scan, and otherwise only considers files
+ * changed since then. Candidate files are reported once their size and modification time stay
+ * the same across two checks, instead of after a fixed sleep. Already imported files are
+ * remembered by path and time; entries older than the import window are pruned, so the set stays
+ * small and bounded.</p>
+ */
+public final class ScreenshotScanner {
+    
+    private static final long STABILITY_CHECK_MS = 250;
+    // Allowance for coarse file system timestamps when comparing against the last scan
+    private static final long TIMESTAMP_SLACK_MS = 2000;
+    private static final int MAX_PROCESSED = 1000;
+    
+    private final List<Path> directories;
+    private final long maxAgeMillis;
+    private final Consumer<Path> onScreenshot;
+    private final ScheduledExecutorService executor;
+    
+    // Confined to the scanner thread
+    private final Map<Path, Long> lastScanStarted = new HashMap<>();
+    private final Map<Path, FileState> pending = new HashMap<>();
+    private ScheduledFuture<?> stabilityCheck;
+    
+    // Absolute path -> file time when imported; guarded by itself
+    private final LinkedHashMap<String, Long> processed = new LinkedHashMap<>();
+    
+    private volatile WatchService watchService;
+    private Thread watchThread;
+    
+    /**
+     * @param directories Directories to scan and watch
+     * @param maxAgeMillis Only files created or modified within this window are reported
+     * @param onScreenshot Called on the scanner thread with each new, fully written image file
+     */
+    public ScreenshotScanner(List<Path> directories, long maxAgeMillis, Consumer<Path> onScreenshot) {
+        this.directories = new ArrayList<>(directories);
+        this.maxAgeMillis = maxAgeMillis;
+        this.onScreenshot = onScreenshot;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Screenshot-Scanner");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    public static boolean isImageFile(String fileName) {
+        String lower = fileName.toLowerCase();
+        return lower.endsWith(".png") || lower.endsWith(".jpg") ||
+               lower.endsWith(".jpeg") || lower.endsWith(".gif") ||
+               lower.endsWith(".bmp");
+    }
+    
+    /**
+     * Queue an incremental scan of all directories
+     */
+    public void scan() {
+        executor.execute(() -> {
+            for (Path dir : directories) {
+                scanDirectory(dir);
+            }
+        });
+    }
+    
+    /**
+     * Watch the directories for new files and run an initial scan
+     */
+    public synchronized void startWatching() {
+        if (watchThread != null || directories.isEmpty()) {
+            return;
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            for (Path dir : directories) {
+                try {
+                    dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                } catch (IOException e) {
+                    System.err.println("Failed to register directory: " + dir + " - " + e.getMessage());
+                }
+            }
+            watchService = service;
+        } catch (IOException e) {
+            System.err.println("Failed to start screenshot monitoring: " + e.getMessage());
+            return;
+        }
+        
+        scan();
+        
+        watchThread = new Thread(this::watchLoop, "Screenshot-Watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+    
+    public synchronized void stopWatching() {
+        if (watchThread == null) {
+            return;
+        }
+        watchThread.interrupt();
+        watchThread = null;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Error closing watch service: " + e.getMessage());
+        }
+    }
+    
+    public void shutdown() {
+        stopWatching();
+        executor.shutdownNow();
+    }
+    
+    /**
+     * @return Copy of the imported-files set (absolute path to file time), for saving
+     */
+    public Map<String, Long> getProcessedFiles() {
+        synchronized (processed) {
+            pruneProcessed();
+            return new HashMap<>(processed);
+        }
+    }
+    
+    /**
+     * Restore the imported-files set saved by {@link #getProcessedFiles()}
+     */
+    public void restoreProcessedFiles(Map<String, Long> saved) {
+        synchronized (processed) {
+            processed.putAll(saved);
+            pruneProcessed();
+        }
+    }
+    
+    /**
+     * Record a file as imported, e.g. one that was added manually
+     */
+    public void markProcessed(Path file, long fileTime) {
+        synchronized (processed) {
+            processed.put(file.toAbsolutePath().toString(), fileTime);
+            pruneProcessed();
+        }
+    }
+    
+    private void watchLoop() {
+        WatchService service = watchService;
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    scan();
+                    continue;
+                }
+                Path file = dir.resolve((Path) event.context());
+                if (isImageFile(file.getFileName().toString())) {
+                    executor.execute(() -> track(file));
+                }
+            }
+            key.reset();
+        }
+    }
+    
+    private void scanDirectory(Path dir) {
+        long scanStart = System.currentTimeMillis();
+        Long previousScan = lastScanStarted.get(dir);
+        long cutoff = scanStart - maxAgeMillis;
+        try {
+            if (previousScan != null) {
+                // New entries bump the directory's modification time; nothing to do if it has not moved
+                if (Files.getLastModifiedTime(dir).toMillis() < previousScan - TIMESTAMP_SLACK_MS) {
+                    lastScanStarted.put(dir, scanStart);
+                    return;
+                }
+                cutoff = Math.max(cutoff, previousScan - TIMESTAMP_SLACK_MS);
+            }
+            
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir,
+                    entry -> isImageFile(entry.getFileName().toString()))) {
+                for (Path file : stream) {
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (attrs.isRegularFile() && fileTime(attrs) >= cutoff) {
+                        track(file);
+                    }
+                }
+            }
+            lastScanStarted.put(dir, scanStart);
+        } catch (IOException e) {
+            System.err.println("Error scanning directory " + dir + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Start observing a candidate file until it is stable
+     */
+    private void track(Path file) {
+        if (isProcessed(file)) {
+            return;
+        }
+        pending.putIfAbsent(file, new FileState(-1, -1));
+        if (stabilityCheck == null) {
+            stabilityCheck = executor.scheduleWithFixedDelay(this::checkPending,
+                STABILITY_CHECK_MS, STABILITY_CHECK_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void checkPending() {
+        Iterator<Map.Entry<Path, FileState>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, FileState> entry = it.next();
+            Path file = entry.getKey();
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Deleted or renamed before it finished writing
+                it.remove();
+                continue;
+            }
+            FileState current = new FileState(attrs.size(), attrs.lastModifiedTime().toMillis());
+            if (current.size > 0 && current.equals(entry.getValue())) {
+                it.remove();
+                long fileTime = fileTime(attrs);
+                if (fileTime >= System.currentTimeMillis() - maxAgeMillis && !isProcessed(file)) {
+                    markProcessed(file, fileTime);
+                    try {
+                        onScreenshot.accept(file);
+                    } catch (RuntimeException e) {
+                        System.err.println("Failed to process screenshot " + file + ": " + e.getMessage());
+                    }
+                }
+            } else {
+                entry.setValue(current);
+            }
+        }
+        
+        if (pending.isEmpty() && stabilityCheck != null) {
+            stabilityCheck.cancel(false);
+            stabilityCheck = null;
+        }
+    }
+    
+    private boolean isProcessed(Path file) {
+        synchronized (processed) {
+            return processed.containsKey(file.toAbsolutePath().toString());
+        }
+    }
+    
+    /**
+     * Drop entries too old to be imported again, then the oldest beyond the size cap
+     */
+    private void pruneProcessed() {
+        long cutoff = System.currentTimeMillis() - maxAgeMillis - TIMESTAMP_SLACK_MS;
+        processed.values().removeIf(time -> time < cutoff);
+        Iterator<String> oldest = processed.keySet().iterator();
+        while (processed.size() > MAX_PROCESSED && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+    
+    private static long fileTime(BasicFileAttributes attrs) {
+        return Math.max(attrs.creationTime().toMillis(), attrs.lastModifiedTime().toMillis());
+    }
+    
+    private static final class FileState {
+        private final long size;
+        private final long modified;
+        
+        FileState(long size, long modified) {
+            this.size = size;
+            this.modified = modified;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileState)) {
+                return false;
+            }
+            FileState other = (FileState) o;
+            return size == other.size && modified == other.modified;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(modified);
+        }
+    }
+}
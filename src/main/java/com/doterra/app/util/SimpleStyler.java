@@ -2,9 +2,9 @@ package com.doterra.app.util;
 
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBase;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
-import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.BorderPane;
@@ -61,7 +61,7 @@ public class SimpleStyler {
         button.setStyle(NAV_BUTTON_STYLE);
     }
     
-    public static void styleCssInspectorButton(ToggleButton button) {
+    public static void styleCssInspectorButton(ButtonBase button) {
         button.setStyle(CSS_INSPECTOR_NORMAL_STYLE);
     }
     
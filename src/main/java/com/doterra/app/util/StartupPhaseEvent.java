@@ -0,0 +1,26 @@
+package com.doterra.app.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted for every phase recorded by {@link StartupTimeline}.
+ * The event duration is the phase itself; when it started relative to launch is a separate field.
+ */
+@Name("com.doterra.app.StartupPhase")
+@Label("Startup Phase")
+@Category({"doTERRA App", "Startup"})
+@Description("A named phase of application startup")
+class StartupPhaseEvent extends Event {
+    
+    @Label("Phase")
+    String phase;
+    
+    @Label("Since Launch")
+    @Timespan(Timespan.NANOSECONDS)
+    long sinceLaunch;
+}
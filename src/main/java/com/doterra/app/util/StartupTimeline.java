@@ -0,0 +1,197 @@
+package com.doterra.app.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Named phases of application startup, timed with {@link System#nanoTime()} from launch.
+ * Enabled with {@code -Ddoterra.startupTrace=true}; otherwise every call is a no-op.
+ *
+ * <p>Each phase is emitted as a {@link StartupPhaseEvent} for JFR. Once {@link #finish()} has been
+ * called (after the first frame) and every phase has ended, including background loads still
+ * running at the first frame, a report is printed and written to {@code data/startup_report.txt}.
+ * Phases begun after the report are ignored.</p>
+ */
+public final class StartupTimeline {
+    public static final String ENABLED_PROPERTY = "doterra.startupTrace";
+    private static final Path REPORT_FILE = Paths.get("data", "startup_report.txt");
+    
+    // Created when the class is first used, which is the first line of main
+    private static final StartupTimeline INSTANCE =
+        Boolean.getBoolean(ENABLED_PROPERTY) ? new StartupTimeline(System.nanoTime(), REPORT_FILE) : null;
+    private static final Phase NO_PHASE = new Phase(null, null, 0);
+    
+    private final long originNanos;
+    private final Path reportFile;
+    private final List<Phase> phases = new ArrayList<>();
+    private int openPhases;
+    private boolean finishing;
+    private String report;
+    
+    /**
+     * @param originNanos {@link System#nanoTime()} at launch
+     * @param reportFile Where the report is written, or null to only print it
+     */
+    StartupTimeline(long originNanos, Path reportFile) {
+        this.originNanos = originNanos;
+        this.reportFile = reportFile;
+    }
+    
+    public static boolean isEnabled() {
+        return INSTANCE != null;
+    }
+    
+    /**
+     * Start timing a phase; end it with {@link Phase#end()} or try-with-resources, on any thread
+     */
+    public static Phase begin(String name) {
+        return INSTANCE != null ? INSTANCE.beginPhase(name) : NO_PHASE;
+    }
+    
+    /**
+     * Record an instant, such as the window being shown
+     */
+    public static void mark(String name) {
+        begin(name).end();
+    }
+    
+    /**
+     * Startup is done once the phases still running have ended; call after the first frame
+     */
+    public static void finish() {
+        if (INSTANCE != null) {
+            INSTANCE.finishTimeline();
+        }
+    }
+    
+    Phase beginPhase(String name) {
+        synchronized (this) {
+            if (report != null) {
+                return NO_PHASE;
+            }
+            Phase phase = new Phase(this, name, System.nanoTime());
+            phases.add(phase);
+            openPhases++;
+            return phase;
+        }
+    }
+    
+    void finishTimeline() {
+        String written;
+        synchronized (this) {
+            finishing = true;
+            written = takeReport();
+        }
+        writeReport(written);
+    }
+    
+    /**
+     * @return The report, or null until startup is finished
+     */
+    synchronized String getReport() {
+        return report;
+    }
+    
+    private void phaseEnded() {
+        String written;
+        synchronized (this) {
+            openPhases--;
+            written = takeReport();
+        }
+        writeReport(written);
+    }
+    
+    /**
+     * @return The report if startup has just finished, otherwise null
+     */
+    private String takeReport() {
+        if (!finishing || openPhases > 0 || report != null) {
+            return null;
+        }
+        List<Phase> ordered = new ArrayList<>(phases);
+        ordered.sort(Comparator.comparingLong(phase -> phase.startNanos));
+        
+        StringBuilder text = new StringBuilder("Startup timeline (ms from launch)\n");
+        text.append(String.format("%10s %10s  %s%n", "start", "duration", "phase"));
+        long lastEnd = originNanos;
+        for (Phase phase : ordered) {
+            text.append(String.format("%10.1f %10.1f  %s%n",
+                millis(phase.startNanos - originNanos), millis(phase.endNanos - phase.startNanos), phase.name));
+            lastEnd = Math.max(lastEnd, phase.endNanos);
+        }
+        text.append(String.format("Finished after %.1f ms%n", millis(lastEnd - originNanos)));
+        report = text.toString();
+        return report;
+    }
+    
+    private void writeReport(String written) {
+        if (written == null) {
+            return;
+        }
+        System.out.print(written);
+        if (reportFile == null) {
+            return;
+        }
+        try {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            Files.writeString(reportFile, written);
+        } catch (IOException e) {
+            System.err.println("Error writing startup report: " + e.getMessage());
+        }
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+    
+    /**
+     * A phase being timed; ending it again has no effect
+     */
+    public static final class Phase implements AutoCloseable {
+        private final StartupTimeline timeline;
+        private final String name;
+        private final long startNanos;
+        private final StartupPhaseEvent event;
+        private long endNanos = -1;
+        
+        private Phase(StartupTimeline timeline, String name, long startNanos) {
+            this.timeline = timeline;
+            this.name = name;
+            this.startNanos = startNanos;
+            if (timeline != null) {
+                event = new StartupPhaseEvent();
+                event.phase = name;
+                event.sinceLaunch = startNanos - timeline.originNanos;
+                event.begin();
+            } else {
+                event = null;
+            }
+        }
+        
+        public void end() {
+            if (timeline == null) {
+                return;
+            }
+            synchronized (timeline) {
+                if (endNanos >= 0) {
+                    return;
+                }
+                endNanos = System.nanoTime();
+            }
+            event.commit();
+            timeline.phaseEnded();
+        }
+        
+        @Override
+        public void close() {
+            end();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.doterra.app.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index from words to items, for instant filtering while typing.
+ *
+ * <p>Each query word matches any indexed word it is a prefix of, and an item matches a query
+ * when every query word matches one of its words. Items are re-indexed one at a time with
+ * {@link #put(Object, Collection)}, so edits never rebuild the whole index. Not thread-safe.</p>
+ * @param <T> Indexed item; compared with equals/hashCode
+ */
+public final class TextIndex<T> {
+    
+    // Sorted so all words starting with a prefix are one contiguous range
+    private final TreeMap<String, Set<T>> postings = new TreeMap<>();
+    private final Map<T, Set<String>> wordsByItem = new HashMap<>();
+    
+    /**
+     * Split text into lowercase words of letters and digits
+     */
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+    
+    /**
+     * Index an item under the given words, replacing whatever it was indexed under before
+     */
+    public void put(T item, Collection<String> words) {
+        remove(item);
+        Set<String> unique = new HashSet<>(words);
+        if (unique.isEmpty()) {
+            return;
+        }
+        wordsByItem.put(item, unique);
+        for (String word : unique) {
+            postings.computeIfAbsent(word, w -> new HashSet<>()).add(item);
+        }
+    }
+    
+    public void remove(T item) {
+        Set<String> words = wordsByItem.remove(item);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<T> items = postings.get(word);
+            items.remove(item);
+            if (items.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+    
+    public void clear() {
+        postings.clear();
+        wordsByItem.clear();
+    }
+    
+    /**
+     * Find the items matching every word of the query
+     * @return Matching items; empty if the query has no words
+     */
+    public Set<T> search(String query) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<T> result = null;
+        for (String word : queryWords) {
+            Set<T> matches = new LinkedHashSet<>();
+            // Every indexed word starting with the query word sorts between it and word + MAX_VALUE
+            for (Set<T> items : postings.subMap(word, word + Character.MAX_VALUE).values()) {
+                matches.addAll(items);
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * @return Number of indexed items
+     */
+    public int size() {
+        return wordsByItem.size();
+    }
+}
@@ -0,0 +1,179 @@
+package com.doterra.app.util;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Builds small thumbnails of blob-stored images on background threads and caches them on disk.
+ *
+ * <p>Source images are decoded with ImageIO source subsampling ({@link ImageDecoder}), so a 4K screenshot is never fully
+ * decoded just to draw a small tile. Finished thumbnails are written as PNGs named after the blob
+ * hash and size; later requests, including after a restart, only load that small file.</p>
+ */
+public final class ThumbnailCache {
+    
+    private final BlobStore blobs;
+    private final Path cacheDir;
+    private final int size;
+    private final ExecutorService executor;
+    
+    // One build per blob at a time, however many tiles ask for it
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    
+    // Recently shown thumbnails, so scrolling back does not reload them; bounded to a few screens
+    private static final int RECENT_IMAGES = 64;
+    private final Map<String, Image> recentImages = new LinkedHashMap<>(RECENT_IMAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > RECENT_IMAGES;
+        }
+    };
+    
+    /**
+     * @param blobs Store holding the source images
+     * @param cacheDir Directory for cached thumbnail files
+     * @param size Maximum thumbnail width and height in pixels
+     */
+    public ThumbnailCache(BlobStore blobs, Path cacheDir, int size) {
+        this.blobs = blobs;
+        this.cacheDir = cacheDir;
+        this.size = size;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName("Thumbnail-Thread-" + threadCount.incrementAndGet());
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+    
+    /**
+     * Load a thumbnail and hand it to the callback on the JavaFX thread; call from the JavaFX thread.
+     * Recently shown thumbnails are handed over immediately, others are loaded in the background.
+     * @param blobHash Hash of the source image
+     * @param onLoaded Receives the thumbnail image
+     */
+    public void load(String blobHash, Consumer<Image> onLoaded) {
+        Image recent = recentImages.get(blobHash);
+        if (recent != null) {
+            onLoaded.accept(recent);
+            return;
+        }
+        thumbnailFor(blobHash).thenAcceptAsync(file -> {
+            // The cached file is small, so decoding it here is cheap
+            Image image = new Image(file.toUri().toString());
+            Platform.runLater(() -> {
+                recentImages.put(blobHash, image);
+                onLoaded.accept(image);
+            });
+        }, executor).exceptionally(error -> {
+            System.err.println("Failed to create thumbnail for " + blobHash + ": " + error.getMessage());
+            return null;
+        });
+    }
+    
+    /**
+     * Get the cached thumbnail file for a blob, building it in the background if needed
+     * @param blobHash Hash of the source image
+     * @return A future completing with the thumbnail PNG file
+     */
+    public CompletableFuture<Path> thumbnailFor(String blobHash) {
+        Path cached = cachedPath(blobHash);
+        if (Files.exists(cached)) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Path> future = inFlight.computeIfAbsent(blobHash, hash ->
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return buildThumbnail(hash, cached);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        future.whenComplete((file, error) -> inFlight.remove(blobHash, future));
+        return future;
+    }
+    
+    /**
+     * Remove a blob's cached thumbnail, e.g. when its image is deleted
+     */
+    public void evict(String blobHash) {
+        recentImages.remove(blobHash);
+        deleteCached(blobHash);
+    }
+    
+    /**
+     * Delete a blob's cached thumbnail file, leaving any copy in memory to age out; safe to call
+     * off the JavaFX thread
+     */
+    public void deleteCached(String blobHash) {
+        try {
+            Files.deleteIfExists(cachedPath(blobHash));
+        } catch (IOException e) {
+            System.err.println("Failed to delete thumbnail " + blobHash + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Drop the recently shown thumbnails from memory; they are loaded again from disk when needed
+     */
+    public void clearRecent() {
+        recentImages.clear();
+    }
+    
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private Path cachedPath(String blobHash) {
+        return cacheDir.resolve(blobHash + "-" + size + ".png");
+    }
+    
+    private Path buildThumbnail(String blobHash, Path target) throws IOException {
+        // Keep at least twice the thumbnail size for a smooth downscale
+        BufferedImage source = ImageDecoder.readScaled(blobs.pathOf(blobHash), size * 2);
+        
+        double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        
+        // Write under a temp name first so a half-written file is never picked up as cached
+        Files.createDirectories(cacheDir);
+        Path tempFile = Files.createTempFile(cacheDir, blobHash, ".tmp");
+        try {
+            ImageIO.write(thumbnail, "png", tempFile.toFile());
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return target;
+    }
+}
\ No newline at end of file
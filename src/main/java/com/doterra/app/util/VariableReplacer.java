@@ -11,6 +11,7 @@ import javafx.scene.text.TextFlow;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Font;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -27,8 +28,179 @@ import java.util.regex.Pattern;
  */
 public class VariableReplacer {
     
-    // Pattern to match (variable) but not \(escaped)
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("(?<!\\\\)\\(([^)]+)\\)");
+    /**
+     * A script split once into literal text, escaped parentheses and variables, so it can be
+     * rendered with any set of values in a single pass. Immutable; ScriptButton caches one per content.
+     */
+    public static final class ParsedScript {
+        private static final byte LITERAL = 0;
+        private static final byte ESCAPED_PAREN = 1;
+        private static final byte VARIABLE = 2;
+        
+        private final String source;
+        private final byte[] kinds;
+        // Literal text, the escaped parenthesis, or the variable name, per segment
+        private final String[] texts;
+        private final List<String> variables;
+        private final int sourceLength;
+        
+        private ParsedScript(String source, byte[] kinds, String[] texts, List<String> variables) {
+            this.source = source;
+            this.kinds = kinds;
+            this.texts = texts;
+            this.variables = variables;
+            this.sourceLength = source == null ? 0 : source.length();
+        }
+        
+        /**
+         * @return The content this was parsed from
+         */
+        public String getSource() {
+            return source;
+        }
+        
+        /**
+         * @return Unique variable names in order of first appearance
+         */
+        public List<String> getVariables() {
+            return variables;
+        }
+        
+        public boolean hasVariables() {
+            return !variables.isEmpty();
+        }
+        
+        /**
+         * Render for display: variables with a non-blank value are replaced, others stay as
+         * (name), and escaped parentheses keep their backslash
+         */
+        public String render(Map<String, String> values) {
+            return render(values, false);
+        }
+        
+        /**
+         * Render for the clipboard: like {@link #render(Map)} but escaped parentheses lose their backslash
+         */
+        public String renderForClipboard(Map<String, String> values) {
+            return render(values, true);
+        }
+        
+        private String render(Map<String, String> values, boolean forClipboard) {
+            if (source == null) {
+                return null;
+            }
+            StringBuilder out = new StringBuilder(sourceLength + 16);
+            for (int i = 0; i < kinds.length; i++) {
+                String text = texts[i];
+                switch (kinds[i]) {
+                    case ESCAPED_PAREN:
+                        if (!forClipboard) {
+                            out.append('\\');
+                        }
+                        out.append(text);
+                        break;
+                    case VARIABLE:
+                        String value = values.get(text);
+                        if (value != null && !value.trim().isEmpty()) {
+                            out.append(value);
+                        } else {
+                            // Unfilled variables stay visible so the script can be completed by hand
+                            out.append('(').append(forClipboard ? unescape(text) : text).append(')');
+                        }
+                        break;
+                    default:
+                        out.append(text);
+                        break;
+                }
+            }
+            return out.toString();
+        }
+    }
+    
+    private static final ParsedScript EMPTY = new ParsedScript(null, new byte[0], new String[0], List.of());
+    
+    /**
+     * Split content into segments in one pass. A variable is text in parentheses; \\( and \\) are
+     * literal parentheses, including inside a variable name.
+     * 
+     * @param content The script content, may be null
+     * @return The parsed script
+     */
+    public static ParsedScript parse(String content) {
+        if (content == null) {
+            return EMPTY;
+        }
+        List<Byte> kinds = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        Set<String> variables = new LinkedHashSet<>();
+        int length = content.length();
+        int literalStart = 0;
+        int i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c == '\\' && i + 1 < length && isParen(content.charAt(i + 1))) {
+                addLiteral(content, literalStart, i, kinds, texts);
+                kinds.add(ParsedScript.ESCAPED_PAREN);
+                texts.add(String.valueOf(content.charAt(i + 1)));
+                i += 2;
+                literalStart = i;
+                continue;
+            }
+            if (c == '(') {
+                int close = findClosingParen(content, i + 1);
+                if (close > i + 1) {
+                    addLiteral(content, literalStart, i, kinds, texts);
+                    String name = content.substring(i + 1, close);
+                    kinds.add(ParsedScript.VARIABLE);
+                    texts.add(name);
+                    variables.add(name);
+                    i = close + 1;
+                    literalStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+        addLiteral(content, literalStart, length, kinds, texts);
+        
+        byte[] kindArray = new byte[kinds.size()];
+        for (int k = 0; k < kindArray.length; k++) {
+            kindArray[k] = kinds.get(k);
+        }
+        return new ParsedScript(content, kindArray, texts.toArray(new String[0]),
+            Collections.unmodifiableList(new ArrayList<>(variables)));
+    }
+    
+    private static boolean isParen(char c) {
+        return c == '(' || c == ')';
+    }
+    
+    /**
+     * @return Index of the first unescaped ')' at or after {@code from}, or -1
+     */
+    private static int findClosingParen(String content, int from) {
+        int length = content.length();
+        for (int j = from; j < length; j++) {
+            char c = content.charAt(j);
+            if (c == '\\' && j + 1 < length && isParen(content.charAt(j + 1))) {
+                j++;
+            } else if (c == ')') {
+                return j;
+            }
+        }
+        return -1;
+    }
+    
+    private static void addLiteral(String content, int start, int end, List<Byte> kinds, List<String> texts) {
+        if (end > start) {
+            kinds.add(ParsedScript.LITERAL);
+            texts.add(content.substring(start, end));
+        }
+    }
+    
+    private static String unescape(String text) {
+        return text.indexOf('\\') < 0 ? text : text.replace("\\(", "(").replace("\\)", ")");
+    }
     
     /**
      * Finds all unique variables in the given content.
@@ -37,16 +209,7 @@ public class VariableReplacer {
      * @return List of unique variable names (without parentheses)
      */
     public static List<String> findVariables(String content) {
-        List<String> variables = new ArrayList<>();
-        Set<String> uniqueVariables = new LinkedHashSet<>();
-        Matcher matcher = VARIABLE_PATTERN.matcher(content);
-        
-        while (matcher.find()) {
-            uniqueVariables.add(matcher.group(1));
-        }
-        
-        variables.addAll(uniqueVariables);
-        return variables;
+        return new ArrayList<>(parse(content).getVariables());
     }
     
     /**
@@ -63,42 +226,23 @@ public class VariableReplacer {
         if (content == null || content.isEmpty()) {
             return content;
         }
-        
-        // First, handle escaped parentheses by temporarily replacing them
-        String tempContent = content.replace("\\(", "ESCAPED_OPEN_PAREN").replace("\\)", "ESCAPED_CLOSE_PAREN");
-        
-        List<String> variables = findVariables(tempContent);
-        
-        if (variables.isEmpty()) {
-            // No variables found, restore escaped parentheses with backslashes for display
-            return tempContent.replace("ESCAPED_OPEN_PAREN", "\\(").replace("ESCAPED_CLOSE_PAREN", "\\)");
-        }
-        
-        // Prompt user for all variables in a single dialog
-        Map<String, String> variableValues = promptForAllVariables(variables, scriptName, content);
-        if (variableValues == null) {
-            // User cancelled, return null to indicate cancellation
-            return null;
-        }
-        
-        String result = tempContent;
-        
-        // Replace all variables with their values
-        for (String variable : variables) {
-            String replacement = variableValues.get(variable);
-            if (replacement != null && !replacement.trim().isEmpty()) {
-                // Replace ALL occurrences of this variable with the provided value
-                result = result.replaceAll("(?<!\\\\)\\(" + Pattern.quote(variable) + "\\)", 
-                                          Matcher.quoteReplacement(replacement));
-            }
-            // If replacement is null or empty, keep the literal variable text (variable)
-            // This allows users to see and edit templates by leaving variables unfilled
+        ParsedScript script = parse(content);
+        Map<String, String> values = promptForValues(script, scriptName);
+        return values == null ? null : script.render(values);
+    }
+    
+    /**
+     * Prompts for the values of a parsed script's variables, if it has any.
+     * 
+     * @param script The parsed script
+     * @param scriptName The name of the script (for the dialog title)
+     * @return Variable values, empty if there are no variables, or null if the user cancelled
+     */
+    public static Map<String, String> promptForValues(ParsedScript script, String scriptName) {
+        if (!script.hasVariables()) {
+            return Collections.emptyMap();
         }
-        
-        // Restore escaped parentheses with backslashes for display
-        result = result.replace("ESCAPED_OPEN_PAREN", "\\(").replace("ESCAPED_CLOSE_PAREN", "\\)");
-        
-        return result;
+        return promptForAllVariables(script.getVariables(), scriptName, script.getSource());
     }
     
     /**
@@ -112,9 +256,7 @@ public class VariableReplacer {
         if (processedContent == null || processedContent.isEmpty()) {
             return processedContent;
         }
-        
-        // Simply remove backslashes from escaped parentheses
-        return processedContent.replace("\\(", "(").replace("\\)", ")");
+        return parse(processedContent).renderForClipboard(Collections.emptyMap());
     }
     
     /**
@@ -338,9 +480,6 @@ public class VariableReplacer {
         if (content == null || content.isEmpty()) {
             return false;
         }
-        
-        // Temporarily handle escaped parentheses
-        String tempContent = content.replace("\\(", "ESCAPED_OPEN_PAREN").replace("\\)", "ESCAPED_CLOSE_PAREN");
-        return VARIABLE_PATTERN.matcher(tempContent).find();
+        return parse(content).hasVariables();
     }
 }
\ No newline at end of file
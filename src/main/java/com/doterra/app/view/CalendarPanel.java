@@ -15,6 +15,8 @@ import javafx.scene.text.FontWeight;
 import javafx.util.Callback;
 import javafx.util.Duration;
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
@@ -24,6 +26,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.KeyValueStore;
 
 public class CalendarPanel extends BorderPane {
     
@@ -38,6 +41,8 @@ public class CalendarPanel extends BorderPane {
     // Store notes for each date
     private Map<LocalDate, String> dateNotes = new HashMap<>();
     private static final String NOTES_FILE = "data/calendar_notes.dat";
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String STORE_NAMESPACE = "calendar_notes";
     
     public CalendarPanel(TodoPanel todoPanel) {
         this.todoPanel = todoPanel;
@@ -641,24 +646,25 @@ public class CalendarPanel extends BorderPane {
     }
     
     /**
-     * Load notes from file asynchronously
+     * Load notes from the store asynchronously
      */
     private void loadNotesAsync() {
-        AsyncFileOperations.loadAsync(
+        AsyncFileOperations.loadAsync("calendar-notes",
             () -> {
                 // This runs on background thread
-                File file = new File(NOTES_FILE);
-                if (file.exists()) {
-                    try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                        @SuppressWarnings("unchecked")
-                        Map<LocalDate, String> loadedNotes = (Map<LocalDate, String>) ois.readObject();
-                        return loadedNotes;
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        return new HashMap<LocalDate, String>();
+                Map<LocalDate, String> loadedNotes = new HashMap<>();
+                try {
+                    KeyValueStore.Namespace store = openNotesStore();
+                    for (String key : store.keys()) {
+                        String note = store.get(key);
+                        if (note != null) {
+                            loadedNotes.put(LocalDate.parse(key), note);
+                        }
                     }
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
-                return new HashMap<LocalDate, String>();
+                return loadedNotes;
             },
             (loadedNotes) -> {
                 // This runs on JavaFX thread
@@ -675,27 +681,47 @@ public class CalendarPanel extends BorderPane {
     }
     
     /**
-     * Save notes to file with debouncing
+     * Save notes with debouncing; each date is its own record, so only edited dates are written
      */
     private void saveNotes() {
-        AsyncFileOperations.debouncedSave("calendar-notes", 500, () -> {
+        AsyncFileOperations.debouncedSave("calendar-notes", 500, () -> new HashMap<>(dateNotes), notes -> {
             try {
-                // Ensure parent directory exists
-                File file = new File(NOTES_FILE);
-                File parentDir = file.getParentFile();
-                if (parentDir != null && !parentDir.exists()) {
-                    parentDir.mkdirs();
-                }
-                
-                try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(NOTES_FILE))) {
-                    oos.writeObject(dateNotes);
-                }
+                writeNotes(openNotesStore(), notes);
             } catch (Exception e) {
                 e.printStackTrace();
             }
         });
     }
     
+    /**
+     * Open the notes namespace, importing the old whole-file notes the first time
+     */
+    private static KeyValueStore.Namespace openNotesStore() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(STORE_NAMESPACE, Paths.get(NOTES_FILE), (file, store) -> {
+            @SuppressWarnings("unchecked")
+            Map<LocalDate, String> legacyNotes = (Map<LocalDate, String>) KeyValueStore.readLegacyFile(file);
+            if (legacyNotes != null) {
+                writeNotes(store, legacyNotes);
+            }
+        });
+    }
+    
+    private static void writeNotes(KeyValueStore.Namespace store, Map<LocalDate, String> notes) throws IOException {
+        KeyValueStore.WriteBatch batch = new KeyValueStore.WriteBatch();
+        Set<String> liveKeys = new HashSet<>();
+        for (Map.Entry<LocalDate, String> note : notes.entrySet()) {
+            String key = note.getKey().toString();
+            liveKeys.add(key);
+            batch.put(key, note.getValue());
+        }
+        for (String key : store.keys()) {
+            if (!liveKeys.contains(key)) {
+                batch.delete(key);
+            }
+        }
+        store.commit(batch);
+    }
+    
     /**
      * Cleanup method to stop timers and remove listeners
      */
@@ -0,0 +1,344 @@
+package com.doterra.app.view;
+
+import com.doterra.app.controller.ButtonController;
+import com.doterra.app.model.ButtonTab;
+import com.doterra.app.model.NavigationSection;
+import com.doterra.app.model.ScriptButton;
+import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.FuzzyIndex;
+import com.doterra.app.util.KeyValueStore;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Ctrl+K palette that fuzzy-matches scripts, tabs, panels, regex templates and sticky notes.
+ *
+ * <p>Every source keeps its entries in one {@link FuzzyIndex}. When the palette opens, each source
+ * compares a cheap version stamp with the one it was indexed at and rebuilds only its own entries
+ * if they changed; saved files are re-read in the background only when their modification time
+ * moved. The window is built once and reused, so opening it does no layout or index work beyond
+ * that check.</p>
+ */
+class CommandPalette {
+    private static final int MAX_RESULTS = 20;
+    
+    private final FuzzyIndex<Command> index = new FuzzyIndex<>();
+    private final List<Source> sources = new ArrayList<>();
+    private final TextField queryField = new TextField();
+    private final ListView<FuzzyIndex.Match<Command>> resultList = new ListView<>();
+    private final VBox content = new VBox(6, queryField, resultList);
+    private Stage stage;
+    
+    /**
+     * An entry in the palette: what it is, where it lives, and what picking it does
+     */
+    private static final class Command {
+        private final String kind;
+        private final String detail;
+        private final Runnable action;
+        
+        Command(String kind, String detail, Runnable action) {
+            this.kind = kind;
+            this.detail = detail;
+            this.action = action;
+        }
+    }
+    
+    /**
+     * A group of commands rebuilt together when its version changes
+     */
+    private abstract static class Source {
+        private final String name;
+        private Object indexedVersion;
+        
+        Source(String name) {
+            this.name = name;
+        }
+        
+        /**
+         * Called on the JavaFX thread whenever the index is refreshed; must be cheap
+         */
+        abstract Object version();
+        
+        /**
+         * Called when the palette opens, to start any background check for changes
+         */
+        void poll() {
+        }
+        
+        abstract void build(FuzzyIndex.Builder<Command> builder);
+    }
+    
+    CommandPalette() {
+        queryField.setPromptText("Type to search scripts, tabs, panels, templates, notes...");
+        queryField.getStyleClass().add("command-palette-field");
+        resultList.getStyleClass().add("command-palette-results");
+        resultList.setFocusTraversable(false);
+        resultList.setPrefSize(520, 360);
+        resultList.setCellFactory(list -> new CommandCell());
+        resultList.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY) {
+                runSelected();
+            }
+        });
+        content.getStyleClass().add("command-palette");
+        
+        queryField.textProperty().addListener((obs, oldText, newText) -> updateResults());
+        queryField.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.DOWN) {
+                moveSelection(1);
+                e.consume();
+            } else if (e.getCode() == KeyCode.UP) {
+                moveSelection(-1);
+                e.consume();
+            } else if (e.getCode() == KeyCode.ENTER) {
+                runSelected();
+                e.consume();
+            } else if (e.getCode() == KeyCode.ESCAPE) {
+                hide();
+                e.consume();
+            }
+        });
+    }
+    
+    /**
+     * Add every script and tab of a button controller
+     * @param label Panel name shown with each entry, e.g. "Chat"
+     * @param runScript Runs a script given its tab id and button id
+     * @param showTab Shows a tab given its id
+     */
+    void addScripts(String label, ButtonController controller, BiConsumer<String, String> runScript,
+                    Consumer<String> showTab) {
+        sources.add(new Source("scripts:" + label) {
+            @Override
+            Object version() {
+                // Renamed tabs change the detail shown for their scripts without touching the search index
+                List<String> tabNames = new ArrayList<>();
+                for (ButtonTab tab : controller.getAllTabs()) {
+                    tabNames.add(tab.getName());
+                }
+                return List.of(controller.getSearchIndex().getModificationCount(), tabNames);
+            }
+            
+            @Override
+            void build(FuzzyIndex.Builder<Command> builder) {
+                for (ButtonTab tab : controller.getAllTabs()) {
+                    String tabId = tab.getId();
+                    builder.add(tab.getName(), new Command("Tab", label,
+                        () -> showTab.accept(tabId)));
+                    for (ScriptButton button : tab.getButtons()) {
+                        if (button != null) {
+                            String buttonId = button.getId();
+                            builder.add(button.getName(), new Command("Script", label + " · " + tab.getName(),
+                                () -> runScript.accept(tabId, buttonId)));
+                        }
+                    }
+                }
+            }
+        });
+    }
+    
+    /**
+     * Add one entry per navigation item
+     */
+    void addPanels(List<NavigationSection> sections, Consumer<String> showPanel) {
+        sources.add(new Source("panels") {
+            @Override
+            Object version() {
+                return sections.size();
+            }
+            
+            @Override
+            void build(FuzzyIndex.Builder<Command> builder) {
+                for (NavigationSection section : sections) {
+                    for (NavigationSection.NavigationItem item : section.getItems()) {
+                        String panelId = item.getPanelId();
+                        builder.add(item.getLabel(), new Command("Panel", section.getTitle(),
+                            () -> showPanel.accept(panelId)));
+                    }
+                }
+            }
+        });
+    }
+    
+    /**
+     * Add the items of a list saved in the key-value store, so panels that are not loaded yet can
+     * still be searched. Store commits are atomic, so the list is never read half-written.
+     * @param kind Shown with each entry, e.g. "Regex template"
+     * @param store Opens the namespace holding the list
+     * @param list The list's name in the namespace
+     * @param names Extracts id to name from the list's items; runs in the background
+     * @param open Opens an item given its id
+     */
+    void addSavedItems(String kind, Callable<KeyValueStore.Namespace> store, String list,
+                       Function<List<?>, Map<String, String>> names, Consumer<String> open) {
+        sources.add(new Source("saved:" + kind) {
+            private Map<String, String> loaded = Map.of();
+            // Only touched on the file I/O thread
+            private long loadedVersion = -1;
+            private boolean loading;
+            
+            @Override
+            Object version() {
+                return loaded;
+            }
+            
+            @Override
+            void poll() {
+                if (!loading) {
+                    loading = true;
+                    AsyncFileOperations.loadAsync("command-palette", () -> {
+                        KeyValueStore.Namespace namespace = store.call();
+                        long version = namespace.version();
+                        if (version == loadedVersion) {
+                            return null;
+                        }
+                        Map<String, String> items = names.apply(namespace.getList(list));
+                        loadedVersion = version;
+                        return items;
+                    }, items -> {
+                        loading = false;
+                        if (items != null) {
+                            loaded = items;
+                            refresh();
+                            updateResults();
+                        }
+                    }, error -> {
+                        loading = false;
+                        System.err.println("Failed to index saved " + kind + " items: " + error.getMessage());
+                    });
+                }
+            }
+            
+            @Override
+            void build(FuzzyIndex.Builder<Command> builder) {
+                for (Map.Entry<String, String> item : loaded.entrySet()) {
+                    String id = item.getKey();
+                    builder.add(item.getValue(), new Command(kind, "", () -> open.accept(id)));
+                }
+            }
+        });
+    }
+    
+    /**
+     * Re-index the sources whose version changed
+     */
+    void refresh() {
+        for (Source source : sources) {
+            Object version = source.version();
+            if (!Objects.equals(version, source.indexedVersion)) {
+                FuzzyIndex.Builder<Command> builder = FuzzyIndex.builder();
+                source.build(builder);
+                index.replaceSource(source.name, builder);
+                source.indexedVersion = version;
+            }
+        }
+    }
+    
+    void show(Window owner) {
+        if (stage == null) {
+            stage = new Stage(StageStyle.UNDECORATED);
+            stage.initOwner(owner);
+            Scene scene = new Scene(content);
+            scene.getStylesheets().addAll(owner.getScene().getStylesheets());
+            stage.setScene(scene);
+            stage.focusedProperty().addListener((obs, wasFocused, isFocused) -> {
+                if (!isFocused) {
+                    hide();
+                }
+            });
+        }
+        if (stage.isShowing()) {
+            return;
+        }
+        for (Source source : sources) {
+            source.poll();
+        }
+        refresh();
+        queryField.clear();
+        resultList.getItems().clear();
+        stage.setX(owner.getX() + (owner.getWidth() - resultList.getPrefWidth()) / 2);
+        stage.setY(owner.getY() + 80);
+        stage.show();
+        queryField.requestFocus();
+    }
+    
+    void hide() {
+        if (stage != null) {
+            stage.hide();
+        }
+    }
+    
+    private void updateResults() {
+        if (stage == null || !stage.isShowing()) {
+            return;
+        }
+        resultList.getItems().setAll(index.search(queryField.getText(), MAX_RESULTS));
+        resultList.getSelectionModel().selectFirst();
+    }
+    
+    private void moveSelection(int delta) {
+        int size = resultList.getItems().size();
+        if (size == 0) {
+            return;
+        }
+        int selected = Math.floorMod(resultList.getSelectionModel().getSelectedIndex() + delta, size);
+        resultList.getSelectionModel().select(selected);
+        resultList.scrollTo(selected);
+    }
+    
+    private void runSelected() {
+        FuzzyIndex.Match<Command> match = resultList.getSelectionModel().getSelectedItem();
+        if (match != null) {
+            hide();
+            match.getValue().action.run();
+        }
+    }
+    
+    private static final class CommandCell extends ListCell<FuzzyIndex.Match<Command>> {
+        private final Label name = new Label();
+        private final Label kind = new Label();
+        private final HBox box;
+        
+        CommandCell() {
+            kind.getStyleClass().add("script-search-source");
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            box = new HBox(8, name, spacer, kind);
+        }
+        
+        @Override
+        protected void updateItem(FuzzyIndex.Match<Command> item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+            } else {
+                Command command = item.getValue();
+                name.setText(item.getLabel());
+                kind.setText(command.detail.isEmpty() ? command.kind : command.kind + " · " + command.detail);
+                setGraphic(box);
+            }
+        }
+    }
+}
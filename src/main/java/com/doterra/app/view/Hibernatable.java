@@ -0,0 +1,77 @@
+package com.doterra.app.view;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.Skin;
+import javafx.scene.control.skin.VirtualFlow;
+
+/**
+ * A panel that can be released after it has been hidden for a while and rebuilt on the next visit.
+ * Its saved data is read again from disk, so the view state only covers what is not saved there:
+ * the open item, unsaved input, scroll and divider positions.
+ *
+ * @param <S> The panel's view state
+ */
+public interface Hibernatable<S> {
+    
+    /**
+     * @return Whether the panel can be released now, e.g. not while one of its windows is open or
+     *         it is doing work in the background
+     */
+    default boolean canHibernate() {
+        return true;
+    }
+    
+    /**
+     * Free what the panel can rebuild when it is shown again, such as images and cells; called,
+     * possibly repeatedly, instead of releasing a hidden panel that cannot hibernate now
+     */
+    default void trim() {
+    }
+    
+    /**
+     * Capture the view state before the panel is released
+     */
+    S saveViewState();
+    
+    /**
+     * Restore the view state of a released panel; called on a new panel right after it is built
+     */
+    void restoreViewState(S state);
+    
+    /**
+     * @return Index of the first row shown by a list or table, or 0 if it has not been laid out
+     */
+    static int firstVisibleIndex(Control list) {
+        Node flow = list.lookup(".virtual-flow");
+        if (flow instanceof VirtualFlow) {
+            IndexedCell<?> cell = ((VirtualFlow<?>) flow).getFirstVisibleCell();
+            if (cell != null) {
+                return cell.getIndex();
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Run an action once the control has its skin, e.g. to scroll a list that is not shown yet
+     */
+    static void whenSkinned(Control control, Runnable action) {
+        if (control.getSkin() != null) {
+            action.run();
+            return;
+        }
+        control.skinProperty().addListener(new ChangeListener<Skin<?>>() {
+            @Override
+            public void changed(ObservableValue<? extends Skin<?>> obs, Skin<?> oldSkin, Skin<?> newSkin) {
+                if (newSkin != null) {
+                    control.skinProperty().removeListener(this);
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.doterra.app.view;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Runs small JavaFX-thread tasks one per animation frame, for work that is not needed yet, such as
+ * building tabs or panels the user has not opened. A frame that follows a slow one is skipped, so the queue
+ * backs off while the application is busy and never stalls more than one frame in a row.
+ */
+public final class IdleWorkQueue {
+    // A frame gap above this means the application is busy (or a task just ran long)
+    private static final long BUSY_FRAME_NANOS = 50_000_000L;
+    
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        private long lastFrame;
+        
+        @Override
+        public void handle(long now) {
+            long previous = lastFrame;
+            lastFrame = now;
+            if (previous == 0 || now - previous > BUSY_FRAME_NANOS) {
+                return;
+            }
+            Runnable task = tasks.poll();
+            if (task == null) {
+                stop();
+                lastFrame = 0;
+                return;
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                System.err.println("Idle task failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    };
+    
+    /**
+     * Queue a task to run on a later frame; must be called on the JavaFX thread
+     */
+    public void add(Runnable task) {
+        tasks.add(task);
+        timer.start();
+    }
+    
+    /**
+     * Drop every task not yet run
+     */
+    public void clear() {
+        tasks.clear();
+    }
+}
@@ -0,0 +1,233 @@
+package com.doterra.app.view;
+
+import com.doterra.app.model.ImageNote;
+import com.doterra.app.util.HyperlinkButtonUtil;
+import com.doterra.app.util.ThumbnailCache;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Virtualized grid of image note thumbnails.
+ * Notes are grouped into rows that fit the current width and shown in a ListView, so tile nodes
+ * exist only for the visible rows and are recycled while scrolling; a recycled tile drops its
+ * old thumbnail, which keeps memory bounded however many notes there are.
+ */
+class ImageNoteGrid extends ListView<List<ImageNote>> {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final double TILE_GAP = 10;
+    // Tile padding and border around the image
+    private static final double TILE_CHROME = 12;
+    // Cell padding plus room for the vertical scroll bar
+    private static final double SCROLLBAR_ALLOWANCE = 30;
+    
+    private final ThumbnailCache thumbnails;
+    private final int tileSize;
+    private final List<ImageNote> notes = new ArrayList<>();
+    private int columns = 1;
+    
+    private Consumer<ImageNote> onOpen = note -> { };
+    private Consumer<ImageNote> onEditNote = note -> { };
+    private Consumer<ImageNote> onDelete = note -> { };
+    
+    ImageNoteGrid(ThumbnailCache thumbnails, int tileSize) {
+        this.thumbnails = thumbnails;
+        this.tileSize = tileSize;
+        getStyleClass().addAll("image-notes-scroll", "image-note-grid");
+        setFocusTraversable(false);
+        setCellFactory(list -> new RowCell());
+        widthProperty().addListener((obs, oldWidth, newWidth) -> updateColumns());
+    }
+    
+    /**
+     * Show a new list of notes; existing tile nodes are reused
+     */
+    void setNotes(List<ImageNote> newNotes) {
+        notes.clear();
+        notes.addAll(newNotes);
+        rebuildRows();
+    }
+    
+    void setOnOpen(Consumer<ImageNote> onOpen) {
+        this.onOpen = onOpen;
+    }
+    
+    void setOnEditNote(Consumer<ImageNote> onEditNote) {
+        this.onEditNote = onEditNote;
+    }
+    
+    void setOnDelete(Consumer<ImageNote> onDelete) {
+        this.onDelete = onDelete;
+    }
+    
+    private void updateColumns() {
+        double usableWidth = getWidth() - SCROLLBAR_ALLOWANCE;
+        int fit = Math.max(1, (int) ((usableWidth + TILE_GAP) / (tileSize + TILE_CHROME + TILE_GAP)));
+        if (fit != columns) {
+            columns = fit;
+            rebuildRows();
+        }
+    }
+    
+    private void rebuildRows() {
+        List<List<ImageNote>> rows = new ArrayList<>((notes.size() + columns - 1) / columns);
+        for (int i = 0; i < notes.size(); i += columns) {
+            rows.add(new ArrayList<>(notes.subList(i, Math.min(i + columns, notes.size()))));
+        }
+        getItems().setAll(rows);
+    }
+    
+    /**
+     * One row of tiles; the tiles are created once per cell and rebound as the cell is reused
+     */
+    private class RowCell extends ListCell<List<ImageNote>> {
+        private final HBox row = new HBox(TILE_GAP);
+        private final List<Tile> tiles = new ArrayList<>();
+        
+        RowCell() {
+            row.setAlignment(Pos.CENTER_LEFT);
+            getStyleClass().add("image-note-row");
+        }
+        
+        @Override
+        protected void updateItem(List<ImageNote> rowNotes, boolean empty) {
+            super.updateItem(rowNotes, empty);
+            if (empty || rowNotes == null) {
+                for (Tile tile : tiles) {
+                    tile.unbind();
+                }
+                setGraphic(null);
+                return;
+            }
+            
+            while (tiles.size() < rowNotes.size()) {
+                tiles.add(new Tile());
+            }
+            row.getChildren().clear();
+            for (int i = 0; i < tiles.size(); i++) {
+                Tile tile = tiles.get(i);
+                if (i < rowNotes.size()) {
+                    tile.bind(rowNotes.get(i));
+                    row.getChildren().add(tile.box);
+                } else {
+                    tile.unbind();
+                }
+            }
+            setGraphic(row);
+        }
+    }
+    
+    /**
+     * A reusable thumbnail tile
+     */
+    private class Tile {
+        private final VBox box = new VBox(5);
+        private final ImageView imageView = new ImageView();
+        private final Label timeLabel = new Label();
+        private final Label duplicateBadge = new Label("Duplicate");
+        private ImageNote note;
+        // Blob shown for the note; a merged duplicate keeps the note but swaps the image
+        private String blobHash;
+        
+        Tile() {
+            imageView.setFitWidth(tileSize);
+            imageView.setFitHeight(tileSize);
+            imageView.setPreserveRatio(true);
+            imageView.setSmooth(true);
+            
+            // Create a StackPane to layer the delete button over the image
+            StackPane imageContainer = new StackPane();
+            imageContainer.setPrefSize(tileSize, tileSize);
+            
+            Button deleteBtn = new Button("✕");
+            deleteBtn.getStyleClass().add("thumbnail-delete-btn");
+            HyperlinkButtonUtil.addSmoothHoverAnimation(deleteBtn);
+            deleteBtn.setVisible(false);
+            deleteBtn.setOnAction(e -> {
+                e.consume(); // Prevent event from propagating to image click
+                withNote(onDelete);
+            });
+            
+            // Position delete button in top-right
+            StackPane.setAlignment(deleteBtn, Pos.TOP_RIGHT);
+            StackPane.setMargin(deleteBtn, new Insets(5, 5, 0, 0));
+            
+            duplicateBadge.getStyleClass().add("thumbnail-duplicate-badge");
+            duplicateBadge.setMouseTransparent(true);
+            StackPane.setAlignment(duplicateBadge, Pos.TOP_LEFT);
+            StackPane.setMargin(duplicateBadge, new Insets(5, 0, 0, 5));
+            imageContainer.getChildren().addAll(imageView, duplicateBadge, deleteBtn);
+            
+            box.setAlignment(Pos.CENTER);
+            box.getStyleClass().add("image-thumbnail");
+            timeLabel.getStyleClass().add("thumbnail-time");
+            box.getChildren().addAll(imageContainer, timeLabel);
+            
+            // Show/hide delete button on hover
+            box.setOnMouseEntered(e -> deleteBtn.setVisible(true));
+            box.setOnMouseExited(e -> deleteBtn.setVisible(false));
+            
+            // Context menu
+            MenuItem viewItem = new MenuItem("View Full Size");
+            viewItem.setOnAction(e -> withNote(onOpen));
+            MenuItem noteItem = new MenuItem("Edit Note");
+            noteItem.setOnAction(e -> withNote(onEditNote));
+            MenuItem deleteItem = new MenuItem("Delete");
+            deleteItem.setOnAction(e -> withNote(onDelete));
+            ContextMenu contextMenu = new ContextMenu(viewItem, noteItem, new SeparatorMenuItem(), deleteItem);
+            
+            imageContainer.setOnMouseClicked(e -> {
+                if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 1) {
+                    withNote(onOpen);
+                } else if (e.getButton() == MouseButton.SECONDARY) {
+                    contextMenu.show(box, e.getScreenX(), e.getScreenY());
+                }
+            });
+        }
+        
+        void bind(ImageNote newNote) {
+            duplicateBadge.setVisible(newNote.getDuplicateOf() != null);
+            if (newNote == note && newNote.getBlobHash().equals(blobHash)) {
+                return;
+            }
+            note = newNote;
+            blobHash = newNote.getBlobHash();
+            timeLabel.setText(newNote.getTimestamp().format(DATE_FORMAT));
+            imageView.setImage(null);
+            thumbnails.load(newNote.getBlobHash(), image -> {
+                // The tile may have been recycled for another note while the thumbnail loaded
+                if (note == newNote && newNote.getBlobHash().equals(blobHash)) {
+                    imageView.setImage(image);
+                }
+            });
+        }
+        
+        void unbind() {
+            note = null;
+            blobHash = null;
+            imageView.setImage(null);
+        }
+        
+        private void withNote(Consumer<ImageNote> action) {
+            if (note != null) {
+                action.accept(note);
+            }
+        }
+    }
+}
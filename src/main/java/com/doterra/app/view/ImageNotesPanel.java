@@ -1,15 +1,22 @@
 package com.doterra.app.view;
 
 import com.doterra.app.model.ImageNote;
+import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.BkTree;
+import com.doterra.app.util.BlobStore;
 import com.doterra.app.util.HyperlinkButtonUtil;
+import com.doterra.app.util.KeyValueStore;
+import com.doterra.app.util.PerceptualHash;
+import com.doterra.app.util.ScreenshotScanner;
+import com.doterra.app.util.TextIndex;
+import com.doterra.app.util.ThumbnailCache;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
@@ -19,53 +26,112 @@ import javafx.stage.Stage;
 import javax.imageio.ImageIO;
 import java.io.*;
 import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
-public class ImageNotesPanel extends BorderPane {
+public class ImageNotesPanel extends BorderPane implements Hibernatable<ImageNotesPanel.ViewState> {
     private static final int THUMBNAIL_SIZE = 150;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String IMAGE_NOTES_FILE = "data/image_notes.dat";
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String STORE_NAMESPACE = "image_notes";
+    private static final String NOTES_LIST = "note";
+    private static final String PROCESSED_FILES_KEY = "processed_files";
+    private static final String DUPLICATE_MODE_KEY = "duplicate_mode";
+    
+    // Image bytes live here as one file per distinct image; notes only keep the hash
+    private static final BlobStore imageBlobs = new BlobStore(Paths.get("data", "image_blobs"));
+    
+    private final ThumbnailCache thumbnails = new ThumbnailCache(imageBlobs, Paths.get("data", "thumbnails"), THUMBNAIL_SIZE);
     
     private final List<ImageNote> imageNotes = new ArrayList<>();
-    private final Set<String> processedFiles = new HashSet<>();
-    private final TilePane thumbnailGrid;
-    private final ScrollPane scrollPane;
-    private WatchService watchService;
-    private Thread watchThread;
+    // Dropped while the panel is trimmed, with the first row it showed
+    private ImageNoteGrid thumbnailGrid;
+    private int trimmedFirstRow;
+    private final ScreenshotScanner screenshotScanner;
     private boolean isMonitoring = true;
+    private ToggleButton monitorToggle;
+    // Blobs no note uses any more; deleted once a save without them has been committed (FX thread only)
+    private final Set<String> releasedBlobs = new HashSet<>();
+    // Full-size image windows, which edit notes through this panel
+    private final List<Stage> imageWindows = new ArrayList<>();
+    
+    // Notes indexed by perceptual hash for near-duplicate lookup on import (FX thread only)
+    private final BkTree<ImageNote> similarImages = new BkTree<>();
+    private DuplicateMode duplicateMode = DuplicateMode.FLAG;
+    private ComboBox<DuplicateMode> duplicateModeBox;
+    
+    // Words from each note's text, file name and date, for filtering the grid (FX thread only)
+    private final TextIndex<ImageNote> searchIndex = new TextIndex<>();
+    private static final DateTimeFormatter SEARCH_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd MMMM EEEE");
+    private TextField searchField;
+    
+    /**
+     * What to do when an imported image is a near-duplicate of an existing note
+     */
+    private enum DuplicateMode {
+        FLAG("Flag"),
+        SKIP("Skip"),
+        MERGE("Merge");
+        
+        private final String label;
+        
+        DuplicateMode(String label) {
+            this.label = label;
+        }
+        
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
     
     // Common screenshot directories
     private final List<Path> screenshotDirs = new ArrayList<>();
     
     public ImageNotesPanel() {
+        this(readSavedState());
+    }
+    
+    /**
+     * @param saved Notes read by {@link #readSavedState()}, e.g. on a background thread, or null if none were saved
+     */
+    public ImageNotesPanel(SavedState saved) {
         getStyleClass().add("image-notes-panel");
         
         // Initialize screenshot directories
         initializeScreenshotDirectories();
+        // Only auto-import recent screenshots (created in last hour)
+        screenshotScanner = new ScreenshotScanner(screenshotDirs, TimeUnit.HOURS.toMillis(1), this::importScreenshot);
         
         // Create toolbar
         ToolBar toolbar = createToolbar();
         setTop(toolbar);
         
         // Create thumbnail grid
-        thumbnailGrid = new TilePane();
-        thumbnailGrid.setPadding(new Insets(10));
-        thumbnailGrid.setHgap(10);
-        thumbnailGrid.setVgap(10);
-        thumbnailGrid.setPrefColumns(5);
-        
-        scrollPane = new ScrollPane(thumbnailGrid);
-        scrollPane.setFitToWidth(true);
-        scrollPane.getStyleClass().add("image-notes-scroll");
-        setCenter(scrollPane);
+        createGrid();
         
-        // Load saved images
-        loadState();
+        // Show saved images
+        if (saved != null) {
+            applySavedState(saved);
+        }
         
-        // Start monitoring for screenshots
-        startScreenshotMonitoring();
+        // Start monitoring for screenshots once shown, not when built ahead of time
+        sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null) {
+                startScreenshotMonitoring();
+                restoreTrimmedGrid();
+            }
+        });
+    }
+    
+    private void createGrid() {
+        thumbnailGrid = new ImageNoteGrid(thumbnails, THUMBNAIL_SIZE);
+        thumbnailGrid.setOnOpen(this::showFullImage);
+        thumbnailGrid.setOnEditNote(this::editNote);
+        thumbnailGrid.setOnDelete(this::deleteImage);
+        setCenter(thumbnailGrid);
     }
     
     private void initializeScreenshotDirectories() {
@@ -91,9 +157,9 @@ public class ImageNotesPanel extends BorderPane {
         uploadButton.setOnAction(e -> uploadImage());
         
         Button refreshButton = HyperlinkButtonUtil.createHyperlinkButton("Refresh");
-        refreshButton.setOnAction(e -> checkForNewScreenshots());
+        refreshButton.setOnAction(e -> screenshotScanner.scan());
         
-        ToggleButton monitorToggle = new ToggleButton("Monitor Screenshots");
+        monitorToggle = new ToggleButton("Monitor Screenshots");
         monitorToggle.setSelected(isMonitoring);
         HyperlinkButtonUtil.styleAsHyperlinkToggleButton(monitorToggle);
         
@@ -113,6 +179,24 @@ public class ImageNotesPanel extends BorderPane {
             }
         });
         
+        duplicateModeBox = new ComboBox<>(FXCollections.observableArrayList(DuplicateMode.values()));
+        duplicateModeBox.setValue(duplicateMode);
+        duplicateModeBox.setTooltip(new Tooltip("What to do with near-duplicate screenshots"));
+        duplicateModeBox.setOnAction(e -> {
+            if (duplicateModeBox.getValue() != duplicateMode) {
+                duplicateMode = duplicateModeBox.getValue();
+                saveState();
+            }
+        });
+        Label duplicatesLabel = new Label("Duplicates:");
+        HBox duplicatesGroup = new HBox(5, duplicatesLabel, duplicateModeBox);
+        duplicatesGroup.setAlignment(Pos.CENTER_LEFT);
+        
+        searchField = new TextField();
+        searchField.setPromptText("Search notes, file names, dates...");
+        searchField.setPrefWidth(220);
+        searchField.textProperty().addListener((obs, oldText, newText) -> refreshGrid());
+        
         Label infoLabel = new Label("Images: " + imageNotes.size());
         
         Label monitoringLabel = new Label("Monitoring: " + screenshotDirs.size() + " directories");
@@ -124,130 +208,91 @@ public class ImageNotesPanel extends BorderPane {
         HBox monitorControlGroup = HyperlinkButtonUtil.createButtonGroup(5, monitorToggle);
         
         ToolBar toolbar = new ToolBar(imageActionsGroup, new Separator(), monitorControlGroup, 
+                                     new Separator(), duplicatesGroup, new Separator(), searchField,
                                      new Separator(), infoLabel, new Separator(), monitoringLabel);
         toolbar.getStyleClass().add("image-notes-toolbar");
         return toolbar;
     }
     
     private void startScreenshotMonitoring() {
-        if (!isMonitoring || screenshotDirs.isEmpty()) return;
+        if (!isMonitoring) return;
         
-        try {
-            watchService = FileSystems.getDefault().newWatchService();
-            
-            // Register all screenshot directories
-            for (Path dir : screenshotDirs) {
-                try {
-                    dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
-                } catch (IOException e) {
-                    System.err.println("Failed to register directory: " + dir + " - " + e.getMessage());
-                }
-            }
-            
-            // Initial scan for existing screenshots
-            checkForNewScreenshots();
-            
-            // Start watch thread
-            watchThread = new Thread(() -> {
-                while (isMonitoring) {
-                    try {
-                        WatchKey key = watchService.poll(1, TimeUnit.SECONDS);
-                        if (key != null) {
-                            for (WatchEvent<?> event : key.pollEvents()) {
-                                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
-                                    Path dir = (Path) key.watchable();
-                                    Path fullPath = dir.resolve((Path) event.context());
-                                    
-                                    // Check if it's an image file
-                                    String fileName = fullPath.getFileName().toString().toLowerCase();
-                                    if (isImageFile(fileName)) {
-                                        // Wait a bit for file to be fully written
-                                        Thread.sleep(500);
-                                        Platform.runLater(() -> processScreenshot(fullPath));
-                                    }
-                                }
-                            }
-                            key.reset();
-                        }
-                    } catch (InterruptedException e) {
-                        break;
-                    } catch (Exception e) {
-                        System.err.println("Error in watch service: " + e.getMessage());
-                    }
-                }
-            });
-            watchThread.setDaemon(true);
-            watchThread.start();
-            
-        } catch (IOException e) {
-            showError("Failed to start screenshot monitoring: " + e.getMessage());
-        }
+        // Watches for new files and runs an initial scan, all off the JavaFX thread
+        screenshotScanner.startWatching();
     }
     
     private void stopScreenshotMonitoring() {
         isMonitoring = false;
-        if (watchThread != null) {
-            watchThread.interrupt();
-        }
-        if (watchService != null) {
-            try {
-                watchService.close();
-            } catch (IOException e) {
-                System.err.println("Error closing watch service: " + e.getMessage());
-            }
-        }
+        screenshotScanner.stopWatching();
     }
     
-    private void checkForNewScreenshots() {
-        for (Path dir : screenshotDirs) {
-            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
-                for (Path file : stream) {
-                    if (Files.isRegularFile(file) && isImageFile(file.getFileName().toString())) {
-                        processScreenshot(file);
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Error scanning directory " + dir + ": " + e.getMessage());
-            }
+    /**
+     * Import a screenshot the scanner found; runs on the scanner thread, so only adding the note
+     * happens on the JavaFX thread
+     */
+    private void importScreenshot(Path file) {
+        try {
+            ImageNote imageNote = createImageNote(file);
+            Platform.runLater(() -> addImportedImage(imageNote));
+        } catch (IOException e) {
+            System.err.println("Failed to process screenshot " + file + ": " + e.getMessage());
         }
     }
     
-    private boolean isImageFile(String fileName) {
-        String lower = fileName.toLowerCase();
-        return lower.endsWith(".png") || lower.endsWith(".jpg") || 
-               lower.endsWith(".jpeg") || lower.endsWith(".gif") || 
-               lower.endsWith(".bmp");
+    /**
+     * Store an image file and hash it; runs off the JavaFX thread
+     */
+    private static ImageNote createImageNote(Path file) throws IOException {
+        String blobHash = imageBlobs.put(file);
+        Path blobFile = imageBlobs.pathOf(blobHash);
+        String mimeType = Files.probeContentType(file);
+        ImageNote imageNote = new ImageNote(blobHash, Files.size(blobFile), file.getFileName().toString(), mimeType);
+        imageNote.setPerceptualHash(computePerceptualHash(blobFile));
+        return imageNote;
     }
     
-    private void processScreenshot(Path file) {
-        String absolutePath = file.toAbsolutePath().toString();
-        
-        // Skip if already processed
-        if (processedFiles.contains(absolutePath)) {
-            return;
-        }
-        
+    private static Long computePerceptualHash(Path imageFile) {
         try {
-            // Check if file was created recently (within last hour)
-            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
-            long ageInMinutes = TimeUnit.MILLISECONDS.toMinutes(
-                System.currentTimeMillis() - attrs.creationTime().toMillis()
-            );
-            
-            // Only auto-import recent screenshots (created in last hour)
-            if (ageInMinutes <= 60) {
-                byte[] imageData = Files.readAllBytes(file);
-                String mimeType = Files.probeContentType(file);
-                ImageNote imageNote = new ImageNote(imageData, file.getFileName().toString(), mimeType);
-                
-                processedFiles.add(absolutePath);
-                addImageNote(imageNote);
-            }
+            return PerceptualHash.dHash(imageFile);
         } catch (IOException e) {
-            System.err.println("Failed to process screenshot " + file + ": " + e.getMessage());
+            // Not decodable by ImageIO; the note is simply not checked for duplicates
+            System.err.println("Failed to hash image " + imageFile.getFileName() + ": " + e.getMessage());
+            return null;
         }
     }
     
+    /**
+     * Add a newly imported image, applying the duplicate mode if it matches an existing note
+     */
+    private void addImportedImage(ImageNote imageNote) {
+        Long hash = imageNote.getPerceptualHash();
+        List<ImageNote> matches = hash == null ? List.of()
+            : similarImages.search(hash, PerceptualHash.NEAR_DUPLICATE_DISTANCE);
+        if (!matches.isEmpty()) {
+            ImageNote original = matches.get(0);
+            switch (duplicateMode) {
+                case SKIP:
+                    releaseBlob(imageNote.getBlobHash());
+                    return;
+                case MERGE:
+                    String oldBlob = original.getBlobHash();
+                    similarImages.remove(original.getPerceptualHash(), original);
+                    original.replaceImage(imageNote.getBlobHash(), imageNote.getImageSize(),
+                        imageNote.getFileName(), imageNote.getMimeType(), hash);
+                    similarImages.add(hash, original);
+                    indexForSearch(original);
+                    releaseBlob(oldBlob);
+                    refreshGrid();
+                    saveState();
+                    return;
+                case FLAG:
+                    imageNote.setDuplicateOf(original.getId());
+                    break;
+            }
+        }
+        addImageNote(imageNote);
+    }
+    
     private void uploadImage() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Select Image");
@@ -258,93 +303,52 @@ public class ImageNotesPanel extends BorderPane {
         
         File file = fileChooser.showOpenDialog(getScene().getWindow());
         if (file != null) {
-            try {
-                byte[] imageData = Files.readAllBytes(file.toPath());
-                String mimeType = Files.probeContentType(file.toPath());
-                ImageNote imageNote = new ImageNote(imageData, file.getName(), mimeType);
-                addImageNote(imageNote);
-            } catch (IOException e) {
-                showError("Failed to load image: " + e.getMessage());
-            }
+            AsyncFileOperations.loadAsync("image-notes",
+                () -> createImageNote(file.toPath()),
+                this::addImportedImage,
+                error -> showError("Failed to load image: " + error.getMessage()));
         }
     }
     
     private void addImageNote(ImageNote imageNote) {
         imageNotes.add(imageNote);
-        addThumbnail(imageNote);
+        indexForSearch(imageNote);
+        if (imageNote.getPerceptualHash() != null) {
+            similarImages.add(imageNote.getPerceptualHash(), imageNote);
+        }
+        refreshGrid();
         saveState();
         updateToolbar();
     }
     
-    private void addThumbnail(ImageNote imageNote) {
-        try {
-            ByteArrayInputStream bais = new ByteArrayInputStream(imageNote.getImageData());
-            Image image = new Image(bais);
-            
-            ImageView imageView = new ImageView(image);
-            imageView.setFitWidth(THUMBNAIL_SIZE);
-            imageView.setFitHeight(THUMBNAIL_SIZE);
-            imageView.setPreserveRatio(true);
-            imageView.setSmooth(true);
-            
-            // Create a StackPane to layer the delete button over the image
-            StackPane imageContainer = new StackPane();
-            
-            // Create delete button
-            Button deleteBtn = new Button("✕");
-            deleteBtn.getStyleClass().add("thumbnail-delete-btn");
-            HyperlinkButtonUtil.addSmoothHoverAnimation(deleteBtn);
-            deleteBtn.setVisible(false);
-            deleteBtn.setOnAction(e -> {
-                e.consume(); // Prevent event from propagating to image click
-                deleteImage(imageNote, imageContainer.getParent());
-            });
-            
-            // Position delete button in top-right
-            StackPane.setAlignment(deleteBtn, Pos.TOP_RIGHT);
-            StackPane.setMargin(deleteBtn, new Insets(5, 5, 0, 0));
-            
-            imageContainer.getChildren().addAll(imageView, deleteBtn);
-            
-            VBox thumbnailBox = new VBox(5);
-            thumbnailBox.setAlignment(Pos.CENTER);
-            thumbnailBox.getStyleClass().add("image-thumbnail");
-            
-            Label timeLabel = new Label(imageNote.getTimestamp().format(DATE_FORMAT));
-            timeLabel.getStyleClass().add("thumbnail-time");
-            
-            thumbnailBox.getChildren().addAll(imageContainer, timeLabel);
-            
-            // Show/hide delete button on hover
-            thumbnailBox.setOnMouseEntered(e -> deleteBtn.setVisible(true));
-            thumbnailBox.setOnMouseExited(e -> deleteBtn.setVisible(false));
-            
-            // Context menu
-            ContextMenu contextMenu = new ContextMenu();
-            
-            MenuItem viewItem = new MenuItem("View Full Size");
-            viewItem.setOnAction(e -> showFullImage(imageNote));
-            
-            MenuItem noteItem = new MenuItem("Edit Note");
-            noteItem.setOnAction(e -> editNote(imageNote));
-            
-            MenuItem deleteItem = new MenuItem("Delete");
-            deleteItem.setOnAction(e -> deleteImage(imageNote, thumbnailBox));
-            
-            contextMenu.getItems().addAll(viewItem, noteItem, new SeparatorMenuItem(), deleteItem);
-            
-            imageContainer.setOnMouseClicked(e -> {
-                if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 1) {
-                    showFullImage(imageNote);
-                } else if (e.getButton() == MouseButton.SECONDARY) {
-                    contextMenu.show(thumbnailBox, e.getScreenX(), e.getScreenY());
-                }
-            });
-            
-            thumbnailGrid.getChildren().add(thumbnailBox);
-        } catch (Exception e) {
-            showError("Failed to create thumbnail: " + e.getMessage());
+    /**
+     * Show the notes that have a stored image
+     */
+    private void refreshGrid() {
+        if (thumbnailGrid == null) {
+            // Trimmed; filled when it is built again
+            return;
+        }
+        String query = searchField.getText();
+        Set<ImageNote> matches = query.isBlank() ? null : searchIndex.search(query);
+        List<ImageNote> displayable = new ArrayList<>(imageNotes.size());
+        for (ImageNote imageNote : imageNotes) {
+            if (imageNote.getBlobHash() != null && (matches == null || matches.contains(imageNote))) {
+                displayable.add(imageNote);
+            }
         }
+        thumbnailGrid.setNotes(displayable);
+    }
+    
+    /**
+     * (Re)index a note's searchable metadata; no image data is read
+     */
+    private void indexForSearch(ImageNote imageNote) {
+        List<String> words = new ArrayList<>();
+        words.addAll(TextIndex.tokenize(imageNote.getNote()));
+        words.addAll(TextIndex.tokenize(imageNote.getFileName()));
+        words.addAll(TextIndex.tokenize(imageNote.getTimestamp().format(SEARCH_DATE_FORMAT)));
+        searchIndex.put(imageNote, words);
     }
     
     private void showFullImage(ImageNote imageNote) {
@@ -353,16 +357,19 @@ public class ImageNotesPanel extends BorderPane {
         imageStage.setAlwaysOnTop(true);
         imageStage.setTitle(imageNote.getFileName());
         
-        ByteArrayInputStream bais = new ByteArrayInputStream(imageNote.getImageData());
-        Image image = new Image(bais);
-        ImageView imageView = new ImageView(image);
-        imageView.setPreserveRatio(true);
-        imageView.setSmooth(true);
-        
-        ScrollPane imageScroll = new ScrollPane(imageView);
-        imageScroll.setPannable(true);
-        imageScroll.setFitToWidth(true);
-        imageScroll.setFitToHeight(true);
+        // Shows a preview first and decodes full-resolution tiles only for the visible area
+        TiledImageViewer imageScroll;
+        try {
+            imageScroll = new TiledImageViewer(imageBlobs.pathOf(imageNote.getBlobHash()));
+        } catch (IOException e) {
+            showError("Failed to open image: " + e.getMessage());
+            return;
+        }
+        imageStage.setOnHidden(e -> {
+            imageScroll.dispose();
+            imageWindows.remove(imageStage);
+        });
+        imageWindows.add(imageStage);
         
         // Create zoom controls
         HBox zoomControls = new HBox(10);
@@ -374,30 +381,12 @@ public class ImageNotesPanel extends BorderPane {
         Button zoomInBtn = HyperlinkButtonUtil.createHyperlinkButton("Zoom In");
         Button zoomOutBtn = HyperlinkButtonUtil.createHyperlinkButton("Zoom Out");
         Label zoomLabel = new Label("100%");
+        zoomLabel.textProperty().bind(imageScroll.zoomProperty().multiply(100).asString("%.0f%%"));
         
-        fitToWindowBtn.setOnAction(e -> {
-            imageView.setFitWidth(imageScroll.getViewportBounds().getWidth());
-            imageView.setFitHeight(imageScroll.getViewportBounds().getHeight());
-            updateZoomLabel(zoomLabel, imageView, image);
-        });
-        
-        actualSizeBtn.setOnAction(e -> {
-            imageView.setFitWidth(image.getWidth());
-            imageView.setFitHeight(image.getHeight());
-            updateZoomLabel(zoomLabel, imageView, image);
-        });
-        
-        zoomInBtn.setOnAction(e -> {
-            imageView.setFitWidth(imageView.getFitWidth() * 1.2);
-            imageView.setFitHeight(imageView.getFitHeight() * 1.2);
-            updateZoomLabel(zoomLabel, imageView, image);
-        });
-        
-        zoomOutBtn.setOnAction(e -> {
-            imageView.setFitWidth(imageView.getFitWidth() / 1.2);
-            imageView.setFitHeight(imageView.getFitHeight() / 1.2);
-            updateZoomLabel(zoomLabel, imageView, image);
-        });
+        fitToWindowBtn.setOnAction(e -> imageScroll.fitToViewport());
+        actualSizeBtn.setOnAction(e -> imageScroll.setZoom(1));
+        zoomInBtn.setOnAction(e -> imageScroll.setZoom(imageScroll.getZoom() * 1.2));
+        zoomOutBtn.setOnAction(e -> imageScroll.setZoom(imageScroll.getZoom() / 1.2));
         
         // Zoom preset group
         HBox zoomPresetsGroup = HyperlinkButtonUtil.createButtonGroup(5, fitToWindowBtn, actualSizeBtn);
@@ -417,6 +406,10 @@ public class ImageNotesPanel extends BorderPane {
         // Auto-save notes as user types
         noteArea.textProperty().addListener((observable, oldValue, newValue) -> {
             imageNote.setNote(newValue);
+            indexForSearch(imageNote);
+            if (!searchField.getText().isBlank()) {
+                refreshGrid();
+            }
             saveState();
         });
         
@@ -436,11 +429,7 @@ public class ImageNotesPanel extends BorderPane {
         imageStage.setScene(scene);
         
         // Initially fit to window
-        imageStage.setOnShown(e -> {
-            imageView.setFitWidth(imageScroll.getViewportBounds().getWidth());
-            imageView.setFitHeight(imageScroll.getViewportBounds().getHeight());
-            updateZoomLabel(zoomLabel, imageView, image);
-        });
+        imageStage.setOnShown(e -> imageScroll.fitToViewport());
         
         // Position window at top center of screen
         imageStage.show();
@@ -456,11 +445,6 @@ public class ImageNotesPanel extends BorderPane {
         imageStage.setY(screenBounds.getMinY() + 30); // 30px from top
     }
     
-    private void updateZoomLabel(Label zoomLabel, ImageView imageView, Image image) {
-        double zoomPercent = (imageView.getFitWidth() / image.getWidth()) * 100;
-        zoomLabel.setText(String.format("%.0f%%", zoomPercent));
-    }
-    
     private void editNote(ImageNote imageNote) {
         TextInputDialog dialog = new TextInputDialog(imageNote.getNote());
         dialog.setTitle("Edit Note");
@@ -470,11 +454,15 @@ public class ImageNotesPanel extends BorderPane {
         Optional<String> result = dialog.showAndWait();
         result.ifPresent(note -> {
             imageNote.setNote(note);
+            indexForSearch(imageNote);
+            if (!searchField.getText().isBlank()) {
+                refreshGrid();
+            }
             saveState();
         });
     }
     
-    private void deleteImage(ImageNote imageNote, javafx.scene.Parent thumbnailParent) {
+    private void deleteImage(ImageNote imageNote) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Delete Image");
         alert.setHeaderText("Delete this image?");
@@ -483,9 +471,32 @@ public class ImageNotesPanel extends BorderPane {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             imageNotes.remove(imageNote);
-            thumbnailGrid.getChildren().remove(thumbnailParent);
+            searchIndex.remove(imageNote);
+            if (imageNote.getPerceptualHash() != null) {
+                similarImages.remove(imageNote.getPerceptualHash(), imageNote);
+            }
+            for (ImageNote other : imageNotes) {
+                if (imageNote.getId().equals(other.getDuplicateOf())) {
+                    other.setDuplicateOf(null);
+                }
+            }
+            refreshGrid();
             saveState();
             updateToolbar();
+            releaseBlob(imageNote.getBlobHash());
+        }
+    }
+    
+    /**
+     * Delete a blob and its thumbnail unless a note still uses it; identical screenshots share one blob.
+     * The files go only after the notes without it are saved, so saved notes never point at a missing blob.
+     */
+    private void releaseBlob(String blobHash) {
+        boolean blobShared = imageNotes.stream()
+            .anyMatch(other -> blobHash.equals(other.getBlobHash()));
+        if (!blobShared) {
+            releasedBlobs.add(blobHash);
+            saveState();
         }
     }
     
@@ -510,49 +521,294 @@ public class ImageNotesPanel extends BorderPane {
         alert.showAndWait();
     }
     
+    /**
+     * Save note metadata with debouncing; image bytes are already in the blob store
+     */
     private void saveState() {
-        File dataDir = new File("data");
-        if (!dataDir.exists()) {
-            dataDir.mkdirs();
+        AsyncFileOperations.debouncedSave("image-notes", 500, this::snapshotState, state -> {
+            try {
+                writeState(openStore(), state);
+            } catch (IOException e) {
+                System.err.println("Failed to save image notes: " + e.getMessage());
+                return;
+            }
+            for (String blobHash : state.releasedBlobs) {
+                imageBlobs.delete(blobHash);
+                thumbnails.deleteCached(blobHash);
+            }
+        });
+    }
+    
+    private SavedState snapshotState() {
+        ArrayList<ImageNote> notes = new ArrayList<>(imageNotes.size());
+        for (ImageNote imageNote : imageNotes) {
+            notes.add(imageNote.snapshot());
         }
-        
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream("data/image_notes.dat"))) {
-            oos.writeObject(imageNotes);
-            oos.writeObject(processedFiles);
+        // A released blob may have been imported again since
+        List<String> released = new ArrayList<>();
+        for (String blobHash : releasedBlobs) {
+            if (imageNotes.stream().noneMatch(imageNote -> blobHash.equals(imageNote.getBlobHash()))) {
+                released.add(blobHash);
+            }
+        }
+        releasedBlobs.clear();
+        return new SavedState(notes, new HashMap<>(screenshotScanner.getProcessedFiles()), duplicateMode.name(), released);
+    }
+    
+    /**
+     * Read the saved notes, moving any inline image bytes into the blob store; meant to run off
+     * the JavaFX thread
+     * @return The saved state, or null if nothing was saved
+     */
+    public static SavedState readSavedState() {
+        try {
+            KeyValueStore.Namespace store = openStore();
+            if (store.isEmpty()) {
+                return null;
+            }
+            ArrayList<ImageNote> notes = new ArrayList<>(store.<ImageNote>getList(NOTES_LIST));
+            SavedState saved = new SavedState(notes, store.get(PROCESSED_FILES_KEY), store.get(DUPLICATE_MODE_KEY));
+            if (migrateLegacyImages(notes)) {
+                writeState(store, saved);
+            }
+            return saved;
         } catch (IOException e) {
-            System.err.println("Failed to save image notes: " + e.getMessage());
+            System.err.println("Failed to load image notes: " + e.getMessage());
+            return new SavedState(new ArrayList<>(), null, null);
+        }
+    }
+    
+    private static KeyValueStore.Namespace openStore() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(STORE_NAMESPACE, Paths.get(IMAGE_NOTES_FILE),
+            (file, store) -> {
+                // Move inline image bytes out first, so they are never written to the store
+                SavedState legacy = readLegacyState(file);
+                migrateLegacyImages(legacy.notes);
+                writeState(store, legacy);
+            });
+    }
+    
+    /**
+     * Commit notes one record each, so editing a note only rewrites that note
+     */
+    private static void writeState(KeyValueStore.Namespace store, SavedState state) throws IOException {
+        KeyValueStore.WriteBatch batch = new KeyValueStore.WriteBatch()
+            .putList(NOTES_LIST, state.notes, ImageNote::getId);
+        if (state.processedFiles != null) {
+            batch.put(PROCESSED_FILES_KEY, state.processedFiles);
         }
+        if (state.duplicateMode != null) {
+            batch.put(DUPLICATE_MODE_KEY, state.duplicateMode);
+        }
+        store.commit(batch);
     }
     
+    /**
+     * Read the old whole-file save: the notes, then the processed files and the duplicate mode
+     */
     @SuppressWarnings("unchecked")
-    private void loadState() {
-        File dataFile = new File("data/image_notes.dat");
-        if (dataFile.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(
-                    new FileInputStream(dataFile))) {
-                List<ImageNote> loaded = (List<ImageNote>) ois.readObject();
-                imageNotes.addAll(loaded);
-                
-                // Try to load processed files set
-                try {
-                    Set<String> loadedFiles = (Set<String>) ois.readObject();
-                    processedFiles.addAll(loadedFiles);
-                } catch (Exception e) {
-                    // Old data file without processed files set
+    private static SavedState readLegacyState(Path dataFile) {
+        ArrayList<ImageNote> notes = new ArrayList<>();
+        HashMap<String, Long> processedFiles = null;
+        String mode = null;
+        try (ObjectInputStream ois = new ObjectInputStream(
+                Files.newInputStream(dataFile))) {
+            notes.addAll((List<ImageNote>) ois.readObject());
+            
+            // Try to load processed files
+            try {
+                Object loadedFiles = ois.readObject();
+                if (loadedFiles instanceof Map) {
+                    processedFiles = new HashMap<>((Map<String, Long>) loadedFiles);
+                } else if (loadedFiles instanceof Set) {
+                    // Older path-only set; treat the entries as just imported so they age out
+                    long now = System.currentTimeMillis();
+                    processedFiles = new HashMap<>();
+                    for (String path : (Set<String>) loadedFiles) {
+                        processedFiles.put(path, now);
+                    }
                 }
                 
-                for (ImageNote imageNote : imageNotes) {
-                    addThumbnail(imageNote);
-                }
-                updateToolbar();
+                mode = DuplicateMode.valueOf((String) ois.readObject()).name();
             } catch (Exception e) {
-                System.err.println("Failed to load image notes: " + e.getMessage());
+                // Old data file without processed files set or duplicate mode
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to load image notes: " + e.getMessage());
+        }
+        return new SavedState(notes, processedFiles, mode);
+    }
+            
+    private void applySavedState(SavedState saved) {
+        imageNotes.addAll(saved.notes);
+        if (saved.processedFiles != null) {
+            screenshotScanner.restoreProcessedFiles(saved.processedFiles);
+        }
+        if (saved.duplicateMode != null) {
+            duplicateMode = DuplicateMode.valueOf(saved.duplicateMode);
+            duplicateModeBox.setValue(duplicateMode);
+        }
+        
+        for (ImageNote imageNote : imageNotes) {
+            indexForSearch(imageNote);
+            if (imageNote.getPerceptualHash() != null) {
+                similarImages.add(imageNote.getPerceptualHash(), imageNote);
+            }
+        }
+        refreshGrid();
+        updateToolbar();
+        hashUnindexedImages();
+    }
+    
+    /**
+     * Compute perceptual hashes in the background for notes saved before hashing existed
+     */
+    private void hashUnindexedImages() {
+        Map<ImageNote, Path> unhashed = new LinkedHashMap<>();
+        for (ImageNote imageNote : imageNotes) {
+            if (imageNote.getPerceptualHash() == null && imageNote.getBlobHash() != null) {
+                unhashed.put(imageNote, imageBlobs.pathOf(imageNote.getBlobHash()));
+            }
+        }
+        if (unhashed.isEmpty()) {
+            return;
+        }
+        AsyncFileOperations.loadAsync("image-notes",
+            () -> {
+                Map<ImageNote, Long> hashes = new HashMap<>();
+                for (Map.Entry<ImageNote, Path> entry : unhashed.entrySet()) {
+                    Long hash = computePerceptualHash(entry.getValue());
+                    if (hash != null) {
+                        hashes.put(entry.getKey(), hash);
+                    }
+                }
+                return hashes;
+            },
+            hashes -> {
+                for (Map.Entry<ImageNote, Long> entry : hashes.entrySet()) {
+                    // Skip notes deleted while hashing
+                    if (imageNotes.contains(entry.getKey())) {
+                        entry.getKey().setPerceptualHash(entry.getValue());
+                        similarImages.add(entry.getValue(), entry.getKey());
+                    }
+                }
+                if (!hashes.isEmpty()) {
+                    saveState();
+                }
+            },
+            error -> System.err.println("Failed to hash image notes: " + error.getMessage()));
+    }
+    
+    /**
+     * Move image bytes stored inline by older versions into the blob store
+     * @return Whether any note was migrated
+     */
+    private static boolean migrateLegacyImages(List<ImageNote> notes) {
+        boolean migrated = false;
+        for (ImageNote imageNote : notes) {
+            if (!imageNote.hasLegacyImageData()) {
+                continue;
+            }
+            try {
+                imageNote.moveImageToBlob(imageBlobs.put(imageNote.getLegacyImageData()));
+                migrated = true;
+            } catch (IOException e) {
+                // Keep the inline bytes; they are retried on the next start
+                System.err.println("Failed to migrate image " + imageNote.getFileName() + ": " + e.getMessage());
             }
         }
+        return migrated;
+    }
+    
+    /**
+     * Copy of the panel's saved data, taken on the JavaFX thread to save it or read in the
+     * background before the panel is built
+     */
+    public static final class SavedState {
+        private final ArrayList<ImageNote> notes;
+        private final HashMap<String, Long> processedFiles;
+        private final String duplicateMode;
+        // Blobs to delete once this state has been committed
+        private final List<String> releasedBlobs;
+        
+        SavedState(ArrayList<ImageNote> notes, HashMap<String, Long> processedFiles, String duplicateMode) {
+            this(notes, processedFiles, duplicateMode, List.of());
+        }
+        
+        SavedState(ArrayList<ImageNote> notes, HashMap<String, Long> processedFiles, String duplicateMode, List<String> releasedBlobs) {
+            this.notes = notes;
+            this.processedFiles = processedFiles;
+            this.duplicateMode = duplicateMode;
+            this.releasedBlobs = releasedBlobs;
+        }
+    }
+    
+    /**
+     * The search filter and scroll position
+     */
+    public static final class ViewState {
+        private final String search;
+        private final int firstVisibleRow;
+        
+        private ViewState(String search, int firstVisibleRow) {
+            this.search = search;
+            this.firstVisibleRow = firstVisibleRow;
+        }
+    }
+    
+    /**
+     * Not while screenshots are monitored, as they are imported in the background, nor while an
+     * image window is open; a monitoring panel is trimmed instead
+     */
+    @Override
+    public boolean canHibernate() {
+        return !isMonitoring && imageWindows.isEmpty();
+    }
+    
+    /**
+     * Drop the grid and its thumbnails, keeping the notes and the scanner running
+     */
+    @Override
+    public void trim() {
+        if (thumbnailGrid == null || getScene() != null) {
+            return;
+        }
+        trimmedFirstRow = Hibernatable.firstVisibleIndex(thumbnailGrid);
+        setCenter(null);
+        thumbnailGrid = null;
+        thumbnails.clearRecent();
+    }
+    
+    private void restoreTrimmedGrid() {
+        if (thumbnailGrid != null) {
+            return;
+        }
+        createGrid();
+        refreshGrid();
+        ImageNoteGrid grid = thumbnailGrid;
+        int firstRow = trimmedFirstRow;
+        Hibernatable.whenSkinned(grid, () -> grid.scrollTo(firstRow));
+    }
+    
+    @Override
+    public ViewState saveViewState() {
+        int firstVisibleRow = thumbnailGrid != null ? Hibernatable.firstVisibleIndex(thumbnailGrid) : trimmedFirstRow;
+        return new ViewState(searchField.getText(), firstVisibleRow);
+    }
+    
+    @Override
+    public void restoreViewState(ViewState state) {
+        // Only hibernated with monitoring turned off, so keep it off
+        if (isMonitoring) {
+            monitorToggle.fire();
+        }
+        searchField.setText(state.search);
+        Hibernatable.whenSkinned(thumbnailGrid, () -> thumbnailGrid.scrollTo(state.firstVisibleRow));
     }
     
     public void cleanup() {
         stopScreenshotMonitoring();
+        screenshotScanner.shutdown();
+        thumbnails.shutdown();
     }
 }
\ No newline at end of file
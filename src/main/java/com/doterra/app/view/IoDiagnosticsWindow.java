@@ -0,0 +1,108 @@
+package com.doterra.app.view;
+
+import com.doterra.app.util.FileIoMetrics;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.function.Function;
+
+/**
+ * Small always-on-top window showing live per-key file I/O counters, so a slow save
+ * that delays other panels' saves can be spotted while the app is running.
+ */
+public class IoDiagnosticsWindow {
+    
+    private Stage stage;
+    private Timeline refreshTimer;
+    private TableView<FileIoMetrics.KeyStats> statsTable;
+    private Label queueLabel;
+    
+    /**
+     * Show the window, or bring it to front if it is already open
+     */
+    public void show() {
+        if (stage != null && stage.isShowing()) {
+            stage.toFront();
+            stage.requestFocus();
+            return;
+        }
+        
+        stage = new Stage();
+        stage.setTitle("File I/O Diagnostics");
+        stage.setAlwaysOnTop(true);
+        
+        queueLabel = new Label();
+        queueLabel.setStyle("-fx-font-size: 13px; -fx-font-weight: bold;");
+        
+        statsTable = new TableView<>();
+        statsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        statsTable.setPlaceholder(new Label("No file saves yet"));
+        statsTable.getColumns().add(column("Key", FileIoMetrics.KeyStats::getKey));
+        statsTable.getColumns().add(column("Scheduled", s -> String.valueOf(s.getScheduled())));
+        statsTable.getColumns().add(column("Coalesced", s -> String.valueOf(s.getCoalesced())));
+        statsTable.getColumns().add(column("Executed", s -> String.valueOf(s.getExecuted())));
+        statsTable.getColumns().add(column("Failed", s -> String.valueOf(s.getFailed())));
+        statsTable.getColumns().add(column("Queue avg/max (ms)",
+            s -> formatMillis(s.getAverageQueueMillis()) + " / " + formatMillis(s.getMaxQueueMillis())));
+        statsTable.getColumns().add(column("Write avg/max (ms)",
+            s -> formatMillis(s.getAverageWriteMillis()) + " / " + formatMillis(s.getMaxWriteMillis())));
+        statsTable.getColumns().add(column("Bytes", s -> formatBytes(s.getBytesWritten())));
+        statsTable.getColumns().add(column("Last error", s -> s.getLastError() == null ? "" : s.getLastError()));
+        VBox.setVgrow(statsTable, Priority.ALWAYS);
+        
+        VBox root = new VBox(10, queueLabel, statsTable);
+        root.setPadding(new Insets(10));
+        
+        stage.setScene(new Scene(root, 900, 300));
+        
+        refresh();
+        refreshTimer = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+        refreshTimer.setCycleCount(Timeline.INDEFINITE);
+        refreshTimer.play();
+        
+        stage.setOnHidden(e -> {
+            refreshTimer.stop();
+            refreshTimer = null;
+            stage = null;
+        });
+        stage.show();
+    }
+    
+    private void refresh() {
+        queueLabel.setText("Queue depth: " + FileIoMetrics.getQueueDepth()
+            + " (max " + FileIoMetrics.getMaxQueueDepth() + ")");
+        statsTable.setItems(FXCollections.observableArrayList(FileIoMetrics.getAllStats()));
+        statsTable.refresh();
+    }
+    
+    private static TableColumn<FileIoMetrics.KeyStats, String> column(String title,
+            Function<FileIoMetrics.KeyStats, String> value) {
+        TableColumn<FileIoMetrics.KeyStats, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(data -> new SimpleStringProperty(value.apply(data.getValue())));
+        return column;
+    }
+    
+    private static String formatMillis(double millis) {
+        return String.format("%.1f", millis);
+    }
+    
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
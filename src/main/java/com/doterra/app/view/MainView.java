@@ -2,8 +2,13 @@ package com.doterra.app.view;
 
 import com.doterra.app.controller.NavigationController;
 import com.doterra.app.model.NavigationSection;
+import com.doterra.app.model.RegexTemplate;
+import com.doterra.app.model.StickyNote;
+import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.KeyValueStore;
 import com.doterra.app.util.CssInspector;
 import com.doterra.app.util.SimpleStyler;
+import com.doterra.app.util.StartupTimeline;
 import com.doterra.app.util.ComplexStyler;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
@@ -28,6 +33,14 @@ import javafx.scene.control.ListCell;
 import javafx.scene.control.MultipleSelectionModel;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainView {
     
@@ -35,6 +48,7 @@ public class MainView {
     private final VBox sidebar;
     private final NavigationController navigationController;
     private final CssInspector cssInspector;
+    private final IoDiagnosticsWindow ioDiagnosticsWindow = new IoDiagnosticsWindow();
     
     // Pre-initialized lightweight panels
     private final ChatScriptsPanel chatScriptsPanel;
@@ -44,6 +58,11 @@ public class MainView {
     // Track active navigation item
     private String activeNavItem;
     
+    private final AtomicBoolean cleanedUp = new AtomicBoolean(false);
+    
+    private static final KeyCombination COMMAND_PALETTE_KEY = new KeyCodeCombination(KeyCode.K, KeyCombination.SHORTCUT_DOWN);
+    private final CommandPalette commandPalette = new CommandPalette();
+    
     public MainView() {
         root = new BorderPane();
         
@@ -51,19 +70,77 @@ public class MainView {
         cssInspector = new CssInspector();
         
         // Initialize only lightweight panels immediately (no file I/O)
-        chatScriptsPanel = new ChatScriptsPanel();
-        emailScriptsPanel = new EmailScriptsPanel();
-        calculatorPanel = new CalculatorPanel();
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("chat panel")) {
+            chatScriptsPanel = new ChatScriptsPanel();
+        }
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("email panel")) {
+            emailScriptsPanel = new EmailScriptsPanel();
+        }
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("calculator panel")) {
+            calculatorPanel = new CalculatorPanel();
+        }
         
         // Set up navigation controller with lazy loading for heavy panels
         navigationController = new NavigationController(root, chatScriptsPanel, emailScriptsPanel, calculatorPanel);
         
         // Create sidebar
-        sidebar = createSidebar();
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("sidebar")) {
+            sidebar = createSidebar();
+        }
         root.setLeft(sidebar);
         
         // Set the initial panel (Chat Scripts)
         navigationController.showPanel("chat");
+        
+        try (StartupTimeline.Phase phase = StartupTimeline.begin("command palette")) {
+            setupCommandPalette();
+        }
+        
+        // Prepare the panels likely to be opened next, once the window is up
+        javafx.application.Platform.runLater(navigationController::prewarmLikelyPanels);
+    }
+    
+    private void setupCommandPalette() {
+        commandPalette.addScripts("Chat", chatScriptsPanel.getButtonController(),
+            (tabId, buttonId) -> showPanelAndRun("chat", () -> chatScriptsPanel.runScript(tabId, buttonId)),
+            tabId -> showPanelAndRun("chat", () -> chatScriptsPanel.selectTab(tabId)));
+        commandPalette.addScripts("Email", emailScriptsPanel.getButtonController(),
+            (tabId, buttonId) -> showPanelAndRun("email", () -> emailScriptsPanel.runScript(tabId, buttonId)),
+            tabId -> showPanelAndRun("email", () -> emailScriptsPanel.selectTab(tabId)));
+        commandPalette.addPanels(navigationController.getNavigationSections(),
+            panelId -> showPanelAndRun(panelId, () -> { }));
+        commandPalette.addSavedItems("Regex template", RegexEditorPanel::openTemplatesStore, RegexEditorPanel.TEMPLATES_LIST, saved -> {
+            Map<String, String> names = new LinkedHashMap<>();
+            for (Object template : saved) {
+                names.put(((RegexTemplate) template).getId(), ((RegexTemplate) template).getName());
+            }
+            return names;
+        }, templateId -> {
+            setActiveNavItem("regex");
+            navigationController.openRegexTemplate(templateId);
+            updateAllNavigationCells();
+        });
+        commandPalette.addSavedItems("Sticky note", StickyNotePanel::openNotesStore, StickyNotePanel.NOTES_LIST, saved -> {
+            Map<String, String> names = new LinkedHashMap<>();
+            for (Object note : saved) {
+                names.put(((StickyNote) note).getId(), ((StickyNote) note).getTitle());
+            }
+            return names;
+        }, noteId -> {
+            setActiveNavItem("stickynote");
+            navigationController.openStickyNote(noteId);
+            updateAllNavigationCells();
+        });
+        
+        root.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (COMMAND_PALETTE_KEY.match(e) && root.getScene() != null) {
+                commandPalette.show(root.getScene().getWindow());
+                e.consume();
+            }
+        });
+        
+        // Index the scripts once the window is up so the first Ctrl+K is instant
+        javafx.application.Platform.runLater(commandPalette::refresh);
     }
     
     private VBox createSidebar() {
@@ -78,6 +155,15 @@ public class MainView {
         SimpleStyler.styleTitleLabel(titleLabel);
         titleLabel.setPadding(new Insets(0, 0, 20, 0));
         
+        // Search every chat and email script; kept in the title block so the navigation stays child 1
+        ScriptSearchBox scriptSearch = new ScriptSearchBox();
+        scriptSearch.addSource("Chat", chatScriptsPanel.getButtonController(),
+            (tabId, buttonId) -> showPanelAndRun("chat", () -> chatScriptsPanel.runScript(tabId, buttonId)));
+        scriptSearch.addSource("Email", emailScriptsPanel.getButtonController(),
+            (tabId, buttonId) -> showPanelAndRun("email", () -> emailScriptsPanel.runScript(tabId, buttonId)));
+        VBox titleBlock = new VBox(0, titleLabel, scriptSearch);
+        titleBlock.setPadding(new Insets(0, 0, 15, 0));
+        
         // Create navigation sections
         VBox navigationContainer = new VBox(5);
         for (NavigationSection section : navigationController.getNavigationSections()) {
@@ -92,7 +178,7 @@ public class MainView {
         // Create feature panel at bottom
         HBox featurePanel = createFeaturePanel();
         
-        sidebar.getChildren().addAll(titleLabel, navigationContainer, spacer, featurePanel);
+        sidebar.getChildren().addAll(titleBlock, navigationContainer, spacer, featurePanel);
         return sidebar;
     }
     
@@ -378,6 +464,16 @@ public class MainView {
         return sectionContainer;
     }
     
+    /**
+     * Switch panels the same way the sidebar does, then run an action on the shown panel
+     */
+    private void showPanelAndRun(String panelId, Runnable runScript) {
+        setActiveNavItem(panelId);
+        navigationController.showPanel(panelId);
+        updateAllNavigationCells();
+        runScript.run();
+    }
+    
     private void setActiveNavItem(String panelId) {
         activeNavItem = panelId;
     }
@@ -450,7 +546,14 @@ public class MainView {
             }
         });
         
-        panel.getChildren().addAll(cssInspectorBtn, pinBtn);
+        // File I/O diagnostics button
+        Button ioDiagnosticsBtn = new Button("I/O");
+        ioDiagnosticsBtn.setPrefSize(35, 35);
+        SimpleStyler.styleCssInspectorButton(ioDiagnosticsBtn);
+        ioDiagnosticsBtn.setTooltip(new javafx.scene.control.Tooltip("Show file save diagnostics (queue depth, latency, bytes written)"));
+        ioDiagnosticsBtn.setOnAction(e -> ioDiagnosticsWindow.show());
+        
+        panel.getChildren().addAll(cssInspectorBtn, pinBtn, ioDiagnosticsBtn);
         return panel;
     }
     
@@ -473,14 +576,29 @@ public class MainView {
      * Cleanup method to be called when the application is closing.
      */
     public void cleanup() {
-        // Shutdown async file operations
-        com.doterra.app.util.AsyncFileOperations.shutdown();
+        // Called from both the close request and the shutdown hook; only the first call runs
+        if (!cleanedUp.compareAndSet(false, true)) {
+            return;
+        }
         
-        // Cleanup panels if they exist
+        // Cleanup panels if they exist (may schedule final saves)
         NavigationController navController = getNavigationController();
         if (navController != null) {
             navController.cleanup();
         }
+        
+        // Flush pending saves and shutdown async file operations
+        AsyncFileOperations.FlushResult flushResult = AsyncFileOperations.shutdown();
+        if (!flushResult.getWrittenKeys().isEmpty() || !flushResult.getOutstandingKeys().isEmpty()) {
+            System.out.println("Saved on exit: " + flushResult.getWrittenKeys()
+                + (flushResult.getOutstandingKeys().isEmpty() ? "" : ", still writing: " + flushResult.getOutstandingKeys()));
+        }
+        if (flushResult.isComplete()) {
+            KeyValueStore.closeAll();
+        } else {
+            // Writes still running may need the store logs; leave them open for the JVM to release
+            System.err.println("Not all pending saves finished before exit: " + flushResult);
+        }
     }
     
     /**
@@ -22,8 +22,10 @@ import javafx.geometry.Pos;
 import com.doterra.app.model.RegexTemplate;
 import com.doterra.app.model.RegexTest;
 import com.doterra.app.model.RegexTestManager;
+import com.doterra.app.util.AsyncFileOperations;
 import com.doterra.app.util.DialogUtil;
 import com.doterra.app.util.HyperlinkButtonUtil;
+import com.doterra.app.util.KeyValueStore;
 import java.io.*;
 import javafx.util.StringConverter;
 import javafx.scene.control.SpinnerValueFactory;
@@ -67,14 +69,21 @@ import javafx.scene.input.KeyCode;
 import javafx.stage.FileChooser;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.charset.StandardCharsets;
 
-public class RegexEditorPanel extends BorderPane {
+public class RegexEditorPanel extends BorderPane implements Hibernatable<RegexEditorPanel.ViewState> {
     private static final String TEMPLATES_FILE = "data/regex_templates.dat";
+    private static final String TEMPLATES_NAMESPACE = "regex_templates";
+    static final String TEMPLATES_LIST = "template";
     private static final String PREFERENCES_FILE = "data/regex_preferences.dat";
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String PREFERENCES_NAMESPACE = "preferences";
+    private static final String COLUMN_WIDTHS_KEY = "regex/column_widths";
     
     private TextArea inputTextArea;
     private CodeArea templateArea;
+    private SplitPane centerSplit;
     private ScrollPane outputScrollPane;
     private WebView outputWebView;
     private WebEngine webEngine;
@@ -97,6 +106,13 @@ public class RegexEditorPanel extends BorderPane {
     private Map<Integer, String> validationErrors = new HashMap<>(); // position -> error message
     
     public RegexEditorPanel() {
+        this(readSavedData());
+    }
+    
+    /**
+     * @param saved Templates and preferences read by {@link #readSavedData()}, e.g. on a background thread
+     */
+    public RegexEditorPanel(SavedData saved) {
         patterns = FXCollections.observableArrayList();
         templates = new ArrayList<>();
         testsList = FXCollections.observableArrayList();
@@ -116,8 +132,8 @@ public class RegexEditorPanel extends BorderPane {
         // Load data and complete setup asynchronously
         Platform.runLater(() -> {
             try {
-                loadTemplates();
-                loadPreferences();
+                templates = saved.templates;
+                columnWidths = saved.columnWidths;
                 initializeTestManager();
                 setupAdvancedFeatures();
                 
@@ -232,7 +248,7 @@ public class RegexEditorPanel extends BorderPane {
         topSection.getChildren().addAll(templateBar, inputHeader, inputTextArea);
         
         // Center: Split pane with patterns table and template editor
-        SplitPane centerSplit = new SplitPane();
+        centerSplit = new SplitPane();
         centerSplit.setOrientation(javafx.geometry.Orientation.HORIZONTAL);
         
         // Left side: Patterns table
@@ -692,31 +708,41 @@ public class RegexEditorPanel extends BorderPane {
         }
     }
     
-    @SuppressWarnings("unchecked")
-    private void loadTemplates() {
-        File file = new File(TEMPLATES_FILE);
-        if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                templates = (List<RegexTemplate>) ois.readObject();
-            } catch (Exception e) {
-                e.printStackTrace();
-                templates = new ArrayList<>();
-            }
+    /**
+     * Read the saved templates and preferences; safe to call off the JavaFX thread
+     */
+    public static SavedData readSavedData() {
+        return new SavedData(readTemplates(), readPreferences());
+    }
+    
+    private static List<RegexTemplate> readTemplates() {
+        try {
+            return openTemplatesStore().getList(TEMPLATES_LIST);
+        } catch (Exception e) {
+            e.printStackTrace();
         }
+        return new ArrayList<>();
+    }
+    
+    /**
+     * Open the templates' namespace, importing the old whole-file save the first time
+     */
+    static KeyValueStore.Namespace openTemplatesStore() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(TEMPLATES_NAMESPACE, Paths.get(TEMPLATES_FILE), (file, store) -> {
+            @SuppressWarnings("unchecked")
+            List<RegexTemplate> legacyTemplates = (List<RegexTemplate>) KeyValueStore.readLegacyFile(file);
+            if (legacyTemplates != null) {
+                store.commit(new KeyValueStore.WriteBatch().putList(TEMPLATES_LIST, legacyTemplates, RegexTemplate::getId));
+            }
+        });
     }
     
+    /**
+     * Commit the templates one record each; only the templates that changed are written
+     */
     private void saveTemplates() {
         try {
-            // Ensure parent directory exists
-            File file = new File(TEMPLATES_FILE);
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(TEMPLATES_FILE))) {
-                oos.writeObject(templates);
-            }
+            openTemplatesStore().commit(new KeyValueStore.WriteBatch().putList(TEMPLATES_LIST, templates, RegexTemplate::getId));
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Failed to save templates: " + e.getMessage());
@@ -1393,6 +1419,21 @@ public class RegexEditorPanel extends BorderPane {
         }
     }
     
+    /**
+     * Load a template by id, e.g. from the command palette. Queued behind the panel's own
+     * initialization, which loads the templates.
+     */
+    public void openTemplate(String templateId) {
+        Platform.runLater(() -> {
+            for (RegexTemplate template : templates) {
+                if (template.getId().equals(templateId)) {
+                    loadTemplate(template);
+                    return;
+                }
+            }
+        });
+    }
+    
     /**
      * Called from JavaScript to copy text to clipboard
      */
@@ -2406,45 +2447,42 @@ public class RegexEditorPanel extends BorderPane {
     }
     
     /**
-     * Load UI preferences including column widths
+     * Read UI preferences including column widths
      */
-    @SuppressWarnings("unchecked")
-    private void loadPreferences() {
-        File file = new File(PREFERENCES_FILE);
-        if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                columnWidths = (Map<String, Double>) ois.readObject();
-            } catch (Exception e) {
-                columnWidths = new HashMap<>();
+    private static Map<String, Double> readPreferences() {
+        try {
+            Map<String, Double> widths = openPreferences().get(COLUMN_WIDTHS_KEY, Paths.get(PREFERENCES_FILE));
+            if (widths != null) {
+                return widths;
             }
+        } catch (Exception e) {
+            // Fall back to default widths
         }
+        return new HashMap<>();
     }
     
     /**
      * Save UI preferences including column widths
      */
     private void savePreferences() {
-        try {
-            // Save current column widths
-            for (TableColumn<PatternEntry, ?> column : patternsTable.getColumns()) {
-                if (column.getText() != null && !column.getText().isEmpty()) {
-                    columnWidths.put(column.getText(), column.getWidth());
-                }
-            }
-            
-            // Ensure parent directory exists
-            File file = new File(PREFERENCES_FILE);
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(PREFERENCES_FILE))) {
-                oos.writeObject(columnWidths);
+        // Save current column widths; a column resize saves once it settles
+        for (TableColumn<PatternEntry, ?> column : patternsTable.getColumns()) {
+            if (column.getText() != null && !column.getText().isEmpty()) {
+                columnWidths.put(column.getText(), column.getWidth());
             }
-        } catch (Exception e) {
-            // Silently ignore preference save errors
         }
+        HashMap<String, Double> widths = new HashMap<>(columnWidths);
+        AsyncFileOperations.debouncedSave("regex-preferences", 500, () -> {
+            try {
+                openPreferences().commit(new KeyValueStore.WriteBatch().put(COLUMN_WIDTHS_KEY, widths));
+            } catch (Exception e) {
+                // Silently ignore preference save errors
+            }
+        });
+    }
+    
+    private static KeyValueStore.Namespace openPreferences() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(PREFERENCES_NAMESPACE);
     }
     
     /**
@@ -4629,6 +4667,112 @@ public class RegexEditorPanel extends BorderPane {
         HyperlinkButtonUtil.addSmoothHoverAnimation(button);
     }
     
+    /**
+     * The panel's saved templates and preferences, read before the view is built
+     */
+    public static final class SavedData {
+        private final List<RegexTemplate> templates;
+        private final Map<String, Double> columnWidths;
+        
+        private SavedData(List<RegexTemplate> templates, Map<String, Double> columnWidths) {
+            this.templates = templates;
+            this.columnWidths = columnWidths;
+        }
+    }
+    
+    /**
+     * What the editor shows, including edits to the template not saved yet
+     */
+    public static final class ViewState {
+        private final String templateId;
+        private final List<RegexTemplate.PatternData> patterns;
+        private final String templateText;
+        private final String inputText;
+        private final boolean showNoMatches;
+        private final boolean debugOutput;
+        private final boolean outputShown;
+        private final double[] dividerPositions;
+        private final double inputScrollTop;
+        private final int templateTopParagraph;
+        
+        private ViewState(RegexEditorPanel panel) {
+            templateId = panel.currentTemplate != null ? panel.currentTemplate.getId() : null;
+            patterns = new ArrayList<>();
+            for (PatternEntry entry : panel.patterns) {
+                patterns.add(new RegexTemplate.PatternData(entry.getName(), entry.getPattern()));
+            }
+            templateText = panel.templateArea.getText();
+            inputText = panel.inputTextArea.getText();
+            showNoMatches = panel.showNoMatchesCheckBox.isSelected();
+            debugOutput = panel.debugOutputCheckBox.isSelected();
+            outputShown = panel.outputWebView != null;
+            dividerPositions = panel.centerSplit.getDividerPositions();
+            inputScrollTop = panel.inputTextArea.getScrollTop();
+            templateTopParagraph = firstVisibleParagraph(panel.templateArea);
+        }
+        
+        private static int firstVisibleParagraph(CodeArea area) {
+            try {
+                return area.firstVisibleParToAllParIndex();
+            } catch (RuntimeException e) {
+                // Nothing is laid out
+                return 0;
+            }
+        }
+    }
+    
+    @Override
+    public boolean canHibernate() {
+        return popOutWindow == null || !popOutWindow.isShowing();
+    }
+    
+    @Override
+    public ViewState saveViewState() {
+        return new ViewState(this);
+    }
+    
+    /**
+     * Queued behind the panel's own initialization, which loads the templates and the default one
+     */
+    @Override
+    public void restoreViewState(ViewState state) {
+        Platform.runLater(() -> {
+            RegexTemplate template = null;
+            for (RegexTemplate candidate : templates) {
+                if (candidate.getId().equals(state.templateId)) {
+                    template = candidate;
+                    break;
+                }
+            }
+            if (template != null) {
+                loadTemplate(template);
+            } else {
+                currentTemplate = null;
+                templateComboBox.setValue(null);
+            }
+            
+            // The editor may hold changes not saved to the template
+            patterns.clear();
+            for (RegexTemplate.PatternData pd : state.patterns) {
+                patterns.add(new PatternEntry(pd.getName(), pd.getPattern()));
+            }
+            templateArea.replaceText(state.templateText);
+            validateTemplateSyntax(state.templateText);
+            inputTextArea.setText(state.inputText);
+            showNoMatchesCheckBox.setSelected(state.showNoMatches);
+            debugOutputCheckBox.setSelected(state.debugOutput);
+            centerSplit.setDividerPositions(state.dividerPositions);
+            if (state.outputShown && !state.templateText.isEmpty()) {
+                processTemplate();
+            }
+            
+            // Scroll once the text has been laid out
+            Platform.runLater(() -> {
+                inputTextArea.setScrollTop(state.inputScrollTop);
+                templateArea.showParagraphAtTop(state.templateTopParagraph);
+            });
+        });
+    }
     
     /**
      * Cleanup method to stop timers and remove listeners
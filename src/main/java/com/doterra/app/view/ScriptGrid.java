@@ -0,0 +1,344 @@
+package com.doterra.app.view;
+
+import com.doterra.app.model.ButtonTab;
+import com.doterra.app.model.ScriptButton;
+import com.doterra.app.util.ComplexStyler;
+import com.doterra.app.util.HoverManager;
+import com.doterra.app.util.SimpleStyler;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.DragEvent;
+import javafx.scene.input.Dragboard;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.TransferMode;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.StackPane;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Virtualized grid of script buttons for one tab, shared by the chat and email panels.
+ *
+ * <p>The tab's buttons are laid out {@value #COLUMNS} to a row, and a null entry is an empty
+ * cell. Rows are the items of a ListView, so button nodes exist only for the visible rows and are
+ * rebound as rows scroll; a tab can hold any number of scripts. Moves within the grid are applied
+ * to the list directly, while clicks, context menus and drops from other tabs are handed to the
+ * panel through callbacks.</p>
+ */
+class ScriptGrid extends ListView<Integer> {
+    static final int COLUMNS = 6;
+    // At least the familiar 6x6 area is shown, sized to fill the view
+    private static final int VISIBLE_ROWS = 6;
+    private static final double MIN_ROW_HEIGHT = 56;
+    // Matches the vertical padding of .script-grid .list-cell
+    private static final double ROW_PADDING = 6;
+    // Cell padding plus room for the vertical scroll bar
+    private static final double SCROLLBAR_ALLOWANCE = 26;
+    
+    private ButtonTab buttonTab;
+    private ScriptButton selected;
+    
+    private Consumer<ScriptButton> onAction = button -> { };
+    private Function<ScriptButton, ContextMenu> buttonMenu = button -> null;
+    private IntFunction<ContextMenu> emptyCellMenu = position -> null;
+    private Runnable onMoved = () -> { };
+    private TabDropHandler onDropFromTab = (sourceTabId, buttonId, position) -> false;
+    
+    /**
+     * Receives a button dragged here from another tab
+     */
+    interface TabDropHandler {
+        /**
+         * @param position Cell it was dropped on
+         * @return Whether the button was moved
+         */
+        boolean drop(String sourceTabId, String buttonId, int position);
+    }
+    
+    /**
+     * @param buttonTab The tab shown; drags within the grid move its buttons between cells
+     */
+    ScriptGrid(ButtonTab buttonTab) {
+        this.buttonTab = buttonTab;
+        getStyleClass().add("script-grid");
+        setFocusTraversable(false);
+        setCellFactory(list -> new RowCell());
+        setFixedCellSize(MIN_ROW_HEIGHT);
+        heightProperty().addListener((obs, oldHeight, newHeight) -> updateRowHeight());
+        reload();
+    }
+    
+    /**
+     * Show a different copy of the tab, e.g. after the tabs were reloaded
+     */
+    void setButtonTab(ButtonTab newButtonTab) {
+        buttonTab = newButtonTab;
+        reload();
+    }
+    
+    /**
+     * Re-read the list after buttons were added, removed, renamed or recolored; visible
+     * button nodes are rebound, not recreated
+     */
+    void reload() {
+        int rows = Math.max(VISIBLE_ROWS, (buttonTab.getButtons().size() + COLUMNS - 1) / COLUMNS + 1);
+        if (getItems().size() != rows) {
+            List<Integer> items = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                items.add(i);
+            }
+            getItems().setAll(items);
+        } else {
+            refresh();
+        }
+    }
+    
+    /**
+     * Highlight a button, or none
+     */
+    void setSelected(ScriptButton button) {
+        if (selected == button) {
+            return;
+        }
+        selected = button;
+        // Only the cells the list still holds; discarded ones are left to be collected
+        for (Node node : lookupAll(".script-grid-row")) {
+            if (node instanceof RowCell) {
+                ((RowCell) node).updateSelection();
+            }
+        }
+    }
+    
+    /**
+     * Scroll so a button is visible
+     */
+    void scrollToButton(ScriptButton button) {
+        int position = buttonTab.indexOf(button.getId());
+        if (position >= 0) {
+            scrollTo(position / COLUMNS);
+        }
+    }
+    
+    void setOnAction(Consumer<ScriptButton> onAction) {
+        this.onAction = onAction;
+    }
+    
+    void setButtonMenu(Function<ScriptButton, ContextMenu> buttonMenu) {
+        this.buttonMenu = buttonMenu;
+    }
+    
+    void setEmptyCellMenu(IntFunction<ContextMenu> emptyCellMenu) {
+        this.emptyCellMenu = emptyCellMenu;
+    }
+    
+    /**
+     * Called after a drag rearranged buttons within this grid
+     */
+    void setOnMoved(Runnable onMoved) {
+        this.onMoved = onMoved;
+    }
+    
+    void setOnDropFromTab(TabDropHandler onDropFromTab) {
+        this.onDropFromTab = onDropFromTab;
+    }
+    
+    private void updateRowHeight() {
+        double rowHeight = Math.max(MIN_ROW_HEIGHT, Math.floor((getHeight() - 2) / VISIBLE_ROWS));
+        if (rowHeight != getFixedCellSize()) {
+            setFixedCellSize(rowHeight);
+        }
+    }
+    
+    private boolean moveWithin(String buttonId, int target) {
+        if (!buttonTab.swapIntoCell(buttonId, target)) {
+            return false;
+        }
+        reload();
+        onMoved.run();
+        return true;
+    }
+    
+    /**
+     * @return The drag's "buttonId:tabId" string, or null if it is not a button drag
+     */
+    private static String buttonDragData(DragEvent e) {
+        Dragboard dragboard = e.getDragboard();
+        if (!dragboard.hasString() || dragboard.getString().startsWith("TAB:")) {
+            return null;
+        }
+        return dragboard.getString();
+    }
+    
+    /**
+     * One row of cells; the cells are created once per row and rebound as the row is reused
+     */
+    private class RowCell extends ListCell<Integer> {
+        private final GridPane row = new GridPane();
+        private final List<Cell> cells = new ArrayList<>(COLUMNS);
+        
+        RowCell() {
+            getStyleClass().add("script-grid-row");
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+            row.setHgap(SimpleStyler.BUTTON_GRID_GAP);
+            ComplexStyler.applyResponsiveGridLayout(row, COLUMNS, 1);
+            row.prefWidthProperty().bind(ScriptGrid.this.widthProperty().subtract(SCROLLBAR_ALLOWANCE));
+            row.prefHeightProperty().bind(ScriptGrid.this.fixedCellSizeProperty().subtract(ROW_PADDING));
+            for (int column = 0; column < COLUMNS; column++) {
+                Cell cell = new Cell();
+                cells.add(cell);
+                row.add(cell.pane, column, 0);
+            }
+        }
+        
+        @Override
+        protected void updateItem(Integer rowIndex, boolean empty) {
+            super.updateItem(rowIndex, empty);
+            if (empty || rowIndex == null) {
+                for (Cell cell : cells) {
+                    cell.bind(-1);
+                }
+                setGraphic(null);
+                return;
+            }
+            for (int column = 0; column < COLUMNS; column++) {
+                cells.get(column).bind(rowIndex * COLUMNS + column);
+            }
+            setGraphic(row);
+        }
+        
+        void updateSelection() {
+            for (Cell cell : cells) {
+                cell.updateSelection();
+            }
+        }
+    }
+    
+    /**
+     * A grid cell and its reusable button, hidden while the cell is empty
+     */
+    private class Cell {
+        private final StackPane pane = new StackPane();
+        private final Button button = new Button();
+        private int position = -1;
+        private ScriptButton bound;
+        
+        Cell() {
+            ComplexStyler.applyScriptButtonClass(button);
+            SimpleStyler.makeButtonFillSpace(button);
+            button.setWrapText(true);
+            HoverManager.applyHoverEffects(button);
+            button.setVisible(false);
+            pane.getChildren().add(button);
+            
+            button.setOnAction(e -> {
+                if (bound != null) {
+                    onAction.accept(bound);
+                }
+            });
+            
+            button.setOnDragDetected(e -> {
+                if (e.getButton() == MouseButton.PRIMARY && bound != null) {
+                    Dragboard dragboard = button.startDragAndDrop(TransferMode.MOVE);
+                    ClipboardContent content = new ClipboardContent();
+                    // Store both button ID and source tab ID for cross-tab moves
+                    content.putString(bound.getId() + ":" + buttonTab.getId());
+                    dragboard.setContent(content);
+                    dragboard.setDragView(button.snapshot(new SnapshotParameters(), null), e.getX(), e.getY());
+                    
+                    button.getProperties().put("isDragging", true);
+                    ComplexStyler.applyDragStartVisuals(button);
+                    e.consume();
+                }
+            });
+            
+            button.setOnDragDone(e -> {
+                ComplexStyler.applyDragEndVisuals(button);
+                HoverManager.endDrag(button);
+                e.consume();
+            });
+            
+            pane.setOnDragOver(e -> {
+                if (position >= 0 && e.getGestureSource() != button && buttonDragData(e) != null) {
+                    e.acceptTransferModes(TransferMode.MOVE);
+                    if (bound != null) {
+                        ComplexStyler.addDragTargetVisual(button);
+                    }
+                }
+                e.consume();
+            });
+            
+            pane.setOnDragExited(e -> {
+                ComplexStyler.removeDragTargetVisual(button);
+                e.consume();
+            });
+            
+            pane.setOnDragDropped(e -> {
+                boolean success = false;
+                String dragData = buttonDragData(e);
+                if (dragData != null && position >= 0) {
+                    String[] parts = dragData.split(":");
+                    String buttonId = parts[0];
+                    String sourceTabId = parts.length > 1 ? parts[1] : null;
+                    if (sourceTabId != null && !sourceTabId.equals(buttonTab.getId())) {
+                        success = onDropFromTab.drop(sourceTabId, buttonId, position);
+                    } else {
+                        success = moveWithin(buttonId, position);
+                    }
+                }
+                ComplexStyler.removeDragTargetVisual(button);
+                e.setDropCompleted(success);
+                e.consume();
+            });
+            
+            pane.setOnContextMenuRequested(e -> {
+                if (position >= 0) {
+                    ContextMenu menu = bound != null ? buttonMenu.apply(bound) : emptyCellMenu.apply(position);
+                    if (menu != null) {
+                        menu.show(pane, e.getScreenX(), e.getScreenY());
+                    }
+                }
+                e.consume();
+            });
+        }
+        
+        void bind(int newPosition) {
+            position = newPosition;
+            List<ScriptButton> buttons = buttonTab.getButtons();
+            ScriptButton scriptButton = newPosition >= 0 && newPosition < buttons.size()
+                ? buttons.get(newPosition) : null;
+            bound = scriptButton;
+            if (scriptButton == null) {
+                button.setVisible(false);
+                button.setUserData(null);
+                ComplexStyler.toggleSelectedClass(button, false);
+                return;
+            }
+            // Store script button reference for lookups and tests
+            button.setUserData(scriptButton);
+            if (!scriptButton.getName().equals(button.getText())) {
+                button.setText(scriptButton.getName());
+            }
+            if (scriptButton.getColor() != null) {
+                ComplexStyler.applyButtonColor(button, scriptButton);
+            } else {
+                button.setStyle("");
+            }
+            ComplexStyler.toggleSelectedClass(button, scriptButton == selected);
+            button.setVisible(true);
+        }
+        
+        void updateSelection() {
+            ComplexStyler.toggleSelectedClass(button, bound != null && bound == selected);
+        }
+    }
+}
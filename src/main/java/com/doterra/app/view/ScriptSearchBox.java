@@ -0,0 +1,172 @@
+package com.doterra.app.view;
+
+import com.doterra.app.controller.ButtonController;
+import com.doterra.app.controller.ScriptSearchIndex;
+import com.doterra.app.model.ButtonTab;
+import javafx.geometry.Bounds;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.stage.Popup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Search field that finds scripts across every tab of several button controllers as you type.
+ * Results come from each controller's {@link ScriptSearchIndex}, merged by score, and picking one
+ * hands its tab and button id to the runner registered for that controller.
+ */
+class ScriptSearchBox extends TextField {
+    private static final int MAX_RESULTS = 12;
+    
+    private final List<Source> sources = new ArrayList<>();
+    private final ListView<Result> resultList = new ListView<>();
+    private final Popup popup = new Popup();
+    
+    /**
+     * A controller to search and what to do with a picked result: (tabId, buttonId)
+     */
+    private static final class Source {
+        private final String label;
+        private final ButtonController controller;
+        private final BiConsumer<String, String> runner;
+        
+        Source(String label, ButtonController controller, BiConsumer<String, String> runner) {
+            this.label = label;
+            this.controller = controller;
+            this.runner = runner;
+        }
+    }
+    
+    private static final class Result {
+        private final Source source;
+        private final ScriptSearchIndex.Hit hit;
+        
+        Result(Source source, ScriptSearchIndex.Hit hit) {
+            this.source = source;
+            this.hit = hit;
+        }
+    }
+    
+    ScriptSearchBox() {
+        setPromptText("Search scripts...");
+        getStyleClass().add("script-search-field");
+        
+        resultList.getStyleClass().add("script-search-results");
+        resultList.setFocusTraversable(false);
+        resultList.setCellFactory(list -> new ResultCell());
+        resultList.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY) {
+                runSelected();
+            }
+        });
+        popup.getContent().add(resultList);
+        popup.setAutoHide(true);
+        
+        textProperty().addListener((obs, oldText, newText) -> updateResults());
+        setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.DOWN) {
+                moveSelection(1);
+                e.consume();
+            } else if (e.getCode() == KeyCode.UP) {
+                moveSelection(-1);
+                e.consume();
+            } else if (e.getCode() == KeyCode.ENTER) {
+                runSelected();
+                e.consume();
+            } else if (e.getCode() == KeyCode.ESCAPE) {
+                clear();
+                e.consume();
+            }
+        });
+    }
+    
+    /**
+     * Add a controller to search
+     * @param label Shown next to its results, e.g. "Chat"
+     * @param runner Called with the tab id and button id of a picked result
+     */
+    void addSource(String label, ButtonController controller, BiConsumer<String, String> runner) {
+        sources.add(new Source(label, controller, runner));
+    }
+    
+    private void updateResults() {
+        List<Result> results = new ArrayList<>();
+        for (Source source : sources) {
+            for (ScriptSearchIndex.Hit hit : source.controller.getSearchIndex().search(getText(), MAX_RESULTS)) {
+                results.add(new Result(source, hit));
+            }
+        }
+        results.sort(Comparator.comparingInt((Result result) -> result.hit.getScore()).reversed());
+        if (results.size() > MAX_RESULTS) {
+            results = results.subList(0, MAX_RESULTS);
+        }
+        
+        resultList.getItems().setAll(results);
+        if (results.isEmpty()) {
+            popup.hide();
+            return;
+        }
+        resultList.getSelectionModel().selectFirst();
+        resultList.setPrefSize(Math.max(getWidth(), 280), Math.min(results.size(), 8) * 28 + 4);
+        if (!popup.isShowing() && getScene() != null) {
+            Bounds bounds = localToScreen(getBoundsInLocal());
+            popup.show(this, bounds.getMinX(), bounds.getMaxY());
+        }
+    }
+    
+    private void moveSelection(int delta) {
+        int size = resultList.getItems().size();
+        if (size == 0) {
+            return;
+        }
+        int index = Math.floorMod(resultList.getSelectionModel().getSelectedIndex() + delta, size);
+        resultList.getSelectionModel().select(index);
+        resultList.scrollTo(index);
+    }
+    
+    private void runSelected() {
+        Result result = resultList.getSelectionModel().getSelectedItem();
+        if (result == null) {
+            return;
+        }
+        popup.hide();
+        clear();
+        result.source.runner.accept(result.hit.getTabId(), result.hit.getButton().getId());
+    }
+    
+    private static final class ResultCell extends ListCell<Result> {
+        private final Label name = new Label();
+        private final Label source = new Label();
+        private final HBox box;
+        
+        ResultCell() {
+            source.getStyleClass().add("script-search-source");
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            box = new HBox(8, name, spacer, source);
+        }
+        
+        @Override
+        protected void updateItem(Result item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+            } else {
+                name.setText(item.hit.getButton().getName());
+                ButtonTab tab = item.source.controller.getTab(item.hit.getTabId());
+                source.setText(tab != null ? item.source.label + " · " + tab.getName() : item.source.label);
+                setGraphic(box);
+            }
+        }
+    }
+}
@@ -0,0 +1,1307 @@
+package com.doterra.app.view;
+
+import com.doterra.app.controller.ButtonController;
+import com.doterra.app.model.ButtonTab;
+import com.doterra.app.model.ScriptButton;
+import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.ColorUtil;
+import com.doterra.app.util.KeyValueStore;
+import com.doterra.app.util.SimpleStyler;
+import com.doterra.app.util.StartupTimeline;
+import com.doterra.app.util.VariableReplacer;
+import com.doterra.app.util.DialogUtil;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.input.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.stage.StageStyle;
+import javafx.scene.Node;
+
+import java.util.Map;
+import java.util.Optional;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Tabs of script buttons above an editor for the selected script; the chat and email panels differ
+ * only in the editor and their files.
+ *
+ * @param <E> The editor control
+ */
+public abstract class ScriptsPanel<E extends Control> {
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String PREFERENCES_NAMESPACE = "preferences";
+    
+    private final String preferencesFile;
+    private final String dividerPositionKey;
+    private final String preferencesSaveKey;
+    // What a button is called in dialogs, e.g. "script button"
+    private final String buttonName;
+    
+    private final BorderPane root;
+    private final TabPane tabPane;
+    protected final E editor;
+    private final SplitPane splitPane;
+    private ButtonController buttonController;
+    private ScriptButton selectedButton;
+    private String originalContent; // Track original content for change detection
+    private boolean contentChanged; // Flag to track if content has been modified
+    private boolean isVariableReplacement; // Flag to track if current content change is from variable replacement
+    private ContextMenu currentContextMenu; // Track current context menu to close it when needed
+    private boolean saveDialogShowing; // Flag to prevent multiple save dialogs
+    // Tabs whose button grid is built on first selection, or on an idle frame before that
+    private final java.util.Set<Tab> unbuiltTabs = new java.util.LinkedHashSet<>();
+    private final IdleWorkQueue idleWork = new IdleWorkQueue();
+    
+    /**
+     * @param name Prefix of the panel's preference file and keys, e.g. "chat"
+     * @param buttonsFile File the buttons are saved to
+     * @param defaultTabName Tab created when no buttons have been saved
+     * @param buttonName What a button is called in dialogs, e.g. "script button"
+     * @param editor Editor for the selected script, hidden until a button is clicked
+     */
+    protected ScriptsPanel(String name, String buttonsFile, String defaultTabName, String buttonName, E editor) {
+        this.preferencesFile = "data/" + name + "_scripts_preferences.dat";
+        this.dividerPositionKey = name + "_scripts/divider_position";
+        this.preferencesSaveKey = name + "-preferences";
+        this.buttonName = buttonName;
+        this.editor = editor;
+        
+        root = new BorderPane();
+        SimpleStyler.applyDefaultLayout(root);
+        
+        buttonController = new ButtonController(false, buttonsFile); // Loaded once the UI is built
+        
+        // Create tab pane for button categories
+        tabPane = new TabPane();
+        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        
+        // Build a tab's buttons the first time it is shown
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            if (newTab != null) {
+                ensureTabContent(newTab);
+            }
+        });
+        
+        // Create controls
+        Button addButton = new Button("Add Script");
+        addButton.setOnAction(e -> showCreateButtonDialog());
+        
+        HBox controls = new HBox(10, addButton);
+        controls.setPadding(new Insets(10, 10, 10, 10)); // Move button away from border
+        controls.setAlignment(Pos.CENTER_LEFT);
+        
+        // Shown in place of the tabs until the scripts have loaded
+        Label loadingLabel = new Label("Loading scripts...");
+        loadingLabel.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        loadingLabel.setAlignment(Pos.CENTER);
+        loadingLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #666;");
+        addButton.setDisable(true);
+        
+        VBox centerSection = new VBox(5, controls, loadingLabel);
+        VBox.setVgrow(loadingLabel, Priority.ALWAYS);
+        VBox.setVgrow(tabPane, Priority.ALWAYS);
+        
+        // Initially hide the editor
+        editor.setVisible(false);
+        editor.setManaged(false);
+        
+        // Create a SplitPane for resizable editor
+        splitPane = new SplitPane();
+        splitPane.setOrientation(javafx.geometry.Orientation.VERTICAL);
+        splitPane.getItems().addAll(centerSection, editor);
+        
+        // Load saved divider position or use default
+        double dividerPosition = loadDividerPosition();
+        splitPane.setDividerPositions(dividerPosition);
+        
+        // Add listener to save divider position when it changes
+        splitPane.getDividers().get(0).positionProperty().addListener((obs, oldVal, newVal) -> {
+            saveDividerPosition(newVal.doubleValue());
+        });
+        
+        // Set minimum sizes to keep buttons visible
+        centerSection.setMinHeight(300);
+        
+        root.setCenter(splitPane);
+        
+        // Keyboard shortcuts
+        setupKeyboardShortcuts();
+        
+        // Click handler to deselect buttons when clicking outside
+        root.addEventFilter(MouseEvent.MOUSE_CLICKED, e -> {
+            // Only process left clicks to avoid interfering with context menus
+            if (e.getButton() != MouseButton.PRIMARY) {
+                return;
+            }
+            
+            // Close any open context menu
+            if (currentContextMenu != null && currentContextMenu.isShowing()) {
+                currentContextMenu.hide();
+                currentContextMenu = null;
+            }
+            
+            // Check if the target or any of its parents is a button or the editor
+            Node target = e.getPickResult().getIntersectedNode();
+            boolean isButton = false;
+            boolean isEditor = false;
+            
+            while (target != null) {
+                if (target instanceof Button && target.getStyleClass().contains("script-button")) {
+                    isButton = true;
+                    break;
+                }
+                if (target == editor || target.getParent() == editor) {
+                    isEditor = true;
+                    break;
+                }
+                // Check for the editor's internal components
+                if (isEditorPart(target)) {
+                    isEditor = true;
+                    break;
+                }
+                target = target.getParent();
+            }
+            
+            // Only clear selection if we didn't click on a script button or the editor
+            if (!isButton && !isEditor) {
+                // Check if we need to save changes before clearing
+                if (checkAndPromptSaveChanges()) {
+                    clearButtonSelection();
+                    selectedButton = null;
+                    setEditorContent("");
+                    editor.setVisible(false);
+                    editor.setManaged(false);
+                    originalContent = null;
+                    contentChanged = false;
+                    isVariableReplacement = false;
+                }
+            }
+        });
+        
+        // Read the scripts off the JavaFX thread so the window does not wait for them
+        StartupTimeline.Phase loading = StartupTimeline.begin(name + " scripts load");
+        buttonController.loadStateAsync(() -> {
+            try {
+                // Create default tab if none exist
+                if (buttonController.getAllTabs().isEmpty()) {
+                    ButtonTab defaultTab = new ButtonTab(defaultTabName);
+                    buttonController.addTab(defaultTab);
+                    buttonController.saveState();
+                }
+                setupTabsFromController();
+                centerSection.getChildren().set(1, tabPane);
+                addButton.setDisable(false);
+            } finally {
+                loading.end();
+            }
+        });
+    }
+    
+    /**
+     * Bring the tab pane in line with the controller. Tabs, grids and button nodes that are still
+     * in the model are reused and patched in place, so a refresh only creates nodes for what is new.
+     */
+    private void setupTabsFromController() {
+        // Index the current tabs by id so they can be reused
+        java.util.Map<String, Tab> existingTabs = new java.util.HashMap<>();
+        Tab addTab = null;
+        for (Tab tab : tabPane.getTabs()) {
+            if ("addTab".equals(tab.getId())) {
+                addTab = tab;
+            } else {
+                existingTabs.put(tab.getId(), tab);
+            }
+        }
+        Tab previouslySelected = tabPane.getSelectionModel().getSelectedItem();
+        idleWork.clear();
+        
+        // Get unique tabs from controller
+        java.util.Map<String, ButtonTab> uniqueTabs = new java.util.LinkedHashMap<>();
+        
+        for (ButtonTab buttonTab : buttonController.getAllTabs()) {
+            // Use tab name as key to ensure uniqueness
+            if (!uniqueTabs.containsKey(buttonTab.getName())) {
+                uniqueTabs.put(buttonTab.getName(), buttonTab);
+            }
+        }
+        
+        java.util.List<Tab> tabs = new java.util.ArrayList<>();
+        for (ButtonTab buttonTab : uniqueTabs.values()) {
+            Tab tab = existingTabs.remove(buttonTab.getId());
+            if (tab == null) {
+                tab = createTab(buttonTab);
+            } else {
+                updateTab(tab, buttonTab);
+            }
+            tabs.add(tab);
+        }
+        unbuiltTabs.removeAll(existingTabs.values());
+        
+        if (addTab == null) {
+            addTab = createAddTab();
+        }
+        tabs.add(addTab);
+        if (!tabs.equals(tabPane.getTabs())) {
+            tabPane.getTabs().setAll(tabs);
+        }
+        
+        // Keep the selected tab if it survived, otherwise select first regular tab if available
+        if (previouslySelected != null && previouslySelected != addTab && tabs.contains(previouslySelected)) {
+            tabPane.getSelectionModel().select(previouslySelected);
+        } else if (tabPane.getTabs().size() > 1) {
+            tabPane.getSelectionModel().select(0);
+        }
+        
+        // Build the visible tab now and the others on idle frames
+        Tab selectedTab = tabPane.getSelectionModel().getSelectedItem();
+        if (selectedTab != null) {
+            ensureTabContent(selectedTab);
+        }
+        for (Tab tab : unbuiltTabs) {
+            idleWork.add(() -> ensureTabContent(tab));
+        }
+    }
+    
+    private Tab createAddTab() {
+        // Add the "+" tab for creating new tabs
+        Tab addTab = new Tab(); // Don't set text to avoid duplicate "+"
+        addTab.setId("addTab");
+        addTab.setClosable(false);
+        
+        // Add both selection handler and mouse click handler
+        addTab.setOnSelectionChanged(e -> {
+            if (addTab.isSelected()) {
+                showAddTabDialog();
+                // Deselect this tab after showing dialog
+                if (tabPane.getTabs().size() > 1) {
+                    tabPane.getSelectionModel().select(tabPane.getTabs().size() - 2);
+                }
+            }
+        });
+        
+        // Add direct click handler for testing
+        Button addTabButton = new Button("+");
+        addTabButton.setOnAction(e -> showAddTabDialog());
+        SimpleStyler.styleAddTabButton(addTabButton);
+        addTab.setGraphic(addTabButton);
+        
+        return addTab;
+    }
+    
+    /**
+     * Patch a reused tab's name and point its grid, if built, at the tab's current buttons
+     */
+    private void updateTab(Tab tab, ButtonTab buttonTab) {
+        if (tab.getGraphic() instanceof Label) {
+            Label tabLabel = (Label) tab.getGraphic();
+            if (!buttonTab.getName().equals(tabLabel.getText())) {
+                tabLabel.setText(buttonTab.getName());
+            }
+        }
+        ScriptGrid grid = builtGrid(tab);
+        if (grid != null) {
+            grid.setButtonTab(buttonTab);
+        }
+    }
+    
+    private void addTabToUI(ButtonTab buttonTab) {
+        // Check if a tab with this ID already exists in the TabPane
+        for (Tab existingTab : tabPane.getTabs()) {
+            if (buttonTab.getId().equals(existingTab.getId())) {
+                return; // Tab already exists, don't add duplicate
+            }
+        }
+        
+        tabPane.getTabs().add(createTab(buttonTab));
+    }
+    
+    private Tab createTab(ButtonTab buttonTab) {
+        Tab tab = new Tab(); // Don't set text here since we'll use a graphic label
+        tab.setId(buttonTab.getId());
+        
+        // Add context menu to tab
+        setupTabContextMenu(tab, buttonTab);
+        
+        // The button grid is built when the tab is first shown
+        unbuiltTabs.add(tab);
+        return tab;
+    }
+    
+    /**
+     * Build a tab's button grid if that has not happened yet
+     * @return The tab's button grid, or null for the "+" tab and removed tabs
+     */
+    private ScriptGrid ensureTabContent(Tab tab) {
+        if (unbuiltTabs.remove(tab)) {
+            ButtonTab buttonTab = buttonController.getTab(tab.getId());
+            if (buttonTab != null) {
+                buildTabContent(tab, buttonTab);
+            }
+        }
+        return builtGrid(tab);
+    }
+    
+    /**
+     * @return The tab's button grid, or null if it has not been built
+     */
+    private ScriptGrid builtGrid(Tab tab) {
+        return tab != null && tab.getContent() instanceof ScriptGrid ? (ScriptGrid) tab.getContent() : null;
+    }
+    
+    private void buildTabContent(Tab tab, ButtonTab buttonTab) {
+        ScriptGrid grid = new ScriptGrid(buttonTab);
+        grid.setOnAction(this::scriptClicked);
+        grid.setButtonMenu(scriptButton -> createButtonContextMenu(scriptButton, tab));
+        grid.setEmptyCellMenu(position -> createEmptyCellMenu(tab, position));
+        grid.setOnMoved(buttonController::saveState);
+        grid.setOnDropFromTab((sourceTabId, buttonId, position) -> moveButtonToTab(sourceTabId, tab, buttonId, position));
+        tab.setContent(grid);
+    }
+    
+    /**
+     * Lay out a button the controller just appended to a tab
+     */
+    private void addButtonToTab(Tab tab, ScriptButton scriptButton) {
+        ButtonTab buttonTab = buttonController.getTab(tab.getId());
+        if (buttonTab == null) {
+            return;
+        }
+        // Take the first empty cell rather than the end of the list
+        buttonTab.moveToFirstEmptyCell(scriptButton);
+        refreshGrid(tab);
+    }
+        
+    private void addButtonToTabAtPosition(Tab tab, ScriptButton scriptButton, int position) {
+        ButtonTab buttonTab = buttonController.getTab(tab.getId());
+        if (buttonTab == null) {
+            return;
+        }
+        // Falls back to the first empty cell if the position is now occupied
+        buttonTab.placeInCell(scriptButton, position);
+        refreshGrid(tab);
+    }
+    
+    /**
+     * Re-read a tab's buttons into its grid, if the grid has been built
+     */
+    private void refreshGrid(Tab tab) {
+        ScriptGrid grid = builtGrid(tab);
+        if (grid != null) {
+            grid.reload();
+        }
+    }
+    
+    /**
+     * Remove a button from a tab, leaving its cell empty so the other buttons keep their places
+     */
+    private void removeButton(Tab tab, ScriptButton scriptButton) {
+        ButtonTab buttonTab = buttonController.getTab(tab.getId());
+        if (buttonTab == null) {
+            return;
+        }
+        int position = buttonTab.indexOf(scriptButton.getId());
+        if (buttonController.removeButtonFromTab(tab.getId(), scriptButton.getId())) {
+            buttonTab.keepEmptyCell(position);
+        }
+        refreshGrid(tab);
+    }
+    
+    /**
+     * Move a button dragged from another tab into a cell of this tab, or into its first empty
+     * cell when the position is -1 or taken
+     * @return Whether the button was moved
+     */
+    private boolean moveButtonToTab(String sourceTabId, Tab targetTab, String buttonId, int position) {
+        ButtonTab sourceTab = buttonController.getTab(sourceTabId);
+        ScriptButton draggedScriptButton = buttonController.getButton(sourceTabId, buttonId);
+        if (sourceTab == null || draggedScriptButton == null) {
+            return false;
+        }
+        int sourcePosition = sourceTab.indexOf(buttonId);
+        if (!buttonController.moveButtonBetweenTabs(sourceTabId, targetTab.getId(), buttonId)) {
+            return false;
+        }
+        sourceTab.keepEmptyCell(sourcePosition);
+        
+        ButtonTab buttonTab = buttonController.getTab(targetTab.getId());
+        if (position >= 0) {
+            buttonTab.placeInCell(draggedScriptButton, position);
+        } else {
+            buttonTab.moveToFirstEmptyCell(draggedScriptButton);
+        }
+        
+        for (Tab tab : tabPane.getTabs()) {
+            if (sourceTabId.equals(tab.getId())) {
+                refreshGrid(tab);
+            }
+        }
+        refreshGrid(targetTab);
+        buttonController.saveState();
+        return true;
+    }
+    
+    /**
+     * Run a script as a click on its button: fill in variables, show it and copy it
+     */
+    private void scriptClicked(ScriptButton scriptButton) {
+        // Check if we need to save changes before switching
+        if (!checkAndPromptSaveChanges()) {
+            return; // User cancelled or there was an error
+        }
+        
+        selectedButton = scriptButton;
+        
+        // Show the editor for editing
+        editor.setVisible(true);
+        editor.setManaged(true);
+        
+        // Process variables and escaped parentheses in the script content
+        String originalContent = scriptButton.getContent();
+        VariableReplacer.ParsedScript script = scriptButton.getParsedContent();
+        Map<String, String> values = VariableReplacer.promptForValues(script, scriptButton.getName());
+        if (values == null || originalContent == null) {
+            // User cancelled variable input, don't proceed
+            return;
+        }
+        
+        // Get display content (with backslashes for escaped parentheses)
+        String displayContent = script.render(values);
+        
+        // Get clipboard content (remove backslashes from escaped parentheses)
+        String clipboardContent = script.renderForClipboard(values);
+        
+        // Set flag to indicate this content change is from variable replacement
+        isVariableReplacement = true;
+        setEditorContent(displayContent);
+        // Store original content for change detection
+        this.originalContent = scriptButton.getContent();
+        this.contentChanged = false;
+        // Reset the flag after content is set
+        isVariableReplacement = false;
+        
+        // Copy to clipboard only if content is not empty
+        ClipboardContent content = clipboardContent != null ? toClipboard(clipboardContent) : null;
+        if (content != null) {
+            Clipboard.getSystemClipboard().setContent(content);
+        }
+        
+        // Visual feedback for selection
+        clearButtonSelection();
+        ScriptGrid grid = builtGrid(tabPane.getSelectionModel().getSelectedItem());
+        if (grid != null) {
+            grid.setSelected(scriptButton);
+        }
+    }
+    
+    private ContextMenu createEmptyCellMenu(Tab tab, int position) {
+        // Close any previously open context menu
+        if (currentContextMenu != null && currentContextMenu.isShowing()) {
+            currentContextMenu.hide();
+        }
+        
+        ContextMenu gridContextMenu = new ContextMenu();
+        MenuItem createScriptItem = new MenuItem("Create Script Here");
+        createScriptItem.setOnAction(event -> {
+            ButtonTab buttonTab = buttonController.getTab(tab.getId());
+            if (buttonTab != null) {
+                showCreateButtonDialogAtPosition(buttonTab, position);
+            }
+        });
+        gridContextMenu.getItems().add(createScriptItem);
+        
+        currentContextMenu = gridContextMenu;
+        return gridContextMenu;
+    }
+    
+    private ContextMenu createButtonContextMenu(ScriptButton scriptButton, Tab tab) {
+        ContextMenu contextMenu = new ContextMenu();
+        
+        MenuItem updateItem = new MenuItem("Update");
+        updateItem.setOnAction(e -> updateButtonContent(scriptButton));
+        
+        MenuItem renameItem = new MenuItem("Rename");
+        renameItem.setOnAction(e -> showRenameButtonDialog(scriptButton, tab));
+        
+        MenuItem changeColorItem = new MenuItem("Change Color");
+        changeColorItem.setOnAction(e -> showChangeColorDialog(scriptButton, tab));
+        
+        MenuItem duplicateItem = new MenuItem("Duplicate");
+        duplicateItem.setOnAction(e -> duplicateButton(tab, scriptButton));
+        
+        MenuItem deleteItem = new MenuItem("Delete");
+        deleteItem.setOnAction(e -> deleteButton(tab, scriptButton));
+        
+        contextMenu.getItems().addAll(updateItem, new SeparatorMenuItem(), renameItem, changeColorItem, duplicateItem, deleteItem);
+        return contextMenu;
+    }
+    
+    private void setupTabContextMenu(Tab tab, ButtonTab buttonTab) {
+        if ("addTab".equals(tab.getId())) return;
+        
+        ContextMenu contextMenu = new ContextMenu();
+        
+        MenuItem renameItem = new MenuItem("Rename Tab");
+        renameItem.setOnAction(e -> showRenameTabDialog(tab));
+        
+        MenuItem deleteItem = new MenuItem("Delete Tab");
+        deleteItem.setOnAction(e -> deleteTab(tab));
+        
+        contextMenu.getItems().addAll(renameItem, deleteItem);
+        
+        // Create a label that sizes to its content
+        Label tabLabel = new Label(buttonTab.getName()); // Use ButtonTab name, not tab text
+        tabLabel.setContextMenu(contextMenu);
+        // Remove fixed widths to allow proportional sizing based on text content
+        tabLabel.setMinWidth(Region.USE_COMPUTED_SIZE);
+        tabLabel.setPrefWidth(Region.USE_COMPUTED_SIZE);
+        tabLabel.setMaxWidth(Region.USE_COMPUTED_SIZE);
+        
+        // Add drag-and-drop support to the label (which will now be larger)
+        setupTabHeaderDragAndDrop(tabLabel, tab);
+        
+        tab.setGraphic(tabLabel);
+    }
+    
+    private void showCreateButtonDialog() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("New " + titleCase(buttonName));
+        dialog.setHeaderText("Create a new " + buttonName);
+        dialog.setContentText("Button name:");
+        dialog.initStyle(StageStyle.UTILITY);
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(dialog);
+        
+        Optional<String> result = dialog.showAndWait();
+        result.ifPresent(name -> {
+            if (!name.trim().isEmpty()) {
+                Tab selectedTab = tabPane.getSelectionModel().getSelectedItem();
+                if (selectedTab != null && !"addTab".equals(selectedTab.getId())) {
+                    ScriptButton newButton = new ScriptButton(name, getEditorContent(), Color.GRAY);
+                    buttonController.addButtonToTab(selectedTab.getId(), newButton);
+                    addButtonToTab(selectedTab, newButton);
+                    buttonController.saveState();
+                }
+            }
+        });
+    }
+    
+    private void showCreateButtonDialogAtPosition(ButtonTab buttonTab, int position) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("New " + titleCase(buttonName));
+        dialog.setHeaderText("Create a new " + buttonName + " at position (" + (position / ScriptGrid.COLUMNS + 1) + ", " + (position % ScriptGrid.COLUMNS + 1) + ")");
+        dialog.setContentText("Button name:");
+        dialog.initStyle(StageStyle.UTILITY);
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(dialog);
+        
+        Optional<String> result = dialog.showAndWait();
+        result.ifPresent(name -> {
+            if (!name.trim().isEmpty()) {
+                // Find the tab in the UI
+                Tab targetTab = null;
+                for (Tab tab : tabPane.getTabs()) {
+                    if (buttonTab.getId().equals(tab.getId())) {
+                        targetTab = tab;
+                        break;
+                    }
+                }
+                
+                if (targetTab != null) {
+                    ScriptButton newButton = new ScriptButton(name, getEditorContent(), Color.GRAY);
+                    buttonController.addButtonToTab(buttonTab.getId(), newButton);
+                    
+                    // Add button at specific position instead of first empty
+                    addButtonToTabAtPosition(targetTab, newButton, position);
+                    buttonController.saveState();
+                }
+            }
+        });
+    }
+    
+    private void showAddTabDialog() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("New Tab");
+        dialog.setHeaderText("Create a new tab");
+        dialog.setContentText("Tab name:");
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(dialog);
+        
+        Optional<String> result = dialog.showAndWait();
+        result.ifPresent(name -> {
+            String trimmedName = name.trim();
+            if (!trimmedName.isEmpty()) {
+                if (buttonController.isTabNameDuplicate(trimmedName)) {
+                    // Show error dialog for duplicate name
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setTitle("Duplicate Tab Name");
+                    alert.setHeaderText("Tab name already exists");
+                    alert.setContentText("A tab with the name '" + trimmedName + "' already exists. Please choose a different name.");
+                    
+                    // Configure dialog to be independent and always on top
+                    DialogUtil.configureDialog(alert);
+                    alert.showAndWait();
+                    
+                    // Recursively show the dialog again
+                    showAddTabDialog();
+                    return;
+                }
+                
+                ButtonTab newTab = new ButtonTab(trimmedName);
+                buttonController.addTab(newTab);
+                
+                // Remove the "+" tab temporarily
+                Tab addTab = tabPane.getTabs().get(tabPane.getTabs().size() - 1);
+                tabPane.getTabs().remove(addTab);
+                
+                // Add new tab
+                addTabToUI(newTab);
+                
+                // Re-add the "+" tab
+                tabPane.getTabs().add(addTab);
+                
+                // Select the new tab
+                tabPane.getSelectionModel().select(tabPane.getTabs().size() - 2);
+                
+                buttonController.saveState();
+            }
+        });
+    }
+    
+    private void showRenameButtonDialog(ScriptButton scriptButton, Tab tab) {
+        TextInputDialog dialog = new TextInputDialog(scriptButton.getName());
+        dialog.setTitle("Rename Button");
+        dialog.setHeaderText("Rename " + buttonName);
+        dialog.setContentText("Button name:");
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(dialog);
+        
+        Optional<String> result = dialog.showAndWait();
+        result.ifPresent(name -> {
+            if (!name.trim().isEmpty()) {
+                scriptButton.setName(name);
+                refreshGrid(tab);
+                buttonController.buttonEdited(scriptButton);
+                buttonController.saveState();
+            }
+        });
+    }
+    
+    private void showChangeColorDialog(ScriptButton scriptButton, Tab tab) {
+        ColorPicker colorPicker = new ColorPicker(scriptButton.getColor());
+        Dialog<Color> dialog = new Dialog<>();
+        dialog.setTitle("Change Button Color");
+        dialog.setHeaderText("Choose a color for the button");
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(dialog);
+        
+        ButtonType okButtonType = new ButtonType("OK", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(okButtonType, ButtonType.CANCEL);
+        
+        dialog.getDialogPane().setContent(colorPicker);
+        
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton == okButtonType) {
+                return colorPicker.getValue();
+            }
+            return null;
+        });
+        
+        Optional<Color> result = dialog.showAndWait();
+        result.ifPresent(color -> {
+            scriptButton.setColor(color);
+            refreshGrid(tab);
+            buttonController.saveState();
+        });
+    }
+    
+    private void duplicateButton(Tab tab, ScriptButton scriptButton) {
+        ScriptButton duplicate = new ScriptButton(scriptButton);
+        buttonController.addButtonToTab(tab.getId(), duplicate);
+        addButtonToTab(tab, duplicate);
+        buttonController.saveState();
+    }
+    
+    private void deleteButton(Tab tab, ScriptButton scriptButton) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Delete Button");
+        alert.setHeaderText("Delete " + buttonName);
+        alert.setContentText("Are you sure you want to delete '" + scriptButton.getName() + "'?");
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(alert);
+        
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            removeButton(tab, scriptButton);
+            
+            if (selectedButton == scriptButton) {
+                selectedButton = null;
+                setEditorContent("");
+                editor.setVisible(false);
+                editor.setManaged(false);
+            }
+            
+            buttonController.saveState();
+        }
+    }
+    
+    private void showRenameTabDialog(Tab tab) {
+        ButtonTab buttonTab = buttonController.getTab(tab.getId());
+        if (buttonTab == null) return;
+        
+        TextInputDialog dialog = new TextInputDialog(buttonTab.getName());
+        dialog.setTitle("Rename Tab");
+        dialog.setHeaderText("Rename tab");
+        dialog.setContentText("Tab name:");
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(dialog);
+        
+        Optional<String> result = dialog.showAndWait();
+        result.ifPresent(name -> {
+            String trimmedName = name.trim();
+            if (!trimmedName.isEmpty()) {
+                // Check for duplicate name, excluding the current tab
+                if (buttonController.isTabNameDuplicate(trimmedName, buttonTab.getId())) {
+                    // Show error dialog for duplicate name
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setTitle("Duplicate Tab Name");
+                    alert.setHeaderText("Tab name already exists");
+                    alert.setContentText("A tab with the name '" + trimmedName + "' already exists. Please choose a different name.");
+                    
+                    // Configure dialog to be independent and always on top
+                    DialogUtil.configureDialog(alert);
+                    alert.showAndWait();
+                    
+                    // Recursively show the dialog again
+                    showRenameTabDialog(tab);
+                    return;
+                }
+                
+                buttonController.renameTab(buttonTab.getId(), trimmedName);
+                ((Label) tab.getGraphic()).setText(trimmedName);
+                buttonController.saveState();
+            }
+        });
+    }
+    
+    private void deleteTab(Tab tab) {
+        if (tabPane.getTabs().size() <= 2) { // Account for the "+" tab
+            showAlert("Cannot Delete", "Cannot delete the last tab.");
+            return;
+        }
+        
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Delete Tab");
+        alert.setHeaderText("Delete tab");
+        alert.setContentText("Are you sure you want to delete '" + tab.getText() + "'?");
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(alert);
+        
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            buttonController.removeTab(tab.getId());
+            tabPane.getTabs().remove(tab);
+            unbuiltTabs.remove(tab);
+            buttonController.saveState();
+        }
+    }
+    
+    private void setupKeyboardShortcuts() {
+        root.setOnKeyPressed(e -> {
+            if (e.isControlDown()) {
+                switch (e.getCode()) {
+                    case N:
+                        showCreateButtonDialog();
+                        e.consume();
+                        break;
+                    case S:
+                        handleSaveShortcut();
+                        e.consume();
+                        break;
+                }
+            } else if (e.getCode() == KeyCode.DELETE && selectedButton != null) {
+                // Find and delete selected button
+                Tab currentTab = tabPane.getSelectionModel().getSelectedItem();
+                if (currentTab != null && !"addTab".equals(currentTab.getId())) {
+                    removeButton(currentTab, selectedButton);
+                    selectedButton = null;
+                    setEditorContent("");
+                    editor.setVisible(false);
+                    editor.setManaged(false);
+                    
+                    buttonController.saveState();
+                }
+                e.consume();
+            }
+        });
+    }
+    
+    private void clearButtonSelection() {
+        // Remove the selection highlight from every built grid
+        for (Tab tab : tabPane.getTabs()) {
+            ScriptGrid grid = builtGrid(tab);
+            if (grid != null) {
+                grid.setSelected(null);
+            }
+        }
+    }
+    
+    private void showAlert(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(alert);
+        alert.showAndWait();
+    }
+    
+    /**
+     * Handles Ctrl+S shortcut - saves current button or prompts to create new one.
+     */
+    private void handleSaveShortcut() {
+        if (selectedButton != null) {
+            // Save current button content
+            selectedButton.setContent(getEditorContent());
+            buttonController.buttonEdited(selectedButton);
+            buttonController.saveState();
+            
+            // Update tracking variables
+            originalContent = getEditorContent();
+            contentChanged = false;
+            
+            showAlert("Saved", "Button '" + selectedButton.getName() + "' has been saved.");
+        } else {
+            // No button selected, prompt to create new one
+            String currentContent = getEditorContent().trim();
+            if (!isEmptyContent(currentContent)) {
+                // Ask user for button name
+                TextInputDialog dialog = new TextInputDialog();
+                dialog.setTitle("Save as New Button");
+                dialog.setHeaderText("Create a new " + buttonName + " with the current " + contentName());
+                dialog.setContentText("Button name:");
+                
+                // Configure dialog to be independent and always on top
+                DialogUtil.configureDialog(dialog);
+                
+                Optional<String> result = dialog.showAndWait();
+                result.ifPresent(name -> {
+                    if (!name.trim().isEmpty()) {
+                        Tab selectedTab = tabPane.getSelectionModel().getSelectedItem();
+                        if (selectedTab != null && !"addTab".equals(selectedTab.getId())) {
+                            ScriptButton newButton = new ScriptButton(name.trim(), currentContent, Color.GRAY);
+                            buttonController.addButtonToTab(selectedTab.getId(), newButton);
+                            addButtonToTab(selectedTab, newButton);
+                            buttonController.saveState();
+                            
+                            // Select the new button
+                            selectedButton = newButton;
+                            editor.setVisible(true);
+                            editor.setManaged(true);
+                            originalContent = currentContent;
+                            contentChanged = false;
+                            
+                            showAlert("Created", "New " + buttonName + " '" + name.trim() + "' has been created and saved.");
+                        }
+                    }
+                });
+            } else {
+                showAlert("No Content", "Enter some content in the " + editorName() + " before using Ctrl+S to save.");
+            }
+        }
+    }
+    
+    private void setupTabHeaderDragAndDrop(Label tabLabel, Tab tab) {
+        // Add padding to ensure good click area for drag-and-drop
+        tabLabel.setPadding(new Insets(8, 16, 8, 16));
+        
+        // Enable tab dragging for reordering
+        tabLabel.setOnDragDetected(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && !"addTab".equals(tab.getId())) {
+                Dragboard dragboard = tabLabel.startDragAndDrop(TransferMode.MOVE);
+                ClipboardContent content = new ClipboardContent();
+                content.putString("TAB:" + tab.getId()); // Prefix with TAB: to distinguish from button drags
+                dragboard.setContent(content);
+                
+                // Add visual feedback
+                tabLabel.setStyle("-fx-background-color: #b0b0b0; -fx-background-radius: 3px;");
+                e.consume();
+            }
+        });
+        
+        tabLabel.setOnDragDone(e -> {
+            tabLabel.setStyle("");
+            e.consume();
+        });
+        
+        tabLabel.setOnDragOver(e -> {
+            if (e.getDragboard().hasString() && !"addTab".equals(tab.getId())) {
+                String dragData = e.getDragboard().getString();
+                
+                if (dragData.startsWith("TAB:")) {
+                    // Tab reordering - show different visual feedback
+                    e.acceptTransferModes(TransferMode.MOVE);
+                    tabLabel.setStyle("-fx-background-color: #90CAF9; -fx-background-radius: 3px; -fx-border-color: #2196F3; -fx-border-width: 0 0 3 0;");
+                } else {
+                    // Button dropping - existing behavior
+                    e.acceptTransferModes(TransferMode.MOVE);
+                    tabLabel.setStyle("-fx-background-color: #e0e0e0; -fx-background-radius: 3px;");
+                    
+                    // Automatically switch to this tab when dragging over it
+                    if (!tabPane.getSelectionModel().getSelectedItem().equals(tab)) {
+                        tabPane.getSelectionModel().select(tab);
+                    }
+                }
+            }
+            e.consume();
+        });
+        
+        tabLabel.setOnDragExited(e -> {
+            tabLabel.setStyle("");
+            e.consume();
+        });
+        
+        tabLabel.setOnDragDropped(e -> {
+            Dragboard db = e.getDragboard();
+            boolean success = false;
+            if (db.hasString()) {
+                String dragData = db.getString();
+                
+                if (dragData.startsWith("TAB:")) {
+                    // Tab reordering
+                    String draggedTabId = dragData.substring(4); // Remove "TAB:" prefix
+                    if (!draggedTabId.equals(tab.getId())) {
+                        success = reorderTabs(draggedTabId, tab.getId());
+                    }
+                } else {
+                    // Button dropping - existing behavior
+                    String[] parts = dragData.split(":");
+                    String draggedButtonId = parts[0];
+                    String sourceTabId = parts.length > 1 ? parts[1] : null;
+                    
+                    // Only process if this is a different tab
+                    if (sourceTabId != null && !sourceTabId.equals(tab.getId())) {
+                        // Move button into the first empty cell of this tab
+                        if (moveButtonToTab(sourceTabId, tab, draggedButtonId, -1)) {
+                            // Switch to the target tab
+                            tabPane.getSelectionModel().select(tab);
+                            success = true;
+                        }
+                    }
+                }
+            }
+            tabLabel.setStyle("");
+            e.setDropCompleted(success);
+            e.consume();
+        });
+    }
+    
+    // Public methods for testing and external access
+    public BorderPane getRoot() {
+        return root;
+    }
+    
+    public TabPane getTabPane() {
+        return tabPane;
+    }
+    
+    public ButtonController getButtonController() {
+        return buttonController;
+    }
+    
+    public void refreshButtons() {
+        setupTabsFromController();
+    }
+    
+    /**
+     * Bring a tab to the front
+     */
+    public void selectTab(String tabId) {
+        for (Tab tab : tabPane.getTabs()) {
+            if (tabId.equals(tab.getId())) {
+                tabPane.getSelectionModel().select(tab);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Select a script's tab and run it exactly as if its button had been clicked
+     * @return false if the tab or button is no longer shown
+     */
+    public boolean runScript(String tabId, String buttonId) {
+        ScriptButton scriptButton = buttonController.getButton(tabId, buttonId);
+        if (scriptButton == null) {
+            return false;
+        }
+        for (Tab tab : tabPane.getTabs()) {
+            if (tabId.equals(tab.getId())) {
+                tabPane.getSelectionModel().select(tab);
+                ScriptGrid grid = ensureTabContent(tab);
+                if (grid != null) {
+                    grid.scrollToButton(scriptButton);
+                }
+                scriptClicked(scriptButton);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Reorders tabs by moving the dragged tab to the position of the target tab.
+     * 
+     * @param draggedTabId ID of the tab being dragged
+     * @param targetTabId ID of the tab being dropped on
+     * @return true if reordering was successful
+     */
+    private boolean reorderTabs(String draggedTabId, String targetTabId) {
+        try {
+            // Find current positions
+            int draggedIndex = -1;
+            int targetIndex = -1;
+            
+            for (int i = 0; i < tabPane.getTabs().size(); i++) {
+                Tab tab = tabPane.getTabs().get(i);
+                if (draggedTabId.equals(tab.getId())) {
+                    draggedIndex = i;
+                }
+                if (targetTabId.equals(tab.getId())) {
+                    targetIndex = i;
+                }
+            }
+            
+            if (draggedIndex != -1 && targetIndex != -1 && draggedIndex != targetIndex) {
+                // Remove the dragged tab and insert it at the target position
+                Tab draggedTab = tabPane.getTabs().remove(draggedIndex);
+                
+                // Adjust target index if we removed a tab before it
+                if (draggedIndex < targetIndex) {
+                    targetIndex--;
+                }
+                
+                tabPane.getTabs().add(targetIndex, draggedTab);
+                
+                // Update the button controller tab order
+                buttonController.reorderTabs(draggedTabId, targetTabId);
+                buttonController.saveState();
+                buttonController.saveState();
+                
+                // Keep the dragged tab selected
+                tabPane.getSelectionModel().select(draggedTab);
+                
+                return true;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Updates the button content with current editor content after confirmation.
+     * @param scriptButton the button to update
+     */
+    private void updateButtonContent(ScriptButton scriptButton) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Update Button Content");
+        alert.setHeaderText("Update \"" + scriptButton.getName() + "\" with current " + contentName() + "?");
+        alert.setContentText("This will replace the button's content with the " + contentName() + " currently in the " + editorName() + ".");
+        
+        // Configure dialog to be independent and always on top
+        DialogUtil.configureDialog(alert);
+        
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            scriptButton.setContent(getEditorContent());
+            buttonController.buttonEdited(scriptButton);
+            buttonController.saveState();
+            
+            // Update tracking variables if this is the currently selected button
+            if (selectedButton == scriptButton) {
+                originalContent = getEditorContent();
+                contentChanged = false;
+            }
+            
+            showAlert("Success", "Button content updated successfully.");
+        }
+    }
+    
+    /**
+     * Checks if content has been changed and prompts user to save if needed.
+     * @return true if it's safe to proceed (no changes or user saved/discarded), false if user cancelled
+     */
+    private boolean checkAndPromptSaveChanges() {
+        pollContentChanged();
+        
+        if (selectedButton != null && contentChanged && originalContent != null) {
+            // Prevent multiple save dialogs from being shown
+            if (saveDialogShowing) {
+                return false; // Don't proceed if dialog is already showing
+            }
+            
+            saveDialogShowing = true;
+            
+            try {
+                Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+                alert.setTitle("Save Changes");
+                alert.setHeaderText("Save changes to \"" + selectedButton.getName() + "\"?");
+                alert.setContentText("You have unsaved changes. Do you want to save them?");
+                
+                // Configure dialog to be independent and always on top
+                DialogUtil.configureDialog(alert);
+                
+                ButtonType saveButton = new ButtonType("Save", ButtonBar.ButtonData.YES);
+                ButtonType discardButton = new ButtonType("Discard", ButtonBar.ButtonData.NO);
+                ButtonType cancelButton = new ButtonType("Cancel", ButtonBar.ButtonData.CANCEL_CLOSE);
+                
+                alert.getButtonTypes().setAll(saveButton, discardButton, cancelButton);
+                
+                Optional<ButtonType> result = alert.showAndWait();
+                
+                if (result.isPresent()) {
+                    if (result.get() == saveButton) {
+                        // Save the changes
+                        selectedButton.setContent(getEditorContent());
+                        buttonController.buttonEdited(selectedButton);
+                        buttonController.saveState();
+                        originalContent = getEditorContent();
+                        contentChanged = false;
+                        return true;
+                    } else if (result.get() == discardButton) {
+                        // Discard changes
+                        contentChanged = false;
+                        return true;
+                    } else {
+                        // Cancel - don't proceed
+                        return false;
+                    }
+                } else {
+                    // Dialog was closed without selection - treat as cancel
+                    return false;
+                }
+            } finally {
+                saveDialogShowing = false;
+            }
+        }
+        return true; // No changes to save
+    }
+    
+    /**
+     * Loads the saved divider position from the preferences store.
+     * @return the saved divider position, or 0.7 as default
+     */
+    private double loadDividerPosition() {
+        try {
+            Double position = openPreferences().get(dividerPositionKey, Paths.get(preferencesFile),
+                ScriptsPanel::readLegacyDividerPosition);
+            if (position != null) {
+                return position;
+            }
+        } catch (Exception e) {
+            // Silently ignore and use default
+        }
+        return 0.7; // Default position
+    }
+    
+    /**
+     * Saves the divider position to the preferences store; a drag saves once it settles.
+     * @param position the divider position to save
+     */
+    private void saveDividerPosition(double position) {
+        AsyncFileOperations.debouncedSave(preferencesSaveKey, 500, () -> {
+            try {
+                openPreferences().commit(new KeyValueStore.WriteBatch().put(dividerPositionKey, position));
+            } catch (Exception e) {
+                // Silently ignore save errors
+            }
+        });
+    }
+    
+    private static KeyValueStore.Namespace openPreferences() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(PREFERENCES_NAMESPACE);
+    }
+    
+    /**
+     * Read the divider position from the old properties file
+     */
+    private static Double readLegacyDividerPosition(Path file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        String position = props.getProperty("splitPaneDividerPosition");
+        return position != null ? Double.valueOf(position) : null;
+    }
+    
+    /**
+     * Compare the editor with the selected button's saved content, unless the editor is being
+     * filled in from the button
+     */
+    protected final void updateContentChanged() {
+        if (selectedButton != null && originalContent != null && !isVariableReplacement) {
+            contentChanged = !originalContent.equals(getEditorContent());
+        }
+    }
+    
+    /**
+     * Bring the change flag up to date before asking to save, for editors that cannot report
+     * edits as they happen
+     */
+    protected void pollContentChanged() {
+    }
+    
+    protected abstract String getEditorContent();
+    
+    protected abstract void setEditorContent(String content);
+    
+    /**
+     * @return Whether a clicked node is one of the editor's internal parts
+     */
+    protected abstract boolean isEditorPart(Node node);
+    
+    /**
+     * @return The clipboard form of a script, or null if there is nothing to copy
+     */
+    protected abstract ClipboardContent toClipboard(String content);
+    
+    /**
+     * @return Whether trimmed editor content counts as empty
+     */
+    protected abstract boolean isEmptyContent(String content);
+    
+    /**
+     * @return What the editor holds, for dialogs, e.g. "text"
+     */
+    protected abstract String contentName();
+    
+    /**
+     * @return What the editor is called in dialogs, e.g. "text area"
+     */
+    protected abstract String editorName();
+    
+    private static String titleCase(String words) {
+        StringBuilder result = new StringBuilder(words.length());
+        for (String word : words.split(" ")) {
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return result.toString();
+    }
+}
@@ -14,6 +14,8 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.paint.Color;
 import javafx.util.Callback;
 import com.doterra.app.model.StickyNote;
+import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.KeyValueStore;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
@@ -23,24 +25,37 @@ import java.time.format.DateTimeFormatter;
  * Sticky note panel that manages multiple sticky notes.
  * Each note can be opened in its own floating window.
  */
-public class StickyNotePanel extends VBox {
+public class StickyNotePanel extends VBox implements Hibernatable<StickyNotePanel.ViewState> {
     
     private static final String STICKY_NOTES_FILE = "data/sticky_notes.dat";
+    private static final String STORE_NAMESPACE = "sticky_notes";
+    static final String NOTES_LIST = "note";
     private static final String PREFERENCES_FILE = "data/sticky_notes_preferences.dat";
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String PREFERENCES_NAMESPACE = "preferences";
+    private static final String COLUMN_WIDTHS_KEY = "sticky_notes/column_widths";
     private ObservableList<StickyNote> stickyNotes;
     private Map<String, Stage> openWindows;
     private Map<String, TextArea> noteTextAreas;
     private TableView<StickyNote> notesTable;
+    private TextField newNoteTitle;
     private Map<String, Double> columnWidths = new HashMap<>();
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
     
     public StickyNotePanel() {
+        this(readSavedData());
+    }
+    
+    /**
+     * @param saved Notes and preferences read by {@link #readSavedData()}, e.g. on a background thread
+     */
+    public StickyNotePanel(SavedData saved) {
         stickyNotes = FXCollections.observableArrayList();
         openWindows = new HashMap<>();
         noteTextAreas = new HashMap<>();
-        loadPreferences();
+        columnWidths = saved.columnWidths;
         initializePanel();
-        loadStickyNotes();
+        stickyNotes.addAll(saved.notes);
     }
     
     private void initializePanel() {
@@ -54,7 +69,7 @@ public class StickyNotePanel extends VBox {
         HBox createNoteBox = new HBox(10);
         createNoteBox.setAlignment(Pos.CENTER_LEFT);
         
-        TextField newNoteTitle = new TextField();
+        newNoteTitle = new TextField();
         newNoteTitle.setPromptText("Enter note title...");
         newNoteTitle.setPrefWidth(200);
         
@@ -410,37 +425,58 @@ public class StickyNotePanel extends VBox {
     }
     
     
+    /**
+     * Save with debouncing; typing and moving a note window save once they settle
+     */
     private void saveStickyNotes() {
-        try {
-            // Ensure parent directory exists
-            File file = new File(STICKY_NOTES_FILE);
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(STICKY_NOTES_FILE))) {
-                oos.writeObject(new ArrayList<>(stickyNotes));
+        AsyncFileOperations.debouncedSave("sticky-notes", 500, this::snapshotStickyNotes, batch -> {
+            try {
+                openNotesStore().commit(batch);
+            } catch (IOException e) {
+                System.err.println("Error saving sticky notes: " + e.getMessage());
             }
+        });
+    }
+    
+    /**
+     * Serialize the notes into a batch (runs on JavaFX thread, so later edits do not affect the save)
+     */
+    private KeyValueStore.WriteBatch snapshotStickyNotes() {
+        try {
+            return new KeyValueStore.WriteBatch().putList(NOTES_LIST, stickyNotes, StickyNote::getId);
         } catch (IOException e) {
             System.err.println("Error saving sticky notes: " + e.getMessage());
+            return new KeyValueStore.WriteBatch();
         }
     }
     
-    @SuppressWarnings("unchecked")
-    private void loadStickyNotes() {
+    /**
+     * Read the saved notes and preferences; safe to call off the JavaFX thread
+     */
+    public static SavedData readSavedData() {
+        return new SavedData(readStickyNotes(), readPreferences());
+    }
+    
+    private static List<StickyNote> readStickyNotes() {
         try {
-            File file = new File(STICKY_NOTES_FILE);
-            if (file.exists()) {
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                    List<StickyNote> loadedNotes = (List<StickyNote>) ois.readObject();
-                    stickyNotes.clear();
-                    stickyNotes.addAll(loadedNotes);
-                }
-            }
-        } catch (IOException | ClassNotFoundException e) {
+            return openNotesStore().getList(NOTES_LIST);
+        } catch (IOException e) {
             System.err.println("Error loading sticky notes: " + e.getMessage());
         }
+        return new ArrayList<>();
+    }
+    
+    /**
+     * Open the notes' namespace, importing the old whole-file save the first time
+     */
+    static KeyValueStore.Namespace openNotesStore() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(STORE_NAMESPACE, Paths.get(STICKY_NOTES_FILE), (file, store) -> {
+            @SuppressWarnings("unchecked")
+            List<StickyNote> legacyNotes = (List<StickyNote>) KeyValueStore.readLegacyFile(file);
+            if (legacyNotes != null) {
+                store.commit(new KeyValueStore.WriteBatch().putList(NOTES_LIST, legacyNotes, StickyNote::getId));
+            }
+        });
     }
     
     /**
@@ -452,6 +488,47 @@ public class StickyNotePanel extends VBox {
         return this;
     }
     
+    /**
+     * Open a note's window, e.g. from the command palette
+     */
+    public void openNote(String noteId) {
+        for (StickyNote note : stickyNotes) {
+            if (note.getId().equals(noteId)) {
+                openStickyNote(note);
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public boolean canHibernate() {
+        for (Stage window : openWindows.values()) {
+            if (window.isShowing()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public ViewState saveViewState() {
+        StickyNote selected = notesTable.getSelectionModel().getSelectedItem();
+        return new ViewState(newNoteTitle.getText(), selected != null ? selected.getId() : null,
+            Hibernatable.firstVisibleIndex(notesTable));
+    }
+    
+    @Override
+    public void restoreViewState(ViewState state) {
+        newNoteTitle.setText(state.newNoteTitle);
+        for (StickyNote note : stickyNotes) {
+            if (note.getId().equals(state.selectedNoteId)) {
+                notesTable.getSelectionModel().select(note);
+                break;
+            }
+        }
+        Hibernatable.whenSkinned(notesTable, () -> notesTable.scrollTo(state.firstVisibleRow));
+    }
+    
     /**
      * Cleanup method to ensure sticky notes are saved when application closes.
      */
@@ -470,45 +547,42 @@ public class StickyNotePanel extends VBox {
     }
     
     /**
-     * Load UI preferences including column widths
+     * Read UI preferences including column widths
      */
-    @SuppressWarnings("unchecked")
-    private void loadPreferences() {
-        File file = new File(PREFERENCES_FILE);
-        if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                columnWidths = (Map<String, Double>) ois.readObject();
-            } catch (Exception e) {
-                columnWidths = new HashMap<>();
+    private static Map<String, Double> readPreferences() {
+        try {
+            Map<String, Double> widths = openPreferences().get(COLUMN_WIDTHS_KEY, Paths.get(PREFERENCES_FILE));
+            if (widths != null) {
+                return widths;
             }
+        } catch (Exception e) {
+            // Fall back to default widths
         }
+        return new HashMap<>();
     }
     
     /**
      * Save UI preferences including column widths
      */
     private void savePreferences() {
-        try {
-            // Save current column widths
-            for (TableColumn<StickyNote, ?> column : notesTable.getColumns()) {
-                if (column.getText() != null && !column.getText().isEmpty()) {
-                    columnWidths.put(column.getText(), column.getWidth());
-                }
-            }
-            
-            // Ensure parent directory exists
-            File file = new File(PREFERENCES_FILE);
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(PREFERENCES_FILE))) {
-                oos.writeObject(columnWidths);
+        // Save current column widths; a column resize saves once it settles
+        for (TableColumn<StickyNote, ?> column : notesTable.getColumns()) {
+            if (column.getText() != null && !column.getText().isEmpty()) {
+                columnWidths.put(column.getText(), column.getWidth());
             }
-        } catch (Exception e) {
-            // Silently ignore preference save errors
         }
+        HashMap<String, Double> widths = new HashMap<>(columnWidths);
+        AsyncFileOperations.debouncedSave("sticky-notes-preferences", 500, () -> {
+            try {
+                openPreferences().commit(new KeyValueStore.WriteBatch().put(COLUMN_WIDTHS_KEY, widths));
+            } catch (Exception e) {
+                // Silently ignore preference save errors
+            }
+        });
+    }
+    
+    private static KeyValueStore.Namespace openPreferences() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(PREFERENCES_NAMESPACE);
     }
     
     /**
@@ -529,4 +603,32 @@ public class StickyNotePanel extends VBox {
             }
         }
     }
+    
+    /**
+     * The panel's saved notes and preferences, read before the view is built
+     */
+    public static final class SavedData {
+        private final List<StickyNote> notes;
+        private final Map<String, Double> columnWidths;
+        
+        private SavedData(List<StickyNote> notes, Map<String, Double> columnWidths) {
+            this.notes = notes;
+            this.columnWidths = columnWidths;
+        }
+    }
+    
+    /**
+     * The selected note, a title being typed and the scroll position
+     */
+    public static final class ViewState {
+        private final String newNoteTitle;
+        private final String selectedNoteId;
+        private final int firstVisibleRow;
+        
+        private ViewState(String newNoteTitle, String selectedNoteId, int firstVisibleRow) {
+            this.newNoteTitle = newNoteTitle;
+            this.selectedNoteId = selectedNoteId;
+            this.firstVisibleRow = firstVisibleRow;
+        }
+    }
 }
\ No newline at end of file
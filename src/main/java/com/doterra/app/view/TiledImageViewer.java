@@ -0,0 +1,327 @@
+package com.doterra.app.view;
+
+import com.doterra.app.util.ImageDecoder;
+import javafx.application.Platform;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.geometry.Bounds;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Zoomable, pannable viewer for very large images.
+ *
+ * <p>A downsampled preview is decoded in the background and shown first. When the zoom asks for
+ * more detail than the preview has, only the tiles covering the visible viewport are decoded, at
+ * the coarsest subsampling level that still matches the zoom. Decoded tiles are kept in a small
+ * LRU; {@link #dispose()} drops everything once the viewer is closed.</p>
+ */
+class TiledImageViewer extends ScrollPane {
+    // Tile edge in decoded pixels, whatever the subsampling level
+    private static final int TILE_SIZE = 512;
+    private static final int PREVIEW_SIZE = 2048;
+    private static final int MAX_CACHED_TILES = 48;
+    // A tile that fails this often is left to the scaled preview underneath
+    private static final int MAX_TILE_ATTEMPTS = 3;
+    private static final double MIN_ZOOM = 0.02;
+    private static final double MAX_ZOOM = 8;
+    
+    private final Path imageFile;
+    private final int imageWidth;
+    private final int imageHeight;
+    private final DoubleProperty zoom = new SimpleDoubleProperty(1);
+    
+    private final Pane content = new Pane();
+    private final ImageView previewView = new ImageView();
+    private final Pane tileLayer = new Pane();
+    // Preview pixels per source pixel; 0 until the preview is ready
+    private double previewScale;
+    
+    private final ExecutorService decoder;
+    private final Map<TileKey, Image> tileCache = new LinkedHashMap<>(MAX_CACHED_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TileKey, Image> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+    private final Map<TileKey, ImageView> shownTiles = new HashMap<>();
+    private final Set<TileKey> pendingTiles = new HashSet<>();
+    private final Map<TileKey, Integer> failedTiles = new HashMap<>();
+    private boolean disposed;
+    
+    /**
+     * @param imageFile The image to show; only its header is read here
+     * @throws IOException if the file is not a readable image
+     */
+    TiledImageViewer(Path imageFile) throws IOException {
+        this.imageFile = imageFile;
+        Dimension size = ImageDecoder.readSize(imageFile);
+        this.imageWidth = size.width;
+        this.imageHeight = size.height;
+        
+        decoder = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Image-Tile-Thread");
+            t.setDaemon(true);
+            return t;
+        });
+        
+        previewView.setSmooth(true);
+        content.getChildren().addAll(previewView, tileLayer);
+        setContent(content);
+        setPannable(true);
+        applyZoom();
+        
+        hvalueProperty().addListener((obs, oldValue, newValue) -> updateTiles());
+        vvalueProperty().addListener((obs, oldValue, newValue) -> updateTiles());
+        viewportBoundsProperty().addListener((obs, oldValue, newValue) -> updateTiles());
+        
+        loadPreview();
+    }
+    
+    ReadOnlyDoubleProperty zoomProperty() {
+        return zoom;
+    }
+    
+    double getZoom() {
+        return zoom.get();
+    }
+    
+    /**
+     * Zoom to a scale (displayed pixels per image pixel), keeping the viewport centre in place
+     */
+    void setZoom(double newZoom) {
+        newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, newZoom));
+        Bounds viewport = getViewportBounds();
+        double centerX = (viewOffset(getHvalue(), imageWidth, viewport.getWidth()) + viewport.getWidth() / 2) / zoom.get();
+        double centerY = (viewOffset(getVvalue(), imageHeight, viewport.getHeight()) + viewport.getHeight() / 2) / zoom.get();
+        
+        zoom.set(newZoom);
+        applyZoom();
+        layout();
+        
+        setHvalue(scrollValue(centerX * newZoom - viewport.getWidth() / 2, imageWidth * newZoom, viewport.getWidth()));
+        setVvalue(scrollValue(centerY * newZoom - viewport.getHeight() / 2, imageHeight * newZoom, viewport.getHeight()));
+        updateTiles();
+    }
+    
+    /**
+     * Zoom so the whole image fits the viewport
+     */
+    void fitToViewport() {
+        Bounds viewport = getViewportBounds();
+        if (viewport.getWidth() > 0 && viewport.getHeight() > 0) {
+            setZoom(Math.min(viewport.getWidth() / imageWidth, viewport.getHeight() / imageHeight));
+        }
+    }
+    
+    /**
+     * Stop decoding and release the preview and all decoded tiles
+     */
+    void dispose() {
+        disposed = true;
+        decoder.shutdownNow();
+        tileCache.clear();
+        shownTiles.clear();
+        pendingTiles.clear();
+        failedTiles.clear();
+        tileLayer.getChildren().clear();
+        previewView.setImage(null);
+    }
+    
+    private void loadPreview() {
+        decoder.execute(() -> {
+            try {
+                Image preview = SwingFXUtils.toFXImage(ImageDecoder.readScaled(imageFile, PREVIEW_SIZE), null);
+                Platform.runLater(() -> {
+                    if (disposed) {
+                        return;
+                    }
+                    previewScale = preview.getWidth() / imageWidth;
+                    previewView.setImage(preview);
+                    updateTiles();
+                });
+            } catch (IOException e) {
+                System.err.println("Failed to load image preview: " + e.getMessage());
+            }
+        });
+    }
+    
+    private void applyZoom() {
+        double width = imageWidth * zoom.get();
+        double height = imageHeight * zoom.get();
+        content.setMinSize(width, height);
+        content.setPrefSize(width, height);
+        content.setMaxSize(width, height);
+        previewView.setFitWidth(width);
+        previewView.setFitHeight(height);
+        for (Map.Entry<TileKey, ImageView> tile : shownTiles.entrySet()) {
+            layoutTile(tile.getValue(), tile.getKey());
+        }
+    }
+    
+    /**
+     * Show the tiles covering the viewport, decoding missing ones, and drop tiles that scrolled away
+     */
+    private void updateTiles() {
+        if (disposed) {
+            return;
+        }
+        double z = zoom.get();
+        if (previewScale == 0 || z <= previewScale) {
+            // The preview already has all the detail this zoom can show
+            clearShownTiles();
+            return;
+        }
+        
+        // Coarsest power-of-two subsampling that still gives at least one decoded pixel per screen pixel
+        int step = 1;
+        while (step * 2 <= 1 / z) {
+            step *= 2;
+        }
+        int span = TILE_SIZE * step;
+        
+        Bounds viewport = getViewportBounds();
+        double viewX = viewOffset(getHvalue(), imageWidth, viewport.getWidth());
+        double viewY = viewOffset(getVvalue(), imageHeight, viewport.getHeight());
+        int firstColumn = (int) (viewX / z / span);
+        int firstRow = (int) (viewY / z / span);
+        int lastColumn = (int) (Math.min(imageWidth - 1, (viewX + viewport.getWidth()) / z) / span);
+        int lastRow = (int) (Math.min(imageHeight - 1, (viewY + viewport.getHeight()) / z) / span);
+        
+        Set<TileKey> visible = new HashSet<>();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                TileKey key = new TileKey(step, column, row);
+                visible.add(key);
+                showTile(key);
+            }
+        }
+        
+        shownTiles.entrySet().removeIf(tile -> {
+            if (visible.contains(tile.getKey())) {
+                return false;
+            }
+            tileLayer.getChildren().remove(tile.getValue());
+            return true;
+        });
+    }
+    
+    private void showTile(TileKey key) {
+        if (shownTiles.containsKey(key)) {
+            return;
+        }
+        Image image = tileCache.get(key);
+        if (image != null) {
+            ImageView view = new ImageView(image);
+            layoutTile(view, key);
+            shownTiles.put(key, view);
+            tileLayer.getChildren().add(view);
+        } else if (failedTiles.getOrDefault(key, 0) < MAX_TILE_ATTEMPTS && pendingTiles.add(key)) {
+            decoder.execute(() -> decodeTile(key));
+        }
+    }
+    
+    private void decodeTile(TileKey key) {
+        Rectangle region = key.sourceRegion(imageWidth, imageHeight);
+        try {
+            Image tile = SwingFXUtils.toFXImage(ImageDecoder.readRegion(imageFile, region, key.step), null);
+            Platform.runLater(() -> {
+                pendingTiles.remove(key);
+                if (!disposed) {
+                    tileCache.put(key, tile);
+                    updateTiles();
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to decode image tile: " + e.getMessage());
+            // Let the next scroll or zoom try again, up to the attempt limit
+            Platform.runLater(() -> {
+                pendingTiles.remove(key);
+                if (!disposed) {
+                    failedTiles.merge(key, 1, Integer::sum);
+                }
+            });
+        }
+    }
+    
+    private void layoutTile(ImageView view, TileKey key) {
+        Rectangle region = key.sourceRegion(imageWidth, imageHeight);
+        double z = zoom.get();
+        view.setLayoutX(region.x * z);
+        view.setLayoutY(region.y * z);
+        view.setFitWidth(region.width * z);
+        view.setFitHeight(region.height * z);
+    }
+    
+    private void clearShownTiles() {
+        if (!shownTiles.isEmpty()) {
+            shownTiles.clear();
+            tileLayer.getChildren().clear();
+        }
+    }
+    
+    /**
+     * Left/top edge of the viewport in content coordinates for a scroll value in [0, 1]
+     */
+    private double viewOffset(double scrollValue, int imageExtent, double viewportExtent) {
+        return Math.max(0, imageExtent * zoom.get() - viewportExtent) * scrollValue;
+    }
+    
+    private static double scrollValue(double offset, double contentExtent, double viewportExtent) {
+        double scrollable = contentExtent - viewportExtent;
+        return scrollable <= 0 ? 0 : Math.max(0, Math.min(1, offset / scrollable));
+    }
+    
+    /**
+     * A tile at one subsampling level; column/row index tiles of {@code TILE_SIZE * step} source pixels
+     */
+    private static final class TileKey {
+        private final int step;
+        private final int column;
+        private final int row;
+        
+        TileKey(int step, int column, int row) {
+            this.step = step;
+            this.column = column;
+            this.row = row;
+        }
+        
+        Rectangle sourceRegion(int imageWidth, int imageHeight) {
+            int span = TILE_SIZE * step;
+            int x = column * span;
+            int y = row * span;
+            return new Rectangle(x, y, Math.min(span, imageWidth - x), Math.min(span, imageHeight - y));
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey) o;
+            return step == other.step && column == other.column && row == other.row;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(step, column, row);
+        }
+    }
+}
@@ -26,9 +26,10 @@ import javafx.animation.Timeline;
 import javafx.animation.KeyFrame;
 import javafx.util.Duration;
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import com.doterra.app.util.AsyncFileOperations;
+import com.doterra.app.util.KeyValueStore;
 
 public class TodoPanel extends BorderPane {
     private TableView<TodoTask> activeTasksTable;
@@ -43,8 +44,14 @@ public class TodoPanel extends BorderPane {
     // Timer to check for wait until tasks that should become ready
     private Timeline waitUntilChecker;
     
-    // File path for saving todo data
+    // Todo data lives in its own namespace of the key-value store; the old whole-file save is imported once
     private static final String TODO_DATA_FILE = "data/doterra_todos.dat";
+    private static final Path STORE_DIR = Paths.get("data", "store");
+    private static final String STORE_NAMESPACE = "todos";
+    private static final String ACTIVE_TASKS = "active";
+    private static final String COMPLETED_TASKS = "completed";
+    private static final String ACTIVE_COLUMN_WIDTHS = "active_column_widths";
+    private static final String COMPLETED_COLUMN_WIDTHS = "completed_column_widths";
     
     // Store loaded column widths to apply after table creation
     private Map<String, Double> loadedActiveColumnWidths = new HashMap<>();
@@ -299,60 +306,57 @@ public class TodoPanel extends BorderPane {
      * Save todo data to file
      */
     private void saveTodoData() {
-        AsyncFileOperations.debouncedSave("todo-data", 500, () -> {
+        AsyncFileOperations.debouncedSave("todo-data", 500, this::snapshotTodoData, data -> {
             try {
-                TodoData data = new TodoData();
-                
-                // Convert active tasks
-                for (TodoTask task : activeTasks) {
-                    data.activeTasks.add(new SerializableTodoTask(task));
-                }
-                
-                // Convert completed tasks
-                for (CompletedTask task : completedTasks) {
-                    data.completedTasks.add(new SerializableCompletedTask(task));
-                }
-                
-                // Save column widths from active tasks table
-                if (activeTasksTable != null) {
-                    for (TableColumn<TodoTask, ?> column : activeTasksTable.getColumns()) {
-                        if (column.getText() != null && !column.getText().isEmpty()) {
-                            data.activeTableColumnWidths.put(column.getText(), column.getWidth());
-                        }
-                    }
-                }
-                
-                // Save column widths from completed tasks table
-                if (completedTasksTable != null) {
-                    for (TableColumn<CompletedTask, ?> column : completedTasksTable.getColumns()) {
-                        if (column.getText() != null && !column.getText().isEmpty()) {
-                            data.completedTableColumnWidths.put(column.getText(), column.getWidth());
-                        }
-                    }
-                }
-                
-                // Save to file
-                // Ensure parent directory exists
-                File file = new File(TODO_DATA_FILE);
-                File parentDir = file.getParentFile();
-                if (parentDir != null && !parentDir.exists()) {
-                    parentDir.mkdirs();
-                }
-                
-                try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(TODO_DATA_FILE))) {
-                    oos.writeObject(data);
-                }
+                writeTodoData(openTodoStore(), data);
             } catch (Exception e) {
                 System.err.println("Error saving todo data: " + e.getMessage());
             }
         });
     }
     
+    /**
+     * Copy tasks and column widths into a detached TodoData (runs on JavaFX thread)
+     */
+    private TodoData snapshotTodoData() {
+        TodoData data = new TodoData();
+        
+        // Convert active tasks
+        for (TodoTask task : activeTasks) {
+            data.activeTasks.add(new SerializableTodoTask(task));
+        }
+        
+        // Convert completed tasks
+        for (CompletedTask task : completedTasks) {
+            data.completedTasks.add(new SerializableCompletedTask(task));
+        }
+        
+        // Save column widths from active tasks table
+        if (activeTasksTable != null) {
+            for (TableColumn<TodoTask, ?> column : activeTasksTable.getColumns()) {
+                if (column.getText() != null && !column.getText().isEmpty()) {
+                    data.activeTableColumnWidths.put(column.getText(), column.getWidth());
+                }
+            }
+        }
+        
+        // Save column widths from completed tasks table
+        if (completedTasksTable != null) {
+            for (TableColumn<CompletedTask, ?> column : completedTasksTable.getColumns()) {
+                if (column.getText() != null && !column.getText().isEmpty()) {
+                    data.completedTableColumnWidths.put(column.getText(), column.getWidth());
+                }
+            }
+        }
+        
+        return data;
+    }
+    
     /**
      * Load saved todo data from file asynchronously
      */
     private void loadTodoDataAsync() {
-        AsyncFileOperations.loadAsync(
+        AsyncFileOperations.loadAsync("todo-data",
             () -> {
                 // This runs on background thread
                 return loadTodoDataFromFile();
@@ -372,17 +376,62 @@ public class TodoPanel extends BorderPane {
     }
     
     /**
-     * Load todo data from file (synchronous version for background thread)
+     * Load todo data from the store (synchronous version for background thread)
      */
     private TodoData loadTodoDataFromFile() {
         try {
-            if (!Files.exists(Paths.get(TODO_DATA_FILE))) {
+            KeyValueStore.Namespace store = openTodoStore();
+            if (store.isEmpty()) {
                 return null; // No saved data yet
             }
             
-            Object loadedData;
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(TODO_DATA_FILE))) {
-                loadedData = ois.readObject();
+            TodoData data = new TodoData();
+            data.activeTasks = store.getList(ACTIVE_TASKS);
+            data.completedTasks = store.getList(COMPLETED_TASKS);
+            data.activeTableColumnWidths = store.get(ACTIVE_COLUMN_WIDTHS);
+            data.completedTableColumnWidths = store.get(COMPLETED_COLUMN_WIDTHS);
+            return data;
+        } catch (Exception e) {
+            System.err.println("Error loading todo data: " + e.getMessage());
+            e.printStackTrace(); // More detailed error information for debugging
+            return null;
+        }
+    }
+    
+    private KeyValueStore.Namespace openTodoStore() throws IOException {
+        return KeyValueStore.open(STORE_DIR).namespace(STORE_NAMESPACE, Paths.get(TODO_DATA_FILE), (file, store) -> {
+            TodoData legacyData = readLegacyTodoData(file);
+            if (legacyData != null) {
+                writeTodoData(store, legacyData);
+            }
+        });
+    }
+    
+    /**
+     * Commit tasks one record each, so editing one task only rewrites that task
+     */
+    private static void writeTodoData(KeyValueStore.Namespace store, TodoData data) throws IOException {
+        // Fields missing from older saves are null
+        KeyValueStore.WriteBatch batch = new KeyValueStore.WriteBatch()
+            .putList(ACTIVE_TASKS, data.activeTasks != null ? data.activeTasks : new ArrayList<>())
+            .putList(COMPLETED_TASKS, data.completedTasks != null ? data.completedTasks : new ArrayList<>());
+        if (data.activeTableColumnWidths != null) {
+            batch.put(ACTIVE_COLUMN_WIDTHS, new HashMap<>(data.activeTableColumnWidths));
+        }
+        if (data.completedTableColumnWidths != null) {
+            batch.put(COMPLETED_COLUMN_WIDTHS, new HashMap<>(data.completedTableColumnWidths));
+        }
+        store.commit(batch);
+    }
+    
+    /**
+     * Read the old whole-file save, converting earlier formats
+     */
+    private TodoData readLegacyTodoData(Path file) {
+        try {
+            Object loadedData = KeyValueStore.readLegacyFile(file);
+            if (loadedData == null) {
+                return null;
             }
             
             // Handle different data format versions and convert to TodoData
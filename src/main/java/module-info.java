@@ -14,6 +14,7 @@ module org.bchenay.doterraapp20 {
     requires java.desktop;
     requires org.fxmisc.richtext;
     requires jdk.jsobject;
+    requires jdk.jfr;
 
     opens org.bchenay.doterraapp20 to javafx.fxml;
     exports org.bchenay.doterraapp20;
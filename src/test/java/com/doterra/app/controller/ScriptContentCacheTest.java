@@ -0,0 +1,82 @@
+package com.doterra.app.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptContentCacheTest {
+    
+    private ScriptContentCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new ScriptContentCache(10);
+    }
+    
+    @Test
+    @DisplayName("Least recently used content should be evicted past the budget")
+    void testEvictsLeastRecentlyUsed() {
+        // Given
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+        
+        // When
+        cache.put("c", "cccc");
+        
+        // Then
+        assertEquals("aaaa", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("cccc", cache.get("c"));
+        assertEquals(8, cache.getChars());
+    }
+    
+    @Test
+    @DisplayName("Content larger than the budget should still be kept until the next put")
+    void testKeepsOversizedEntry() {
+        // Given
+        cache.put("a", "aaaa");
+        
+        // When
+        cache.put("big", "0123456789ABC");
+        
+        // Then
+        assertEquals(1, cache.size());
+        assertEquals("0123456789ABC", cache.get("big"));
+    }
+    
+    @Test
+    @DisplayName("putIfRoom should not evict anything")
+    void testPutIfRoom() {
+        // Given
+        cache.put("a", "aaaaaa");
+        
+        // When / Then
+        assertFalse(cache.putIfRoom("b", "bbbbbb"));
+        assertTrue(cache.putIfRoom("c", "cccc"));
+        assertEquals("aaaaaa", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(10, cache.getChars());
+    }
+    
+    @Test
+    @DisplayName("Replacing and removing should keep the size in step")
+    void testReplaceAndRemove() {
+        // Given
+        cache.put("a", "aaaa");
+        
+        // When
+        cache.put("a", "aa");
+        cache.put("b", "bbb");
+        cache.remove("a");
+        
+        // Then
+        assertEquals(3, cache.getChars());
+        assertNull(cache.get("a"));
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getChars());
+    }
+}
@@ -0,0 +1,68 @@
+package com.doterra.app.controller;
+
+import com.doterra.app.model.ButtonTab;
+import com.doterra.app.model.ScriptButton;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptSearchIndexTest {
+    
+    private static List<String> names(List<ScriptSearchIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.getButton().getName()).collect(Collectors.toList());
+    }
+    
+    @Test
+    @DisplayName("Name matches should rank above content matches and HTML should be ignored")
+    void testRankedSearch() {
+        // Given
+        ButtonTab tab = new ButtonTab("Orders");
+        tab.addButton(new ScriptButton("Shipping delay", "Sorry, your order is late.", Color.WHITE));
+        tab.addButton(new ScriptButton("Refund", "<html><body><p>We issued your shipping refund</p></body></html>", Color.WHITE));
+        tab.addButton(new ScriptButton("Greeting", "<p class=\"shipping\">Hello!</p>", Color.WHITE));
+        ScriptSearchIndex index = new ScriptSearchIndex();
+        index.putTab(tab);
+        
+        // When
+        List<ScriptSearchIndex.Hit> hits = index.search("SHIPPING", 10);
+        
+        // Then
+        assertEquals(List.of("Shipping delay", "Refund"), names(hits));
+        assertEquals(tab.getId(), hits.get(0).getTabId());
+        assertEquals(List.of("Refund"), names(index.search("ship refund", 10)));
+        assertTrue(index.search("cancel", 10).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("The controller should keep the index in step with adds, edits, moves and deletes")
+    void testIncrementalUpdates() {
+        // Given
+        ButtonController controller = new ButtonController(false, "target/search-test/buttons.dat");
+        ButtonTab first = new ButtonTab("First");
+        ButtonTab second = new ButtonTab("Second");
+        controller.addTab(first);
+        controller.addTab(second);
+        ScriptButton button = new ScriptButton("Welcome", "Thanks for reaching out", Color.WHITE);
+        
+        // When / Then
+        controller.addButtonToTab(first.getId(), button);
+        assertEquals(List.of("Welcome"), names(controller.getSearchIndex().search("reach", 10)));
+        
+        button.setContent("Goodbye for now");
+        controller.buttonEdited(button);
+        assertTrue(controller.getSearchIndex().search("reach", 10).isEmpty());
+        assertEquals(1, controller.getSearchIndex().search("goodbye", 10).size());
+        
+        controller.moveButtonBetweenTabs(first.getId(), second.getId(), button.getId());
+        assertEquals(second.getId(), controller.getSearchIndex().search("welcome", 10).get(0).getTabId());
+        
+        controller.removeButtonFromTab(second.getId(), button.getId());
+        assertTrue(controller.getSearchIndex().search("welcome", 10).isEmpty());
+        assertEquals(0, controller.getSearchIndex().size());
+    }
+}
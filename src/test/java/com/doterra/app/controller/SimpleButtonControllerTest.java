@@ -5,7 +5,9 @@ import com.doterra.app.model.ScriptButton;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -153,4 +155,119 @@ class SimpleButtonControllerTest {
         assertEquals(2, controller.getTab(tab1.getId()).getButtons().size());
         assertEquals(1, controller.getTab(tab2.getId()).getButtons().size());
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Renaming a tab should update duplicate-name checks and name lookups")
+    void testRenameTab() {
+        // Given
+        ButtonTab tab = new ButtonTab("Old Name");
+        controller.addTab(tab);
+        assertSame(tab, controller.getTabs().get("Old Name"));
+        
+        // When
+        assertTrue(controller.renameTab(tab.getId(), "New Name"));
+        
+        // Then
+        assertFalse(controller.isTabNameDuplicate("Old Name"));
+        assertTrue(controller.isTabNameDuplicate("New Name"));
+        assertFalse(controller.isTabNameDuplicate("New Name", tab.getId()));
+        assertNull(controller.getTabs().get("Old Name"));
+        assertSame(tab, controller.getTabs().get("New Name"));
+        
+        // A new tab may now take the old name
+        controller.addTab(new ButtonTab("Old Name"));
+        assertEquals(2, controller.getAllTabs().size());
+    }
+    
+    @Test
+    @DisplayName("Reordering should move one tab and keep lookups working")
+    void testReorderTabsKeepsIndexes() {
+        // Given
+        ButtonTab tab1 = new ButtonTab("Tab 1");
+        ButtonTab tab2 = new ButtonTab("Tab 2");
+        ButtonTab tab3 = new ButtonTab("Tab 3");
+        controller.addTab(tab1);
+        controller.addTab(tab2);
+        controller.addTab(tab3);
+        
+        // When
+        assertTrue(controller.reorderTabs(tab3.getId(), tab1.getId()));
+        
+        // Then
+        assertEquals(List.of(tab3, tab1, tab2), controller.getAllTabs());
+        assertEquals(List.of("Tab 3", "Tab 1", "Tab 2"), List.copyOf(controller.getTabs().keySet()));
+        assertSame(tab2, controller.getTab(tab2.getId()));
+        assertTrue(controller.isTabNameDuplicate("Tab 3"));
+    }
+    
+    @Test
+    @DisplayName("Removing a tab should free its name")
+    void testRemoveTabFreesName() {
+        // Given
+        ButtonTab tab = new ButtonTab("Tab");
+        controller.addTab(tab);
+        
+        // When
+        controller.removeTab(tab.getId());
+        
+        // Then
+        assertFalse(controller.isTabNameDuplicate("Tab"));
+        assertTrue(controller.getTabs().isEmpty());
+        assertNull(controller.getTab(tab.getId()));
+    }
+    
+    @Test
+    @DisplayName("Button lookups should follow buttons across many adds and removals")
+    void testButtonLookupsAfterManyChanges() {
+        // Given
+        ButtonTab tab = new ButtonTab("Bulk");
+        controller.addTab(tab);
+        List<ScriptButton> added = new java.util.ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ScriptButton button = new ScriptButton("Script " + i, "Content " + i, null);
+            controller.addButtonToTab(tab.getId(), button);
+            added.add(button);
+        }
+        
+        // When: remove every third button
+        for (int i = 0; i < added.size(); i += 3) {
+            assertTrue(controller.removeButtonFromTab(tab.getId(), added.get(i).getId()));
+        }
+        
+        // Then
+        for (int i = 0; i < added.size(); i++) {
+            ScriptButton button = added.get(i);
+            if (i % 3 == 0) {
+                assertNull(controller.getButton(tab.getId(), button.getId()));
+            } else {
+                assertSame(button, controller.getButton(tab.getId(), button.getId()));
+                assertSame(button, tab.getButtons().get(tab.indexOf(button.getId())));
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Saved content should load on demand and still be searchable")
+    void testContentLoadsOnDemand(@TempDir Path tempDir) throws Exception {
+        // Given
+        String saveFile = tempDir.resolve("lazy_buttons.dat").toString();
+        ButtonController saving = new ButtonController(false, saveFile);
+        ButtonTab tab = new ButtonTab("Lazy");
+        saving.addTab(tab);
+        ScriptButton button = new ScriptButton("Greeting", "Hello <b>wholesale</b> customer", null);
+        saving.addButtonToTab(tab.getId(), button);
+        saving.saveStateNow();
+        assertEquals("Hello <b>wholesale</b> customer", button.getLoadedContent());
+        
+        // When
+        ButtonController loading = new ButtonController(false, saveFile);
+        loading.loadState();
+        
+        // Then
+        ScriptButton loaded = loading.getButton(tab.getId(), button.getId());
+        assertTrue(loaded.isContentStored());
+        assertNull(loaded.getLoadedContent());
+        assertEquals("Hello <b>wholesale</b> customer", loaded.getContent());
+        assertEquals(1, loading.getSearchIndex().search("wholesale", 10).size());
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -139,4 +140,145 @@ class SimpleButtonTabTest {
         assertEquals(button2, buttons.get(1));
         assertEquals(button3, buttons.get(2));
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Snapshot should be detached from later edits")
+    void testSnapshotIsDetached() {
+        // Given
+        ScriptButton button = new ScriptButton("Original", "Content", null);
+        tab.addButton(button);
+        
+        // When
+        ButtonTab snapshot = tab.snapshot();
+        button.setName("Renamed");
+        tab.addButton(new ScriptButton("Added later", "Content", null));
+        
+        // Then
+        assertEquals(tab.getId(), snapshot.getId());
+        assertEquals(1, snapshot.getButtons().size());
+        assertEquals(button.getId(), snapshot.getButtons().get(0).getId());
+        assertEquals("Original", snapshot.getButtons().get(0).getName());
+    }
+    
+    @Test
+    @DisplayName("Snapshot should keep empty cells")
+    void testSnapshotKeepsEmptyCells() {
+        // Given
+        ScriptButton button = new ScriptButton("After gap", "Content", null);
+        tab.addButton(null);
+        tab.addButton(button);
+        
+        // When
+        ButtonTab snapshot = tab.snapshot();
+        
+        // Then
+        assertEquals(2, snapshot.getButtons().size());
+        assertNull(snapshot.getButtons().get(0));
+        assertEquals(button.getId(), snapshot.getButtons().get(1).getId());
+    }
+    
+    @Test
+    @DisplayName("Appended button should move into the first empty cell")
+    void testMoveToFirstEmptyCell() {
+        // Given
+        ScriptButton button1 = new ScriptButton("Button 1", "Content", null);
+        ScriptButton button2 = new ScriptButton("Button 2", "Content", null);
+        ScriptButton added = new ScriptButton("Added", "Content", null);
+        tab.addButton(button1);
+        tab.addButton(null);
+        tab.addButton(button2);
+        tab.addButton(added);
+        
+        // When
+        tab.moveToFirstEmptyCell(added);
+        
+        // Then
+        assertEquals(List.of(button1, added, button2), tab.getButtons());
+    }
+    
+    @Test
+    @DisplayName("Placing in a cell should pad with empty cells, or fall back when the cell is taken")
+    void testPlaceInCell() {
+        // Given
+        ScriptButton button1 = new ScriptButton("Button 1", "Content", null);
+        ScriptButton button2 = new ScriptButton("Button 2", "Content", null);
+        ScriptButton button3 = new ScriptButton("Button 3", "Content", null);
+        tab.addButton(button1);
+        
+        // When
+        tab.placeInCell(button2, 7);
+        tab.placeInCell(button3, 0);
+        
+        // Then
+        List<ScriptButton> buttons = tab.getButtons();
+        assertEquals(8, buttons.size());
+        assertSame(button1, buttons.get(0));
+        assertSame(button3, buttons.get(1));
+        assertNull(buttons.get(2));
+        assertSame(button2, buttons.get(7));
+    }
+    
+    @Test
+    @DisplayName("Swapping into a cell should exchange the two cells")
+    void testSwapIntoCell() {
+        // Given
+        ScriptButton button1 = new ScriptButton("Button 1", "Content", null);
+        ScriptButton button2 = new ScriptButton("Button 2", "Content", null);
+        tab.addButton(button1);
+        tab.addButton(null);
+        tab.addButton(button2);
+        
+        // When / Then
+        assertTrue(tab.swapIntoCell(button2.getId(), 0));
+        assertEquals(Arrays.asList(button2, null, button1), tab.getButtons());
+        assertTrue(tab.swapIntoCell(button1.getId(), 1));
+        assertEquals(Arrays.asList(button2, button1), tab.getButtons());
+        assertFalse(tab.swapIntoCell("missing", 0));
+    }
+    
+    @Test
+    @DisplayName("Removing a button should leave its cell empty")
+    void testKeepEmptyCell() {
+        // Given
+        ScriptButton button1 = new ScriptButton("Button 1", "Content", null);
+        ScriptButton button2 = new ScriptButton("Button 2", "Content", null);
+        ScriptButton button3 = new ScriptButton("Button 3", "Content", null);
+        tab.addButton(button1);
+        tab.addButton(button2);
+        tab.addButton(button3);
+        
+        // When
+        tab.removeButton(button2.getId());
+        tab.keepEmptyCell(1);
+        
+        // Then
+        assertEquals(Arrays.asList(button1, null, button3), tab.getButtons());
+        
+        // Trailing empty cells are dropped
+        tab.removeButton(button3.getId());
+        tab.keepEmptyCell(2);
+        assertEquals(List.of(button1), tab.getButtons());
+    }
+    
+    @Test
+    @DisplayName("Lookups should recover after the list is edited directly")
+    void testLookupAfterDirectListEdit() {
+        // Given
+        ScriptButton button1 = new ScriptButton("Button 1", "Content", null);
+        ScriptButton button2 = new ScriptButton("Button 2", "Content", null);
+        tab.addButton(button1);
+        tab.addButton(button2);
+        assertSame(button2, tab.getButton(button2.getId()));
+        
+        // When
+        tab.getButtons().remove(0);
+        tab.getButtons().add(0, null);
+        tab.getButtons().add(button1);
+        
+        // Then
+        assertEquals(1, tab.indexOf(button2.getId()));
+        assertEquals(2, tab.indexOf(button1.getId()));
+        assertTrue(tab.removeButton(button1.getId()));
+        assertNull(tab.getButton(button1.getId()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for debounced saves without a running JavaFX toolkit.
+ */
+class AsyncFileOperationsTest {
+    
+    @Test
+    @DisplayName("flushPendingSaves should write pending saves immediately in key order")
+    void testFlushWritesPendingSavesInKeyOrder() {
+        // Given - saves that would otherwise wait a long debounce
+        List<String> writes = new CopyOnWriteArrayList<>();
+        AsyncFileOperations.debouncedSave("flush-test-b", 60_000, () -> writes.add("b"));
+        AsyncFileOperations.debouncedSave("flush-test-a", 60_000, () -> "a", writes::add);
+        
+        // When
+        AsyncFileOperations.FlushResult result = AsyncFileOperations.flushPendingSaves(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertEquals(List.of("a", "b"), writes);
+        assertEquals(List.of("flush-test-a", "flush-test-b"), result.getWrittenKeys());
+        assertTrue(result.isComplete());
+    }
+    
+    @Test
+    @DisplayName("Debounced save should snapshot state when it fires, not when scheduled")
+    void testSnapshotTakenAtFireTime() {
+        // Given
+        StringBuilder model = new StringBuilder("first");
+        List<String> writes = new CopyOnWriteArrayList<>();
+        AsyncFileOperations.debouncedSave("snapshot-test", 60_000, model::toString, writes::add);
+        
+        // When - the model keeps changing before the save runs
+        model.append(" second");
+        AsyncFileOperations.flushPendingSaves(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertEquals(List.of("first second"), writes);
+    }
+    
+    @Test
+    @DisplayName("Repeated saves for the same key should coalesce into one write")
+    void testRepeatedSavesCoalesce() {
+        // Given
+        List<String> writes = new CopyOnWriteArrayList<>();
+        
+        // When
+        AsyncFileOperations.debouncedSave("coalesce-test", 60_000, () -> writes.add("1"));
+        AsyncFileOperations.debouncedSave("coalesce-test", 60_000, () -> writes.add("2"));
+        AsyncFileOperations.flushPendingSaves(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertEquals(List.of("2"), writes);
+    }
+    
+    @Test
+    @DisplayName("Flushed saves should record executions and bytes written per key")
+    void testSaveMetricsRecorded(@TempDir Path tempDir) {
+        // Given
+        String saveFile = tempDir.resolve("metrics_test.dat").toString();
+        AsyncFileOperations.debouncedSave("metrics-test", 60_000, () -> "payload", data -> {
+            try {
+                AsyncFileOperations.writeObjectToFile(saveFile, data);
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+        
+        // When
+        AsyncFileOperations.flushPendingSaves(5, TimeUnit.SECONDS);
+        
+        // Then
+        FileIoMetrics.KeyStats stats = FileIoMetrics.getAllStats().stream()
+            .filter(s -> s.getKey().equals("metrics-test"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(1, stats.getScheduled());
+        assertEquals(1, stats.getExecuted());
+        assertEquals(0, stats.getFailed());
+        assertEquals(new File(saveFile).length(), stats.getBytesWritten());
+        assertTrue(stats.getBytesWritten() > 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobStoreTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Stored content should be readable back by its hash")
+    void testPutAndGet() throws Exception {
+        // Given
+        BlobStore store = new BlobStore(tempDir.resolve("blobs"));
+        Path screenshot = tempDir.resolve("screenshot.png");
+        Files.write(screenshot, new byte[] {1, 2, 3, 4, 5});
+        
+        // When
+        String hash = store.put(screenshot);
+        
+        // Then
+        assertEquals(64, hash.length());
+        assertTrue(store.contains(hash));
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, store.get(hash));
+    }
+    
+    @Test
+    @DisplayName("Identical content should be stored once")
+    void testDeduplication() throws Exception {
+        // Given
+        BlobStore store = new BlobStore(tempDir.resolve("blobs"));
+        
+        // When
+        String first = store.put(new byte[] {9, 9, 9});
+        String second = store.put(new byte[] {9, 9, 9});
+        String different = store.put(new byte[] {7});
+        
+        // Then
+        assertEquals(first, second);
+        assertNotEquals(first, different);
+        try (Stream<Path> files = Files.walk(tempDir.resolve("blobs"))) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+        
+        store.delete(first);
+        assertFalse(store.contains(first));
+        assertTrue(store.contains(different));
+    }
+}
@@ -0,0 +1,52 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyIndexTest {
+    
+    private static List<String> labels(List<FuzzyIndex.Match<String>> matches) {
+        return matches.stream().map(FuzzyIndex.Match::getLabel).collect(Collectors.toList());
+    }
+    
+    @Test
+    @DisplayName("Characters in order should match, word starts and prefixes should rank first")
+    void testFuzzyRanking() {
+        // Given
+        FuzzyIndex<String> index = new FuzzyIndex<>();
+        index.replaceSource("scripts", FuzzyIndex.<String>builder()
+            .add("Shipping delay", "a")
+            .add("Order shipped confirmation", "b")
+            .add("Refund policy", "c"));
+        
+        // When / Then
+        assertEquals(List.of("Shipping delay", "Order shipped confirmation"), labels(index.search("ship", 10)));
+        assertEquals("Shipping delay", labels(index.search("shdl", 10)).get(0));
+        assertEquals(List.of("Refund policy"), labels(index.search("rfp", 10)));
+        assertTrue(index.search("xyz", 10).isEmpty());
+        assertTrue(FuzzyIndex.score("sdx", "sadx dy") >= 0);
+    }
+    
+    @Test
+    @DisplayName("Replacing one source should leave the others and respect the result limit")
+    void testReplaceSource() {
+        // Given
+        FuzzyIndex<String> index = new FuzzyIndex<>();
+        index.replaceSource("chat", FuzzyIndex.<String>builder().add("Greeting", "1").add("Goodbye", "2"));
+        index.replaceSource("panels", FuzzyIndex.<String>builder().add("Calendar", "3"));
+        
+        // When
+        index.replaceSource("chat", FuzzyIndex.<String>builder().add("Good morning", "4"));
+        
+        // Then
+        assertEquals(2, index.size());
+        assertEquals(List.of("Good morning"), labels(index.search("goo", 10)));
+        assertEquals(List.of("Calendar"), labels(index.search("cal", 10)));
+        assertEquals(1, index.search("o", 1).size());
+    }
+}
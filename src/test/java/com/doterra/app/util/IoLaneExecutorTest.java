@@ -0,0 +1,147 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IoLaneExecutorTest {
+    
+    private IoLaneExecutor executor;
+    
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    @DisplayName("Tasks on the same lane should run one at a time in submission order")
+    void testSameLaneIsOrdered() throws Exception {
+        // Given
+        executor = new IoLaneExecutor("Test-IO", 4);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        
+        // When
+        Future<?> last = null;
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            last = executor.submit("store", IoLaneExecutor.Priority.SAVE, () -> order.add(value));
+        }
+        last.get(5, TimeUnit.SECONDS);
+        
+        // Then
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+    
+    @Test
+    @DisplayName("A blocked lane should not hold up other lanes")
+    void testLanesRunConcurrently() throws Exception {
+        // Given - a slow write occupying one lane
+        executor = new IoLaneExecutor("Test-IO", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit("image-notes", IoLaneExecutor.Priority.SAVE, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        
+        // When
+        Future<?> other = executor.submit("todo-data", IoLaneExecutor.Priority.LOAD, () -> { });
+        
+        // Then
+        other.get(2, TimeUnit.SECONDS);
+        release.countDown();
+    }
+    
+    @Test
+    @DisplayName("Loads should be picked ahead of queued saves from other lanes")
+    void testLoadsPrioritizedOverSaves() throws Exception {
+        // Given - the only thread is busy, so later tasks wait in the pool queue
+        executor = new IoLaneExecutor("Test-IO", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.submit("blocker", IoLaneExecutor.Priority.SAVE, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        
+        // When
+        executor.submit("chat", IoLaneExecutor.Priority.SAVE, () -> order.add("save"));
+        Future<?> load = executor.submit("todo", IoLaneExecutor.Priority.LOAD, () -> order.add("load"));
+        release.countDown();
+        load.get(5, TimeUnit.SECONDS);
+        executor.barrier().get(0).get(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertEquals("load", order.get(0));
+    }
+    
+    @Test
+    @DisplayName("A promoted prefetch should be picked ahead of saves queued before it")
+    void testPromotedPrefetch() throws Exception {
+        // Given - the only thread is busy, so later tasks wait in the pool queue
+        executor = new IoLaneExecutor("Test-IO", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.submit("blocker", IoLaneExecutor.Priority.SAVE, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.submit("chat", IoLaneExecutor.Priority.SAVE, () -> order.add("save"));
+        Future<?> prefetch = executor.submit("todo", IoLaneExecutor.Priority.PREFETCH, () -> order.add("prefetch"));
+        
+        // When
+        executor.promote(prefetch, IoLaneExecutor.Priority.LOAD);
+        release.countDown();
+        prefetch.get(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertEquals("prefetch", order.get(0));
+    }
+    
+    @Test
+    @DisplayName("A prefetch promoted while waiting on its lane should keep the new priority")
+    void testPromotedPrefetchBehindLane() throws Exception {
+        // Given - the prefetch waits behind a write on its own lane
+        executor = new IoLaneExecutor("Test-IO", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.submit("todo", IoLaneExecutor.Priority.SAVE, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add("write");
+        });
+        Future<?> prefetch = executor.submit("todo", IoLaneExecutor.Priority.PREFETCH, () -> order.add("prefetch"));
+        executor.submit("chat", IoLaneExecutor.Priority.SAVE, () -> order.add("save"));
+        
+        // When
+        executor.promote(prefetch, IoLaneExecutor.Priority.LOAD);
+        release.countDown();
+        prefetch.get(5, TimeUnit.SECONDS);
+        
+        // Then - still after the write on its lane, but ahead of the other save
+        assertEquals(List.of("write", "prefetch"), order.subList(0, 2));
+    }
+}
@@ -0,0 +1,194 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyValueStoreTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @AfterEach
+    void tearDown() {
+        KeyValueStore.closeAll();
+    }
+    
+    /**
+     * Copy a namespace's log into a second store directory, so it is read back from disk the way
+     * a fresh app start would (open stores are shared per directory)
+     */
+    private String copyLog(String name) throws Exception {
+        String copyName = name + "-reopened";
+        Files.createDirectories(tempDir.resolve("copy-dir"));
+        Files.copy(tempDir.resolve(name + ".kv"), tempDir.resolve("copy-dir").resolve(copyName + ".kv"));
+        return copyName;
+    }
+    
+    @Test
+    @DisplayName("Committed records should survive reopening the store")
+    void testCommitAndReload() throws Exception {
+        // Given
+        KeyValueStore.Namespace notes = KeyValueStore.open(tempDir).namespace("notes");
+        
+        // When
+        notes.commit(new KeyValueStore.WriteBatch()
+            .put("2024-01-01", "New year")
+            .put("2024-01-02", "Second day"));
+        notes.commit(new KeyValueStore.WriteBatch()
+            .put("2024-01-02", "Edited")
+            .delete("2024-01-01"));
+        
+        // Then
+        KeyValueStore.Namespace reloaded = KeyValueStore.open(tempDir.resolve("copy-dir")).namespace(copyLog("notes"));
+        assertEquals(List.of("2024-01-02"), reloaded.keys());
+        assertEquals("Edited", reloaded.<String>get("2024-01-02"));
+        assertNull(reloaded.get("2024-01-01"));
+    }
+    
+    @Test
+    @DisplayName("Unchanged records should not be rewritten")
+    void testUnchangedRecordsSkipped() throws Exception {
+        // Given
+        KeyValueStore.Namespace tabs = KeyValueStore.open(tempDir).namespace("tabs");
+        ArrayList<String> order = new ArrayList<>(List.of("a", "b"));
+        tabs.commit(new KeyValueStore.WriteBatch().put("order", order).put("tab/a", "A"));
+        long sizeAfterFirstCommit = Files.size(tempDir.resolve("tabs.kv"));
+        
+        // When
+        int written = tabs.commit(new KeyValueStore.WriteBatch().put("order", order).put("tab/a", "A2"));
+        
+        // Then
+        assertEquals(1, written);
+        assertTrue(Files.size(tempDir.resolve("tabs.kv")) > sizeAfterFirstCommit);
+        assertEquals(0, tabs.commit(new KeyValueStore.WriteBatch().put("tab/a", "A2").delete("missing")));
+    }
+    
+    @Test
+    @DisplayName("A torn write at the end of the log should be discarded on load")
+    void testTornTailRecovered() throws Exception {
+        // Given - one good batch followed by a partial frame, as left by a crash mid-write
+        KeyValueStore.Namespace todos = KeyValueStore.open(tempDir).namespace("todos");
+        todos.commit(new KeyValueStore.WriteBatch().put("todo/1", "Call back"));
+        Path log = tempDir.resolve("todos.kv");
+        long goodLength = Files.size(log);
+        Files.write(log, new byte[] {0, 0, 0, 50, 1, 2, 3}, StandardOpenOption.APPEND);
+        
+        // When
+        KeyValueStore.Namespace reloaded = KeyValueStore.open(tempDir.resolve("copy-dir")).namespace(copyLog("todos"));
+        
+        // Then
+        assertEquals("Call back", reloaded.<String>get("todo/1"));
+        assertEquals(goodLength, Files.size(tempDir.resolve("copy-dir").resolve("todos-reopened.kv")));
+        reloaded.commit(new KeyValueStore.WriteBatch().put("todo/2", "Follow up"));
+        assertEquals(2, reloaded.keys().size());
+    }
+    
+    @Test
+    @DisplayName("Values should be read back from the log after it is compacted")
+    void testReadAfterCompaction() throws Exception {
+        // Given - a small record and a large one rewritten until the log is mostly garbage
+        KeyValueStore.Namespace scripts = KeyValueStore.open(tempDir).namespace("scripts");
+        scripts.commit(new KeyValueStore.WriteBatch().put("content/small", "Hello"));
+        String large = "x".repeat(100_000);
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            scripts.commit(new KeyValueStore.WriteBatch().put("content/large", large + i));
+        }
+        
+        // Then
+        assertTrue(Files.size(tempDir.resolve("scripts.kv")) < 300_000, "log should have been compacted");
+        assertEquals("Hello", scripts.<String>get("content/small"));
+        assertEquals(large + 4, scripts.get("content/large"));
+        assertEquals(0, scripts.commit(new KeyValueStore.WriteBatch().put("content/large", large + 4)));
+        KeyValueStore.Namespace reloaded = KeyValueStore.open(tempDir.resolve("copy-dir")).namespace(copyLog("scripts"));
+        assertEquals(large + 4, reloaded.get("content/large"));
+    }
+    
+    @Test
+    @DisplayName("Replacing a list should only write changed items and delete removed ones")
+    void testListReplace() throws Exception {
+        // Given
+        KeyValueStore.Namespace notes = KeyValueStore.open(tempDir).namespace("sticky_notes");
+        notes.commit(new KeyValueStore.WriteBatch().putList("note", List.of("a", "b", "c"), note -> note));
+        
+        // When - "a" is edited away and "c" moves to the front; only the order and "d" change
+        int written = notes.commit(new KeyValueStore.WriteBatch().putList("note", List.of("c", "b", "d"), note -> note));
+        
+        // Then
+        assertEquals(3, written);
+        assertEquals(List.of("c", "b", "d"), notes.<String>getList("note"));
+        assertFalse(notes.contains("note/a"));
+        assertTrue(notes.getList("missing").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("A legacy save should be imported once when the namespace is opened from two threads")
+    @SuppressWarnings("unchecked")
+    void testLegacyImportRunsOnce() throws Exception {
+        // Given
+        Path legacyFile = tempDir.resolve("sticky_notes.dat");
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(legacyFile))) {
+            oos.writeObject(new ArrayList<>(List.of("first", "second")));
+        }
+        AtomicInteger imports = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        KeyValueStore.LegacyImport legacyImport = (file, namespace) -> {
+            imports.incrementAndGet();
+            List<String> notes = (List<String>) KeyValueStore.readLegacyFile(file);
+            KeyValueStore.WriteBatch batch = new KeyValueStore.WriteBatch();
+            for (int i = 0; i < notes.size(); i++) {
+                batch.put("note/" + i, notes.get(i));
+            }
+            namespace.commit(batch);
+        };
+        
+        // When
+        CompletableFuture<KeyValueStore.Namespace> other = CompletableFuture.supplyAsync(() -> {
+            try {
+                start.await();
+                return KeyValueStore.open(tempDir).namespace("sticky_notes", legacyFile, legacyImport);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        start.countDown();
+        KeyValueStore.Namespace notes = KeyValueStore.open(tempDir).namespace("sticky_notes", legacyFile, legacyImport);
+        
+        // Then
+        assertSame(notes, other.get());
+        assertEquals(1, imports.get());
+        assertEquals(List.of("note/0", "note/1"), notes.keys());
+        assertFalse(Files.exists(legacyFile));
+        assertTrue(Files.exists(tempDir.resolve("sticky_notes.dat.bak")));
+    }
+    
+    @Test
+    @DisplayName("Log size should be read from disk without opening the namespace")
+    void testLogSize() throws Exception {
+        // Given
+        assertEquals(0, KeyValueStore.logSize(tempDir, "todos"));
+        KeyValueStore.Namespace todos = KeyValueStore.open(tempDir).namespace("todos");
+        
+        // When
+        todos.commit(new KeyValueStore.WriteBatch().put("todo/1", "Call back"));
+        
+        // Then
+        assertEquals(Files.size(tempDir.resolve("todos.kv")), KeyValueStore.logSize(tempDir, "todos"));
+        assertTrue(KeyValueStore.logSize(tempDir, "todos") > 0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NavigationPreferencesTest {
+    
+    @Test
+    @DisplayName("Panels should be ranked by visits, the more recent first on ties")
+    void testPanelsByUsage() {
+        // Given
+        NavigationPreferences preferences = new NavigationPreferences();
+        preferences.recordPanelVisit("todo");
+        preferences.recordPanelVisit("regex");
+        preferences.recordPanelVisit("todo");
+        preferences.recordPanelVisit("calendar");
+        preferences.recordPanelVisit("regex");
+        
+        // When
+        List<String> panels = preferences.getPanelsByUsage();
+        
+        // Then
+        assertEquals(List.of("regex", "todo", "calendar"), panels);
+        assertEquals(2, preferences.getPanelVisits("todo"));
+        assertEquals(0, preferences.getPanelVisits("imagenotes"));
+    }
+    
+    @Test
+    @DisplayName("No panels should be ranked before any visit")
+    void testNoHistory() {
+        assertTrue(new NavigationPreferences().getPanelsByUsage().isEmpty());
+    }
+}
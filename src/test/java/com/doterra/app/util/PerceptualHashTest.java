@@ -0,0 +1,68 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerceptualHashTest {
+    
+    private static BufferedImage screenshot(int width, int height, Color accent) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(accent);
+        g.fillRect(0, 0, width / 3, height);
+        g.fillOval(width / 2, height / 4, width / 3, height / 2);
+        g.dispose();
+        return image;
+    }
+    
+    @Test
+    @DisplayName("Resized copies of a picture should hash as near-duplicates, different pictures should not")
+    void testNearDuplicates() {
+        // Given
+        BufferedImage original = screenshot(800, 600, Color.DARK_GRAY);
+        BufferedImage resized = screenshot(400, 300, Color.DARK_GRAY);
+        BufferedImage mirrored = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = mirrored.createGraphics();
+        g.drawImage(original, 800, 0, -800, 600, null);
+        g.dispose();
+        
+        // When
+        long originalHash = PerceptualHash.dHash(original);
+        long resizedHash = PerceptualHash.dHash(resized);
+        long mirroredHash = PerceptualHash.dHash(mirrored);
+        
+        // Then
+        assertTrue(PerceptualHash.distance(originalHash, resizedHash) <= PerceptualHash.NEAR_DUPLICATE_DISTANCE);
+        assertTrue(PerceptualHash.distance(originalHash, mirroredHash) > PerceptualHash.NEAR_DUPLICATE_DISTANCE);
+    }
+    
+    @Test
+    @DisplayName("BK-tree search should return only hashes within the distance, closest first")
+    void testBkTreeSearch() {
+        // Given
+        BkTree<String> tree = new BkTree<>();
+        tree.add(0b0000L, "exact");
+        tree.add(0b0011L, "two bits");
+        tree.add(0b0001L, "one bit");
+        tree.add(0xFFFF_0000L, "far");
+        
+        // When
+        List<String> matches = tree.search(0b0000L, 2);
+        
+        // Then
+        assertEquals(List.of("exact", "one bit", "two bits"), matches);
+        assertTrue(tree.remove(0b0001L, "one bit"));
+        assertEquals(List.of("exact", "two bits"), tree.search(0b0000L, 2));
+        assertEquals(List.of("far"), tree.search(0xFFFF_0001L, 1));
+        assertEquals(3, tree.size());
+    }
+}
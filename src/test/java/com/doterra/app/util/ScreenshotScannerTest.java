@@ -0,0 +1,76 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScreenshotScannerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private ScreenshotScanner scanner;
+    
+    @AfterEach
+    void tearDown() {
+        if (scanner != null) {
+            scanner.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Recent images should be reported once and old or non-image files skipped")
+    void testScanReportsRecentImagesOnce() throws Exception {
+        // Given
+        Files.write(tempDir.resolve("new.png"), new byte[] {1, 2, 3});
+        Files.write(tempDir.resolve("notes.txt"), new byte[] {1});
+        Path old = Files.write(tempDir.resolve("old.png"), new byte[] {4, 5});
+        Files.setLastModifiedTime(old, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(3)));
+        
+        List<Path> found = new CopyOnWriteArrayList<>();
+        CountDownLatch reported = new CountDownLatch(1);
+        scanner = new ScreenshotScanner(List.of(tempDir), TimeUnit.HOURS.toMillis(1), file -> {
+            found.add(file);
+            reported.countDown();
+        });
+        
+        // When
+        scanner.scan();
+        assertTrue(reported.await(5, TimeUnit.SECONDS));
+        scanner.scan();
+        Thread.sleep(800);
+        
+        // Then
+        assertEquals(List.of(tempDir.resolve("new.png")), found);
+        assertTrue(scanner.getProcessedFiles().containsKey(tempDir.resolve("new.png").toAbsolutePath().toString()));
+    }
+    
+    @Test
+    @DisplayName("Processed files older than the import window should be pruned")
+    void testProcessedFilesPruned() {
+        // Given
+        scanner = new ScreenshotScanner(List.of(tempDir), TimeUnit.HOURS.toMillis(1), file -> { });
+        long now = System.currentTimeMillis();
+        
+        // When
+        scanner.restoreProcessedFiles(Map.of(
+            "/screens/recent.png", now,
+            "/screens/stale.png", now - TimeUnit.HOURS.toMillis(5)));
+        
+        // Then
+        assertEquals(Set.of("/screens/recent.png"), scanner.getProcessedFiles().keySet());
+    }
+}
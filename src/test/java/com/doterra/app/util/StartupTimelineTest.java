@@ -0,0 +1,59 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimelineTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Report should wait for phases still running when startup finishes")
+    void testReportWaitsForOpenPhases() throws IOException {
+        // Given
+        Path reportFile = tempDir.resolve("startup_report.txt");
+        StartupTimeline timeline = new StartupTimeline(System.nanoTime(), reportFile);
+        timeline.beginPhase("main view").end();
+        StartupTimeline.Phase scriptsLoad = timeline.beginPhase("chat scripts load");
+        
+        // When
+        timeline.finishTimeline();
+        
+        // Then
+        assertNull(timeline.getReport());
+        assertFalse(Files.exists(reportFile));
+        
+        scriptsLoad.end();
+        String report = timeline.getReport();
+        assertNotNull(report);
+        assertTrue(report.indexOf("main view") < report.indexOf("chat scripts load"));
+        assertEquals(report, Files.readString(reportFile));
+    }
+    
+    @Test
+    @DisplayName("Phases begun after the report should be ignored")
+    void testPhasesAfterReportIgnored() {
+        // Given
+        StartupTimeline timeline = new StartupTimeline(System.nanoTime(), null);
+        timeline.beginPhase("main view").end();
+        timeline.finishTimeline();
+        String report = timeline.getReport();
+        
+        // When
+        StartupTimeline.Phase late = timeline.beginPhase("late panel");
+        late.end();
+        late.end();
+        
+        // Then
+        assertEquals(report, timeline.getReport());
+        assertFalse(report.contains("late panel"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextIndexTest {
+    
+    @Test
+    @DisplayName("Every query word should prefix-match a word of the item")
+    void testPrefixSearch() {
+        // Given
+        TextIndex<String> index = new TextIndex<>();
+        index.put("a", TextIndex.tokenize("Order confirmation for Jane, Screenshot 2024-03-05"));
+        index.put("b", TextIndex.tokenize("Shipping error screenshot"));
+        
+        // When / Then
+        assertEquals(Set.of("a", "b"), index.search("SCREEN"));
+        assertEquals(Set.of("a"), index.search("screen conf"));
+        assertEquals(Set.of("a"), index.search("2024-03"));
+        assertTrue(index.search("refund").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Re-indexing or removing an item should update its matches")
+    void testIncrementalUpdates() {
+        // Given
+        TextIndex<String> index = new TextIndex<>();
+        index.put("a", List.of("draft"));
+        index.put("b", List.of("draft"));
+        
+        // When
+        index.put("a", List.of("final"));
+        index.remove("b");
+        
+        // Then
+        assertTrue(index.search("draft").isEmpty());
+        assertEquals(Set.of("a"), index.search("fin"));
+        assertEquals(1, index.size());
+    }
+}
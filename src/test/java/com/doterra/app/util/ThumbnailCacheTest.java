@@ -0,0 +1,52 @@
+package com.doterra.app.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailCacheTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private ThumbnailCache cache;
+    
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Thumbnails should be downscaled to fit the size and cached on disk")
+    void testThumbnailDownscaledAndCached() throws Exception {
+        // Given - a large screenshot in the blob store
+        BlobStore blobs = new BlobStore(tempDir.resolve("blobs"));
+        Path screenshot = tempDir.resolve("screenshot.png");
+        ImageIO.write(new BufferedImage(1600, 900, BufferedImage.TYPE_INT_RGB), "png", screenshot.toFile());
+        String hash = blobs.put(screenshot);
+        cache = new ThumbnailCache(blobs, tempDir.resolve("thumbs"), 150);
+        
+        // When
+        Path thumbnail = cache.thumbnailFor(hash).get(10, TimeUnit.SECONDS);
+        
+        // Then
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertEquals(150, image.getWidth());
+        assertTrue(image.getHeight() <= 150);
+        assertTrue(cache.thumbnailFor(hash).isDone(), "Second request should be served from the disk cache");
+        
+        cache.evict(hash);
+        assertFalse(Files.exists(thumbnail));
+    }
+}
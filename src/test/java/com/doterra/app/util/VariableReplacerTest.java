@@ -3,6 +3,7 @@ package com.doterra.app.util;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.List;
+import java.util.Map;
 
 public class VariableReplacerTest {
 
@@ -123,4 +124,22 @@ public class VariableReplacerTest {
         // Context for customer_name should include the period: "Hello" (customer_name) "."
         // Context for company_name should include the exclamation: "business with" (company_name) "!"
     }
+    
+    @Test
+    public void testParsedScriptRendersValuesInOnePass() {
+        VariableReplacer.ParsedScript script = VariableReplacer.parse("Hi (name), (name)! Order (order) \\(ref\\) ready");
+        
+        assertEquals(List.of("name", "order"), script.getVariables());
+        Map<String, String> values = Map.of("name", "Ann", "order", " ");
+        // Blank values keep the variable so it can be filled in by hand
+        assertEquals("Hi Ann, Ann! Order (order) \\(ref\\) ready", script.render(values));
+        assertEquals("Hi Ann, Ann! Order (order) (ref) ready", script.renderForClipboard(values));
+    }
+    
+    @Test
+    public void testFormatForClipboardUsesSameParse() {
+        assertEquals("a (b) $1 (c)", VariableReplacer.formatForClipboard("a \\(b\\) $1 (c)"));
+        assertFalse(VariableReplacer.parse("").hasVariables());
+        assertNull(VariableReplacer.parse(null).render(Map.of()));
+    }
 }
\ No newline at end of file
@@ -42,7 +42,7 @@ public class ButtonDragDropTest extends ApplicationTest {
         
         // Get button controller through reflection
         try {
-            Field controllerField = ChatScriptsPanel.class.getDeclaredField("buttonController");
+            Field controllerField = ScriptsPanel.class.getDeclaredField("buttonController");
             controllerField.setAccessible(true);
             buttonController = (ButtonController) controllerField.get(chatScriptsPanel);
         } catch (Exception e) {
@@ -130,33 +130,19 @@ public class ButtonDragDropTest extends ApplicationTest {
                 tab.addButton(button2);
                 tab.addButton(button3);
                 buttonController.addTab(tab);
+                ScriptGrid grid = new ScriptGrid(buttonController.getTab(tab.getId()));
                 
-                // Refresh UI
-                chatScriptsPanel = new ChatScriptsPanel();
-                Scene scene = new Scene(chatScriptsPanel.getRoot(), 800, 600);
-                stage.setScene(scene);
+                // Drop the first button on the empty cell after the last, as the grid does
+                assertTrue(buttonController.getTab(tab.getId()).swapIntoCell(button1.getId(), 3));
+                grid.reload();
                 
-                TabPane tabPane = findTabPane();
-                Tab uiTab = tabPane.getTabs().get(0);
-                ScrollPane scrollPane = (ScrollPane) uiTab.getContent();
-                FlowPane buttonPane = (FlowPane) scrollPane.getContent();
-                
-                // Verify initial order by checking button IDs
-                assertEquals(3, buttonPane.getChildren().size());
-                
-                // Simulate reordering - move first button to last position
-                Button firstButton = (Button) buttonPane.getChildren().get(0);
-                buttonPane.getChildren().remove(firstButton);
-                buttonPane.getChildren().add(firstButton);
-                
-                // Trigger update
-                updateButtonOrder(uiTab);
-                
-                // Verify the order in the controller matches UI order
+                // The first button leaves a gap and the others keep their cells
                 List<ScriptButton> buttons = buttonController.getTab(tab.getId()).getButtons();
-                assertEquals(button2.getId(), buttons.get(0).getId());
-                assertEquals(button3.getId(), buttons.get(1).getId());
-                assertEquals(button1.getId(), buttons.get(2).getId());
+                assertEquals(4, buttons.size());
+                assertNull(buttons.get(0));
+                assertEquals(button2.getId(), buttons.get(1).getId());
+                assertEquals(button3.getId(), buttons.get(2).getId());
+                assertEquals(button1.getId(), buttons.get(3).getId());
                 
             } catch (Exception e) {
                 fail("Test failed: " + e.getMessage());
@@ -313,29 +299,11 @@ public class ButtonDragDropTest extends ApplicationTest {
                 String id1 = button1.getId();
                 String id2 = button2.getId();
                 
-                // Refresh UI
-                chatScriptsPanel = new ChatScriptsPanel();
-                Scene scene = new Scene(chatScriptsPanel.getRoot(), 800, 600);
-                stage.setScene(scene);
-                
-                TabPane tabPane = findTabPane();
-                Tab uiTab = tabPane.getTabs().get(0);
-                ScrollPane scrollPane = (ScrollPane) uiTab.getContent();
-                FlowPane buttonPane = (FlowPane) scrollPane.getContent();
-                
-                // Both buttons should be present
-                assertEquals(2, buttonPane.getChildren().size());
+                ScriptGrid grid = new ScriptGrid(buttonController.getTab(tab.getId()));
                 
-                // Swap button positions
-                Button uiButton1 = (Button) buttonPane.getChildren().get(0);
-                Button uiButton2 = (Button) buttonPane.getChildren().get(1);
-                
-                buttonPane.getChildren().clear();
-                buttonPane.getChildren().add(uiButton2);
-                buttonPane.getChildren().add(uiButton1);
-                
-                // Update order
-                updateButtonOrder(uiTab);
+                // Drop the first button on the second one's cell, as the grid does
+                assertTrue(buttonController.getTab(tab.getId()).swapIntoCell(id1, 1));
+                grid.reload();
                 
                 // Verify buttons are correctly identified by ID, not name
                 List<ScriptButton> reorderedButtons = buttonController.getTab(tab.getId()).getButtons();
@@ -352,18 +320,6 @@ public class ButtonDragDropTest extends ApplicationTest {
         assertTrue(latch.await(5, TimeUnit.SECONDS));
     }
     
-    // Helper method to simulate updateButtonOrder from ChatScriptsPanel
-    private void updateButtonOrder(Tab tab) {
-        try {
-            // Use reflection to call private method
-            java.lang.reflect.Method method = ChatScriptsPanel.class.getDeclaredMethod("updateButtonOrder", Tab.class);
-            method.setAccessible(true);
-            method.invoke(chatScriptsPanel, tab);
-        } catch (Exception e) {
-            fail("Could not call updateButtonOrder: " + e.getMessage());
-        }
-    }
-    
     private TabPane findTabPane() {
         return (TabPane) chatScriptsPanel.getRoot().lookup(".tab-pane");
     }